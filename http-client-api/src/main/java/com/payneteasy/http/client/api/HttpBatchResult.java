@@ -0,0 +1,30 @@
+package com.payneteasy.http.client.api;
+
+import lombok.Data;
+
+import javax.annotation.Nullable;
+
+@Data
+public class HttpBatchResult {
+
+    /** position of the request in the batch */
+    private final int index;
+
+    private final HttpRequest request;
+
+    /** null if the request failed */
+    @Nullable
+    private final HttpResponse response;
+
+    /** HttpConnectException, HttpReadException, HttpWriteException or null */
+    @Nullable
+    private final Throwable error;
+
+    /** from the start of the request to its result */
+    private final long elapsedMs;
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.payneteasy.http.client.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Keeps up to a parallelism of async calls in progress and collects their results by index.
+ *
+ * The next call is started from the completion of the previous one. Calls that complete at once,
+ * for example rejected ones, are started in a loop instead of a recursion.
+ */
+public class HttpBatchScheduler {
+
+    private static final Logger LOG = Logger.getLogger(HttpBatchScheduler.class.getName());
+
+    public interface IHttpBatchCall {
+        CompletableFuture<HttpResponse> send(HttpRequest aRequest);
+    }
+
+    private final List<HttpRequest>                          requests;
+    private final IHttpBatchListener                         listener;
+    private final IHttpBatchCall                             call;
+    private final HttpBatchResult[]                          results;
+    private final AtomicReferenceArray<CompletableFuture<?>> calls;
+    private final CompletableFuture<List<HttpBatchResult>>   future        = new CompletableFuture<>();
+    private final AtomicInteger                              nextIndex     = new AtomicInteger();
+    private final AtomicInteger                              pendingStarts = new AtomicInteger();
+    private final AtomicInteger                              finished      = new AtomicInteger();
+
+    private HttpBatchScheduler(List<HttpRequest> aRequests, IHttpBatchListener aListener, IHttpBatchCall aCall) {
+        requests = aRequests;
+        listener = aListener;
+        call     = aCall;
+        results  = new HttpBatchResult[aRequests.size()];
+        calls    = new AtomicReferenceArray<>(aRequests.size());
+    }
+
+    public static CompletableFuture<List<HttpBatchResult>> sendAll(List<HttpRequest> aRequests, int aParallelism, IHttpBatchListener aListener, IHttpBatchCall aCall) {
+        if(aParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was " + aParallelism);
+        }
+        if(aRequests.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        HttpBatchScheduler batch = new HttpBatchScheduler(aRequests, aListener, aCall);
+        batch.future.whenComplete((result, error) -> {
+            if(batch.future.isCancelled()) {
+                batch.cancelCalls();
+            }
+        });
+        for (int i = 0; i < Math.min(aParallelism, aRequests.size()); i++) {
+            batch.startNext();
+        }
+        return batch.future;
+    }
+
+    private void startNext() {
+        if(pendingStarts.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            int index = nextIndex.getAndIncrement();
+            if(index < requests.size() && !future.isDone()) {
+                startCall(index);
+            }
+        } while (pendingStarts.decrementAndGet() != 0);
+    }
+
+    private void startCall(int aIndex) {
+        HttpRequest                     request    = requests.get(aIndex);
+        long                            startNanos = System.nanoTime();
+        CompletableFuture<HttpResponse> callFuture;
+        try {
+            callFuture = call.send(request);
+        } catch (RuntimeException e) {
+            callFuture = new CompletableFuture<>();
+            callFuture.completeExceptionally(e);
+        }
+
+        calls.set(aIndex, callFuture);
+        if(future.isCancelled()) {
+            callFuture.cancel(true);
+        }
+        callFuture.whenComplete((response, error) -> onFinished(aIndex, request, response, error, startNanos));
+    }
+
+    private void onFinished(int aIndex, HttpRequest aRequest, HttpResponse aResponse, Throwable aError, long aStartNanos) {
+        Throwable       error  = aError instanceof CompletionException && aError.getCause() != null ? aError.getCause() : aError;
+        HttpBatchResult result = new HttpBatchResult(aIndex, aRequest, error == null ? aResponse : null, error, NANOSECONDS.toMillis(System.nanoTime() - aStartNanos));
+        results[aIndex] = result;
+        calls.set(aIndex, null);
+
+        startNext();
+
+        try {
+            listener.onResult(result);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Batch listener failed on " + aRequest.getUrl(), e);
+        }
+
+        if(finished.incrementAndGet() == requests.size()) {
+            future.complete(Collections.unmodifiableList(Arrays.asList(results)));
+        }
+    }
+
+    private void cancelCalls() {
+        for (int i = 0; i < calls.length(); i++) {
+            CompletableFuture<?> callFuture = calls.get(i);
+            if(callFuture != null) {
+                callFuture.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.api;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Data
+public class HttpDownloadResponse {
+
+    private final int              statusCode;
+    private final String           reasonPhrase;
+    private final List<HttpHeader> headers;
+    private final Path             path;
+    private final long             bodyLength;
+
+}
@@ -0,0 +1,36 @@
+package com.payneteasy.http.client.api;
+
+/**
+ * Well-known header names for lookups in {@link HttpHeaders}, the case does not matter
+ */
+public final class HttpHeaderNames {
+
+    public static final String ACCEPT              = "Accept";
+    public static final String ACCEPT_ENCODING     = "Accept-Encoding";
+    public static final String AGE                 = "Age";
+    public static final String AUTHORIZATION       = "Authorization";
+    public static final String CACHE_CONTROL       = "Cache-Control";
+    public static final String CONNECTION          = "Connection";
+    public static final String CONTENT_ENCODING    = "Content-Encoding";
+    public static final String CONTENT_LENGTH      = "Content-Length";
+    public static final String CONTENT_TYPE        = "Content-Type";
+    public static final String COOKIE              = "Cookie";
+    public static final String DATE                = "Date";
+    public static final String ETAG                = "ETag";
+    public static final String EXPIRES             = "Expires";
+    public static final String HOST                = "Host";
+    public static final String IF_MODIFIED_SINCE   = "If-Modified-Since";
+    public static final String IF_NONE_MATCH       = "If-None-Match";
+    public static final String LAST_MODIFIED       = "Last-Modified";
+    public static final String LOCATION            = "Location";
+    public static final String PRAGMA              = "Pragma";
+    public static final String PROXY_AUTHORIZATION = "Proxy-Authorization";
+    public static final String RETRY_AFTER         = "Retry-After";
+    public static final String SET_COOKIE          = "Set-Cookie";
+    public static final String TRANSFER_ENCODING   = "Transfer-Encoding";
+    public static final String USER_AGENT          = "User-Agent";
+    public static final String VARY                = "Vary";
+
+    private HttpHeaderNames() {
+    }
+}
@@ -1,21 +1,155 @@
 package com.payneteasy.http.client.api;
 
+import javax.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
-public class HttpHeaders {
+/**
+ * Immutable list of headers in the received order with a case-insensitive index by name.
+ *
+ * Repeated headers are preserved, {@link #get(String)} returns the first value and {@link #getAll(String)} all of them.
+ * Lookups do not allocate: names are hashed ignoring ASCII case into an open addressing table
+ * that points to the first header of the name, headers of the same name are chained.
+ */
+public class HttpHeaders extends AbstractList<HttpHeader> implements RandomAccess {
 
-    private final List<HttpHeader> headers;
+    public static final HttpHeaders EMPTY = new HttpHeaders(new HttpHeader[0]);
+
+    private final HttpHeader[] headers;
+
+    /** index + 1 of the first header of a name, 0 is an empty slot */
+    private final int[] table;
+
+    /** index of the next header with the same name or -1 */
+    private final int[] next;
 
     public HttpHeaders(List<HttpHeader> headers) {
-        this.headers = Collections.unmodifiableList(headers);
+        this(headers.toArray(new HttpHeader[0]));
+    }
+
+    private HttpHeaders(HttpHeader[] aHeaders) {
+        headers = aHeaders;
+        table   = new int[tableSize(aHeaders.length)];
+        next    = new int[aHeaders.length];
+
+        // index of the last header in the chain of a name, by the index of the first one
+        int[] last = new int[aHeaders.length];
+        for (int i = 0; i < aHeaders.length; i++) {
+            next[i] = -1;
+            int slot = slotOf(aHeaders[i].getName());
+            if(table[slot] == 0) {
+                table[slot] = i + 1;
+                last[i]     = i;
+            } else {
+                int first = table[slot] - 1;
+                next[last[first]] = i;
+                last[first]       = i;
+            }
+        }
     }
 
     public static HttpHeaders singleHeader(String aName, String aValue) {
-        return new HttpHeaders(Collections.singletonList(new HttpHeader(aName, aValue)));
+        return new HttpHeaders(new HttpHeader[]{new HttpHeader(aName, aValue)});
+    }
+
+    /**
+     * @return the same instance if the list is already indexed
+     */
+    public static HttpHeaders of(@Nullable List<HttpHeader> aHeaders) {
+        if(aHeaders == null || aHeaders.isEmpty()) {
+            return EMPTY;
+        }
+        return aHeaders instanceof HttpHeaders ? (HttpHeaders) aHeaders : new HttpHeaders(aHeaders);
+    }
+
+    public List<HttpHeader> asList() {
+        return this;
+    }
+
+    /**
+     * @return the first value of the header or null
+     */
+    @Nullable
+    public String get(String aName) {
+        int index = indexOf(aName);
+        return index < 0 ? null : headers[index].getValue();
+    }
+
+    /**
+     * @return values in the received order, empty if the header is absent
+     */
+    public List<String> getAll(String aName) {
+        int index = indexOf(aName);
+        if(index < 0) {
+            return Collections.emptyList();
+        }
+        if(next[index] < 0) {
+            return Collections.singletonList(headers[index].getValue());
+        }
+        List<String> values = new ArrayList<>();
+        for (int i = index; i >= 0; i = next[i]) {
+            values.add(headers[i].getValue());
+        }
+        return values;
+    }
+
+    public boolean contains(String aName) {
+        return indexOf(aName) >= 0;
+    }
+
+    @Override
+    public HttpHeader get(int aIndex) {
+        return headers[aIndex];
+    }
+
+    @Override
+    public int size() {
+        return headers.length;
+    }
+
+    private int indexOf(String aName) {
+        int mask = table.length - 1;
+        for (int slot = hash(aName) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            HttpHeader header = headers[table[slot] - 1];
+            if(header.getName().equalsIgnoreCase(aName)) {
+                return table[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the slot of the name or the free slot to put it into
+     */
+    private int slotOf(String aName) {
+        int mask = table.length - 1;
+        int slot = hash(aName) & mask;
+        while (table[slot] != 0 && !headers[table[slot] - 1].getName().equalsIgnoreCase(aName)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(String aName) {
+        int hash = 0;
+        for (int i = 0; i < aName.length(); i++) {
+            char c = aName.charAt(i);
+            if(c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
     }
 
-    public  List<HttpHeader> asList() {
-        return headers;
+    private static int tableSize(int aCount) {
+        int size = 2;
+        while (size < aCount * 2) {
+            size <<= 1;
+        }
+        return size;
     }
 }
@@ -5,7 +5,15 @@ import java.util.List;
 
 public class HttpHeadersBuilder {
 
-    private final List<HttpHeader> headers = new ArrayList<>();
+    private final List<HttpHeader> headers;
+
+    public HttpHeadersBuilder() {
+        this(8);
+    }
+
+    public HttpHeadersBuilder(int aExpectedSize) {
+        headers = new ArrayList<>(aExpectedSize);
+    }
 
     public HttpHeadersBuilder add(String aName, long aValue) {
         return add(aName, "" + aValue);
@@ -2,6 +2,7 @@ package com.payneteasy.http.client.api;
 
 import com.payneteasy.http.client.api.HttpHeaders;
 import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
@@ -17,4 +18,9 @@ public class HttpRequest {
     private final HttpHeaders headers;
     private final byte[]      body;
 
+    /**
+     * Streamed body, use instead of {@link #body} for large uploads
+     */
+    private final IHttpRequestBody requestBody;
+
 }
@@ -1,5 +1,7 @@
 package com.payneteasy.http.client.api;
 
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
 import lombok.Builder;
 import lombok.Data;
 
@@ -16,4 +18,24 @@ public class HttpRequestParameters {
     private final HostnameVerifier    hostnameVerifier;
     private final SSLSocketFactory    sslSocketFactory;
     private final X509TrustManager    trustManager;
+
+    /**
+     * Receives timings of calls with these parameters, may be null
+     */
+    private final IHttpClientEventListener eventListener;
+
+    /**
+     * Response decoding and request body compression, null to send and receive bodies as is
+     */
+    private final HttpCompression compression;
+
+    /**
+     * Resolves host names for the OkHttp and NIO engines, null for the JVM resolver.
+     * HttpURLConnection and java.net.http.HttpClient always resolve through InetAddress and ignore it.
+     */
+    private final IHttpDnsResolver dnsResolver;
+
+    public IHttpClientEventListener getEventListenerOrNoOp() {
+        return eventListener != null ? eventListener : IHttpClientEventListener.NO_OP;
+    }
 }
@@ -2,6 +2,7 @@ package com.payneteasy.http.client.api;
 
 import lombok.Data;
 
+import javax.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
@@ -13,6 +14,14 @@ public class HttpResponse {
     private final List<HttpHeader> headers;
     private final byte[]           body;
 
+    /**
+     * @return the first value of the header, the case of the name does not matter
+     */
+    @Nullable
+    public String getHeader(String aName) {
+        return HttpHeaders.of(headers).get(aName);
+    }
+
     @Override
     public String toString() {
         return  "HttpResponse("
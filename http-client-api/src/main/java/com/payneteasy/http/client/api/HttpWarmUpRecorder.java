@@ -0,0 +1,47 @@
+package com.payneteasy.http.client.api;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Collects the outcomes of concurrent warm up requests
+ */
+public class HttpWarmUpRecorder {
+
+    private final int  requested;
+    private final long startNanos = System.nanoTime();
+
+    private int       connected;
+    private int       failed;
+    private long      totalConnectNanos;
+    private long      maxConnectNanos;
+    private Throwable firstError;
+
+    public HttpWarmUpRecorder(int aRequested) {
+        requested = aRequested;
+    }
+
+    public synchronized void onConnected(long aConnectNanos) {
+        connected++;
+        totalConnectNanos += aConnectNanos;
+        maxConnectNanos    = Math.max(maxConnectNanos, aConnectNanos);
+    }
+
+    public synchronized void onFailed(Throwable aError) {
+        failed++;
+        if(firstError == null) {
+            firstError = aError;
+        }
+    }
+
+    public synchronized HttpWarmUpResult toResult() {
+        return new HttpWarmUpResult(
+                requested
+                , connected
+                , failed
+                , NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+                , connected > 0 ? NANOSECONDS.toMillis(totalConnectNanos / connected) : 0
+                , NANOSECONDS.toMillis(maxConnectNanos)
+                , firstError
+        );
+    }
+}
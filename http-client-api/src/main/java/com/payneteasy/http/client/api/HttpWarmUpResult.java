@@ -0,0 +1,29 @@
+package com.payneteasy.http.client.api;
+
+import lombok.Data;
+
+@Data
+public class HttpWarmUpResult {
+
+    /** connections asked for */
+    private final int requested;
+
+    /** distinct connections opened and left in the pool */
+    private final int connected;
+
+    /** requests that failed */
+    private final int failed;
+
+    /** from the start of the warm up to the last finished request */
+    private final long elapsedMs;
+
+    /** average time to connect and handshake */
+    private final long averageConnectMs;
+
+    /** the slowest connect and handshake */
+    private final long maxConnectMs;
+
+    /** the first failure or null */
+    private final Throwable firstError;
+
+}
@@ -0,0 +1,18 @@
+package com.payneteasy.http.client.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking variant of {@link IHttpClient}.
+ *
+ * The returned future completes exceptionally with
+ * {@link com.payneteasy.http.client.api.exceptions.HttpConnectException},
+ * {@link com.payneteasy.http.client.api.exceptions.HttpReadException} or
+ * {@link com.payneteasy.http.client.api.exceptions.HttpWriteException}.
+ * Cancelling the future cancels the underlying call.
+ */
+public interface IHttpAsyncClient {
+
+    CompletableFuture<HttpResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters);
+
+}
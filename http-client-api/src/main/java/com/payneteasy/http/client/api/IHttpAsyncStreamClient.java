@@ -0,0 +1,16 @@
+package com.payneteasy.http.client.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking variant of {@link IHttpStreamClient}.
+ *
+ * Futures complete exceptionally with the same exceptions as {@link IHttpStreamClient} throws.
+ */
+public interface IHttpAsyncStreamClient {
+
+    CompletableFuture<Void> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener);
+
+    CompletableFuture<IHttpStreamResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters);
+
+}
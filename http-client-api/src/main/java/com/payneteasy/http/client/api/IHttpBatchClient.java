@@ -0,0 +1,26 @@
+package com.payneteasy.http.client.api;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends many requests with bounded parallelism, for example status queries of a reconciliation job
+ */
+public interface IHttpBatchClient {
+
+    /**
+     * Starts up to aParallelism requests and the next one as soon as a request finishes.
+     * A failed request does not stop the others, its error is in its result.
+     *
+     * @param aListener gets each result as it arrives, on the thread that finished the request
+     * @return results in the order of aRequests, completes when all requests are finished.
+     *         Cancelling it skips the requests not started yet and cancels the requests in progress,
+     *         HttpURLConnection, OkHttp and NIO close their connections, java.net.http before JDK 16 lets them finish.
+     */
+    CompletableFuture<List<HttpBatchResult>> sendAll(List<HttpRequest> aRequests, HttpRequestParameters aRequestParameters, int aParallelism, IHttpBatchListener aListener);
+
+    default CompletableFuture<List<HttpBatchResult>> sendAll(List<HttpRequest> aRequests, HttpRequestParameters aRequestParameters, int aParallelism) {
+        return sendAll(aRequests, aRequestParameters, aParallelism, aResult -> {});
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.payneteasy.http.client.api;
+
+public interface IHttpBatchListener {
+
+    void onResult(HttpBatchResult aResult);
+
+}
@@ -0,0 +1,62 @@
+package com.payneteasy.http.client.api;
+
+/**
+ * Phases of a call with {@link System#nanoTime()} timestamps.
+ *
+ * Callbacks run on the calling or an engine thread and must be fast.
+ * Engines call only the phases they can observe: HttpURLConnection does not expose
+ * DNS and TLS handshake, okhttp reports all of them.
+ */
+public interface IHttpClientEventListener {
+
+    IHttpClientEventListener NO_OP = new IHttpClientEventListener() {
+    };
+
+    default void onCallStart(HttpRequest aRequest, long aNanos) {
+    }
+
+    default void onDnsStart(HttpRequest aRequest, String aHost, long aNanos) {
+    }
+
+    default void onDnsEnd(HttpRequest aRequest, String aHost, long aNanos) {
+    }
+
+    default void onConnectStart(HttpRequest aRequest, long aNanos) {
+    }
+
+    /**
+     * Includes the TLS handshake
+     */
+    default void onConnectEnd(HttpRequest aRequest, long aNanos) {
+    }
+
+    default void onTlsHandshakeStart(HttpRequest aRequest, long aNanos) {
+    }
+
+    default void onTlsHandshakeEnd(HttpRequest aRequest, long aNanos) {
+    }
+
+    default void onRequestHeadersWritten(HttpRequest aRequest, long aNanos) {
+    }
+
+    /**
+     * @param aBodyLength number of bytes or -1 if unknown
+     */
+    default void onRequestBodyWritten(HttpRequest aRequest, long aBodyLength, long aNanos) {
+    }
+
+    default void onResponseFirstByte(HttpRequest aRequest, long aNanos) {
+    }
+
+    default void onResponseHeaders(HttpRequest aRequest, int aStatusCode, long aNanos) {
+    }
+
+    default void onResponseBodyComplete(HttpRequest aRequest, long aBodyLength, long aNanos) {
+    }
+
+    /**
+     * @param aError exception of the engine or the converted HttpConnectException, HttpReadException or HttpWriteException
+     */
+    default void onCallFailed(HttpRequest aRequest, Exception aError, long aNanos) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.payneteasy.http.client.api;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.nio.file.Path;
+
+/**
+ * Writes a response body straight into a file without holding it in memory
+ */
+public interface IHttpDownloadClient {
+
+    /**
+     * The file is created or truncated and receives the body of any status code.
+     * Its content is undefined if an exception is thrown.
+     */
+    HttpDownloadResponse download(HttpRequest aRequest, HttpRequestParameters aRequestParameters, Path aTarget) throws HttpConnectException, HttpReadException, HttpWriteException;
+
+}
@@ -0,0 +1,15 @@
+package com.payneteasy.http.client.api;
+
+import com.payneteasy.http.client.api.buffer.HttpPooledResponse;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+public interface IHttpPooledClient {
+
+    /**
+     * @return response that must be closed to return its body buffer to the pool
+     */
+    HttpPooledResponse sendPooled(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException;
+
+}
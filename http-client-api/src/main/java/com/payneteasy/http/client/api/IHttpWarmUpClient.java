@@ -0,0 +1,18 @@
+package com.payneteasy.http.client.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Opens keep-alive connections ahead of traffic, after a start or a failover
+ */
+public interface IHttpWarmUpClient {
+
+    /**
+     * Sends aConnections concurrent HEAD requests to aUrl. Each request holds its own connection
+     * until all of them are connected and handshaked, then the connections stay in the keep-alive pool.
+     *
+     * @return completes when all requests are finished, failures are counted in the result
+     */
+    CompletableFuture<HttpWarmUpResult> warmUp(String aUrl, int aConnections, HttpRequestParameters aRequestParameters);
+
+}
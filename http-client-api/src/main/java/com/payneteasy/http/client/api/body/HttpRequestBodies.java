@@ -0,0 +1,195 @@
+package com.payneteasy.http.client.api.body;
+
+import com.payneteasy.http.client.api.HttpRequest;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+public class HttpRequestBodies {
+
+    public static IHttpRequestBody ofBytes(byte[] aBytes) {
+        return new BytesBody(aBytes);
+    }
+
+    /**
+     * @param aLength length in bytes or -1 if unknown
+     */
+    public static IHttpRequestBody ofInputStream(InputStream aInputStream, long aLength) {
+        return new InputStreamBody(aInputStream, aLength);
+    }
+
+    /**
+     * The file is opened each time the body is sent
+     */
+    public static IHttpRequestBody ofFile(Path aPath) throws IOException {
+        return new FileBody(aPath, Files.size(aPath));
+    }
+
+    /**
+     * @param aSupplier returns buffers to send one by one and null at the end
+     * @param aLength   length in bytes or -1 if unknown
+     */
+    public static IHttpRequestBody ofByteBuffers(Supplier<ByteBuffer> aSupplier, long aLength) {
+        return new ByteBuffersBody(aSupplier, aLength);
+    }
+
+    /**
+     * @return body of the request: {@link HttpRequest#getRequestBody()}, {@link HttpRequest#getBody()} or null if there is no body
+     */
+    @Nullable
+    public static IHttpRequestBody of(HttpRequest aRequest) {
+        IHttpRequestBody requestBody = aRequest.getRequestBody();
+        byte[]           bytes       = aRequest.getBody();
+
+        if(requestBody != null) {
+            if(bytes != null) {
+                throw new IllegalStateException("Both body and requestBody are set for " + aRequest.getUrl());
+            }
+            return requestBody;
+        }
+
+        return bytes != null && bytes.length > 0 ? new BytesBody(bytes) : null;
+    }
+
+    private static class BytesBody implements IHttpRequestBody {
+
+        private final byte[] bytes;
+
+        private BytesBody(byte[] aBytes) {
+            bytes = aBytes;
+        }
+
+        @Override
+        public long getContentLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public void writeTo(OutputStream aOutputStream) throws IOException {
+            aOutputStream.write(bytes);
+        }
+    }
+
+    private static class InputStreamBody implements IHttpRequestBody {
+
+        private final InputStream inputStream;
+        private final long        length;
+        private       boolean     opened;
+
+        private InputStreamBody(InputStream aInputStream, long aLength) {
+            inputStream = aInputStream;
+            length      = aLength;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public synchronized InputStream openStream() throws IOException {
+            if(opened) {
+                throw new IOException("Input stream body was already sent");
+            }
+            opened = true;
+            return inputStream;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+    }
+
+    private static class FileBody implements IHttpRequestBody {
+
+        private final Path path;
+        private final long length;
+
+        private FileBody(Path aPath, long aLength) {
+            path   = aPath;
+            length = aLength;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+    }
+
+    private static class ByteBuffersBody implements IHttpRequestBody {
+
+        private final Supplier<ByteBuffer> supplier;
+        private final long                 length;
+
+        private ByteBuffersBody(Supplier<ByteBuffer> aSupplier, long aLength) {
+            supplier = aSupplier;
+            length   = aLength;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new ByteBuffersInputStream(supplier);
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+    }
+
+    private static class ByteBuffersInputStream extends InputStream {
+
+        private final Supplier<ByteBuffer> supplier;
+        private       ByteBuffer           current;
+        private       boolean              finished;
+
+        private ByteBuffersInputStream(Supplier<ByteBuffer> aSupplier) {
+            supplier = aSupplier;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] aBuffer, int aOffset, int aLength) {
+            while (!finished && (current == null || !current.hasRemaining())) {
+                current  = supplier.get();
+                finished = current == null;
+            }
+
+            if(finished) {
+                return -1;
+            }
+
+            int count = Math.min(aLength, current.remaining());
+            current.get(aBuffer, aOffset, count);
+            return count;
+        }
+    }
+}
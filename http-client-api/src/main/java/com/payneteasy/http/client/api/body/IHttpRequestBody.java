@@ -0,0 +1,40 @@
+package com.payneteasy.http.client.api.body;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Request body that is streamed to the socket instead of being held in memory.
+ *
+ * @see HttpRequestBodies
+ */
+public interface IHttpRequestBody {
+
+    /**
+     * @return length in bytes or -1 if unknown, unknown length bodies are sent with chunked encoding
+     */
+    long getContentLength();
+
+    /**
+     * Opens the body for reading. One shot bodies can be opened only once.
+     */
+    InputStream openStream() throws IOException;
+
+    /**
+     * @return true if the body cannot be sent again, for example on a retry
+     */
+    default boolean isOneShot() {
+        return false;
+    }
+
+    default void writeTo(OutputStream aOutputStream) throws IOException {
+        try (InputStream in = openStream()) {
+            byte[] buffer = new byte[8192];
+            int    count;
+            while ((count = in.read(buffer)) >= 0) {
+                aOutputStream.write(buffer, 0, count);
+            }
+        }
+    }
+}
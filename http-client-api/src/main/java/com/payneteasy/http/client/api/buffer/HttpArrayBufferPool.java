@@ -0,0 +1,74 @@
+package com.payneteasy.http.client.api.buffer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps released arrays in power of two size classes.
+ * Bigger arrays are allocated and dropped as usual.
+ */
+public class HttpArrayBufferPool implements IHttpBufferPool {
+
+    private static final int MIN_SIZE_SHIFT = 12; // 4 KB
+
+    private final int                          maxBufferSize;
+    private final ArrayBlockingQueue<byte[]>[] classes;
+    private final AtomicLong                   hits   = new AtomicLong();
+    private final AtomicLong                   misses = new AtomicLong();
+    private final AtomicLong                   drops  = new AtomicLong();
+
+    /**
+     * @param aMaxBufferSize     arrays bigger than this are not pooled, rounded up to a power of two
+     * @param aMaxBuffersPerSize max number of arrays kept for each size class
+     */
+    @SuppressWarnings("unchecked")
+    public HttpArrayBufferPool(int aMaxBufferSize, int aMaxBuffersPerSize) {
+        int count = sizeClass(aMaxBufferSize) + 1;
+        maxBufferSize = 1 << (count - 1 + MIN_SIZE_SHIFT);
+        classes       = new ArrayBlockingQueue[count];
+        for (int i = 0; i < count; i++) {
+            classes[i] = new ArrayBlockingQueue<>(aMaxBuffersPerSize);
+        }
+    }
+
+    @Override
+    public byte[] acquire(int aMinSize) {
+        if(aMinSize > maxBufferSize) {
+            misses.incrementAndGet();
+            return new byte[aMinSize];
+        }
+
+        int    sizeClass = sizeClass(aMinSize);
+        byte[] buffer    = classes[sizeClass].poll();
+        if(buffer != null) {
+            hits.incrementAndGet();
+            return buffer;
+        }
+
+        misses.incrementAndGet();
+        return new byte[1 << (sizeClass + MIN_SIZE_SHIFT)];
+    }
+
+    @Override
+    public void release(byte[] aBuffer) {
+        int length = aBuffer.length;
+        if(length > maxBufferSize || length < (1 << MIN_SIZE_SHIFT) || Integer.bitCount(length) != 1) {
+            return;
+        }
+
+        if(!classes[sizeClass(length)].offer(aBuffer)) {
+            drops.incrementAndGet();
+        }
+    }
+
+    public HttpBufferPoolStatistics getStatistics() {
+        return new HttpBufferPoolStatistics(hits.get(), misses.get(), drops.get());
+    }
+
+    private static int sizeClass(int aSize) {
+        if(aSize <= (1 << MIN_SIZE_SHIFT)) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(aSize - 1) - MIN_SIZE_SHIFT;
+    }
+}
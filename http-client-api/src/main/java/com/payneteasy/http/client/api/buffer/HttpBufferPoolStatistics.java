@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.api.buffer;
+
+import lombok.Data;
+
+@Data
+public class HttpBufferPoolStatistics {
+
+    /** acquired from the pool */
+    private final long hits;
+
+    /** allocated because the pool was empty or the size was too big */
+    private final long misses;
+
+    /** released but not kept because the pool was full */
+    private final long drops;
+
+}
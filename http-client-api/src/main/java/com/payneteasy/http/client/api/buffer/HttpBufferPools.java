@@ -0,0 +1,34 @@
+package com.payneteasy.http.client.api.buffer;
+
+public class HttpBufferPools {
+
+    private static final IHttpBufferPool UNPOOLED = new IHttpBufferPool() {
+        @Override
+        public byte[] acquire(int aMinSize) {
+            return new byte[aMinSize];
+        }
+
+        @Override
+        public void release(byte[] aBuffer) {
+            // garbage collected
+        }
+    };
+
+    private static class DefaultHolder {
+        private static final HttpArrayBufferPool DEFAULT = new HttpArrayBufferPool(1024 * 1024, 64);
+    }
+
+    /**
+     * @return shared pool with arrays up to 1 MB
+     */
+    public static HttpArrayBufferPool getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * @return pool that allocates a new array each time
+     */
+    public static IHttpBufferPool unpooled() {
+        return UNPOOLED;
+    }
+}
@@ -0,0 +1,92 @@
+package com.payneteasy.http.client.api.buffer;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reports arrays that were garbage collected without being released.
+ * Tracking allocates on each acquire, use it in tests and on staging.
+ */
+public class HttpLeakDetectingBufferPool implements IHttpBufferPool {
+
+    private static final Logger LOG = Logger.getLogger(HttpLeakDetectingBufferPool.class.getName());
+
+    private final IHttpBufferPool         delegate;
+    private final boolean                 recordStackTraces;
+    private final ReferenceQueue<byte[]>  queue    = new ReferenceQueue<>();
+    private final Map<byte[], LeakRecord> acquired = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Set<LeakRecord>         records  = ConcurrentHashMap.newKeySet();
+    private final AtomicLong              leaks    = new AtomicLong();
+
+    /**
+     * @param aRecordStackTraces log where each leaked array was acquired
+     */
+    public HttpLeakDetectingBufferPool(IHttpBufferPool aDelegate, boolean aRecordStackTraces) {
+        delegate          = aDelegate;
+        recordStackTraces = aRecordStackTraces;
+    }
+
+    @Override
+    public byte[] acquire(int aMinSize) {
+        checkLeaks();
+        byte[]     buffer = delegate.acquire(aMinSize);
+        LeakRecord record = new LeakRecord(buffer, queue, recordStackTraces ? new Throwable("Acquired here") : null);
+        records.add(record);
+        acquired.put(buffer, record);
+        return buffer;
+    }
+
+    @Override
+    public void release(byte[] aBuffer) {
+        LeakRecord record = acquired.remove(aBuffer);
+        if(record == null) {
+            LOG.log(Level.WARNING, "Released array was not acquired or is released twice", new Throwable("Released here"));
+            return;
+        }
+        record.clear();
+        records.remove(record);
+        delegate.release(aBuffer);
+        checkLeaks();
+    }
+
+    /**
+     * Reports leaked arrays found by the garbage collector so far
+     *
+     * @return total number of leaks
+     */
+    public long checkLeaks() {
+        LeakRecord record;
+        while ((record = (LeakRecord) queue.poll()) != null) {
+            if(records.remove(record)) {
+                leaks.incrementAndGet();
+                LOG.log(Level.SEVERE, "Buffer was not released before garbage collection", record.stackTrace);
+            }
+        }
+        return leaks.get();
+    }
+
+    /**
+     * @return number of acquired but not released arrays
+     */
+    public int getAcquiredCount() {
+        return records.size();
+    }
+
+    private static class LeakRecord extends PhantomReference<byte[]> {
+
+        private final Throwable stackTrace;
+
+        private LeakRecord(byte[] aBuffer, ReferenceQueue<byte[]> aQueue, Throwable aStackTrace) {
+            super(aBuffer, aQueue);
+            stackTrace = aStackTrace;
+        }
+    }
+}
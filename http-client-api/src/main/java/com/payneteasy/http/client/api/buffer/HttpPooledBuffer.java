@@ -0,0 +1,121 @@
+package com.payneteasy.http.client.api.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Bytes in an array borrowed from a pool. The array goes back to the pool on close.
+ */
+public class HttpPooledBuffer implements Closeable {
+
+    private static final int INITIAL_SIZE = 8 * 1024;
+
+    private final IHttpBufferPool pool;
+    private       byte[]          array;
+    private       int             length;
+
+    private HttpPooledBuffer(IHttpBufferPool aPool, byte[] aArray, int aLength) {
+        pool   = aPool;
+        array  = aArray;
+        length = aLength;
+    }
+
+    /**
+     * @return buffer without bytes, it does not use a pool
+     */
+    public static HttpPooledBuffer empty() {
+        return new HttpPooledBuffer(HttpBufferPools.unpooled(), new byte[0], 0);
+    }
+
+    /**
+     * Reads the stream to the end
+     *
+     * @param aExpectedLength expected length or -1 if unknown
+     */
+    public static HttpPooledBuffer readFrom(InputStream aInputStream, int aExpectedLength, IHttpBufferPool aPool) throws IOException {
+        byte[] buffer = aPool.acquire(aExpectedLength > 0 ? aExpectedLength : INITIAL_SIZE);
+        int    length = 0;
+        try {
+            int count;
+            while ((count = aInputStream.read(buffer, length, buffer.length - length)) >= 0) {
+                length += count;
+                if(length == buffer.length) {
+                    if(length == aExpectedLength) {
+                        if(aInputStream.read() >= 0) {
+                            throw new IOException("Body is longer than " + aExpectedLength + " bytes");
+                        }
+                        break;
+                    }
+                    byte[] bigger = aPool.acquire(buffer.length * 2);
+                    System.arraycopy(buffer, 0, bigger, 0, length);
+                    aPool.release(buffer);
+                    buffer = bigger;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            aPool.release(buffer);
+            throw e;
+        }
+
+        if(aExpectedLength > 0 && length != aExpectedLength) {
+            aPool.release(buffer);
+            throw new IOException("Read " + length + " bytes but wanted " + aExpectedLength);
+        }
+
+        return new HttpPooledBuffer(aPool, buffer, length);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return backing array, valid bytes are from 0 to {@link #getLength()}
+     */
+    public byte[] getArray() {
+        checkNotReleased();
+        return array;
+    }
+
+    /**
+     * @return read only view valid until close
+     */
+    public ByteBuffer asByteBuffer() {
+        checkNotReleased();
+        return ByteBuffer.wrap(array, 0, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return copy of the bytes that outlives close
+     */
+    public byte[] toByteArray() {
+        checkNotReleased();
+        return Arrays.copyOf(array, length);
+    }
+
+    public boolean isReleased() {
+        return array == null;
+    }
+
+    /**
+     * Returns the array to the pool, only the first call has an effect
+     */
+    @Override
+    public void close() {
+        byte[] released = array;
+        if(released == null) {
+            return;
+        }
+        array = null;
+        pool.release(released);
+    }
+
+    private void checkNotReleased() {
+        if(array == null) {
+            throw new IllegalStateException("Buffer is already released");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.payneteasy.http.client.api.buffer;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import lombok.Data;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Response with a body in a pooled buffer. Close it to return the buffer to the pool.
+ */
+@Data
+public class HttpPooledResponse implements Closeable {
+
+    private final int              statusCode;
+    private final String           reasonPhrase;
+    private final List<HttpHeader> headers;
+    private final HttpPooledBuffer body;
+
+    @Override
+    public void close() {
+        body.close();
+    }
+}
@@ -0,0 +1,20 @@
+package com.payneteasy.http.client.api.buffer;
+
+/**
+ * Source of byte arrays for reading response bodies
+ *
+ * @see HttpBufferPools
+ */
+public interface IHttpBufferPool {
+
+    /**
+     * @return array of at least aMinSize bytes with undefined content
+     */
+    byte[] acquire(int aMinSize);
+
+    /**
+     * Returns the array to the pool, the caller must not use it afterwards
+     */
+    void release(byte[] aBuffer);
+
+}
@@ -0,0 +1,46 @@
+package com.payneteasy.http.client.api.compression;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+class CountingInputStream extends FilterInputStream {
+
+    private final LongAdder counter;
+
+    CountingInputStream(InputStream aIn, LongAdder aCounter) {
+        super(aIn);
+        counter = aCounter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if(b >= 0) {
+            counter.increment();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] aBuffer, int aOffset, int aLength) throws IOException {
+        int count = super.read(aBuffer, aOffset, aLength);
+        if(count > 0) {
+            counter.add(count);
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long aCount) throws IOException {
+        long skipped = super.skip(aCount);
+        counter.add(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.payneteasy.http.client.api.compression;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Does not close the target stream, it belongs to the engine
+ */
+class CountingOutputStream extends FilterOutputStream {
+
+    private final LongAdder counter;
+
+    CountingOutputStream(OutputStream aOut, LongAdder aCounter) {
+        super(aOut);
+        counter = aCounter;
+    }
+
+    @Override
+    public void write(int aByte) throws IOException {
+        out.write(aByte);
+        counter.increment();
+    }
+
+    @Override
+    public void write(byte[] aBuffer, int aOffset, int aLength) throws IOException {
+        out.write(aBuffer, aOffset, aLength);
+        counter.add(aLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,95 @@
+package com.payneteasy.http.client.api.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Creates the decoder on the first read, so an empty body, for example of HEAD or 304, is not an error
+ */
+class DecodingInputStream extends InputStream {
+
+    private final PushbackInputStream wire;
+    private final boolean             gzip;
+    private final LongAdder           decodedBytes;
+
+    private InputStream decoded;
+
+    DecodingInputStream(InputStream aWire, boolean aGzip, LongAdder aDecodedBytes) {
+        wire         = new PushbackInputStream(aWire, 2);
+        gzip         = aGzip;
+        decodedBytes = aDecodedBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one   = new byte[1];
+        int    count = read(one, 0, 1);
+        return count < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] aBuffer, int aOffset, int aLength) throws IOException {
+        if(decoded == null) {
+            decoded = open();
+        }
+        return decoded.read(aBuffer, aOffset, aLength);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return decoded != null ? decoded.available() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(decoded != null) {
+            decoded.close();
+        } else {
+            wire.close();
+        }
+    }
+
+    private InputStream open() throws IOException {
+        int first = wire.read();
+        if(first < 0) {
+            return wire;
+        }
+        wire.unread(first);
+
+        InputStream stream;
+        if(gzip) {
+            stream = new GZIPInputStream(wire, 8192);
+        } else {
+            stream = new InflaterInputStream(wire, new Inflater(!isZlibHeader(wire)), 8192) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        }
+        return new CountingInputStream(stream, decodedBytes);
+    }
+
+    /**
+     * Some servers send raw deflate instead of the zlib format required by RFC 7230
+     */
+    private static boolean isZlibHeader(PushbackInputStream aWire) throws IOException {
+        int cmf = aWire.read();
+        int flg = aWire.read();
+        if(flg >= 0) {
+            aWire.unread(flg);
+        }
+        aWire.unread(cmf);
+        return flg >= 0 && (cmf & 0x0f) == Deflater.DEFLATED && ((cmf << 8) | flg) % 31 == 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.payneteasy.http.client.api.compression;
+
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses a streamed body on the fly, the compressed length is unknown so it is sent chunked
+ */
+class GzipRequestBody implements IHttpRequestBody {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final IHttpRequestBody        body;
+    private final HttpCompressionCounters counters;
+
+    GzipRequestBody(IHttpRequestBody aBody, HttpCompressionCounters aCounters) {
+        body     = aBody;
+        counters = aCounters;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return body.isOneShot();
+    }
+
+    @Override
+    public void writeTo(OutputStream aOutputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(new CountingOutputStream(aOutputStream, counters.requestWireBytes), 8192);
+        try {
+            body.writeTo(new CountingOutputStream(gzip, counters.requestBodyBytes));
+            gzip.finish();
+        } finally {
+            // releases the native deflater
+            gzip.close();
+        }
+    }
+
+    /**
+     * The gzip header, the raw deflate stream of the body and the trailer with CRC32 and the length
+     */
+    @Override
+    public InputStream openStream() throws IOException {
+        CRC32              crc      = new CRC32();
+        Deflater           deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CheckedInputStream source   = new CheckedInputStream(new CountingInputStream(body.openStream(), counters.requestBodyBytes), crc);
+
+        Enumeration<InputStream> parts = new Enumeration<InputStream>() {
+            int index;
+
+            @Override
+            public boolean hasMoreElements() {
+                return index < 3;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                switch (index++) {
+                    case 0  : return new ByteArrayInputStream(GZIP_HEADER);
+                    case 1  : return new DeflaterInputStream(source, deflater, 8192);
+                    default : return new ByteArrayInputStream(trailer(crc.getValue(), deflater.getBytesRead()));
+                }
+            }
+        };
+
+        return new FilterInputStream(new CountingInputStream(new SequenceInputStream(parts), counters.requestWireBytes)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    source.close();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    private static byte[] trailer(long aCrc, long aLength) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8);
+        writeIntLe(out, aCrc);
+        writeIntLe(out, aLength);
+        return out.toByteArray();
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream aOut, long aValue) {
+        for (int i = 0; i < 4; i++) {
+            aOut.write((int) (aValue >>> (8 * i)) & 0xff);
+        }
+    }
+}
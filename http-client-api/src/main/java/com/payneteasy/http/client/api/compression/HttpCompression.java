@@ -0,0 +1,34 @@
+package com.payneteasy.http.client.api.compression;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Opt-in content coding, set it in {@link com.payneteasy.http.client.api.HttpRequestParameters#getCompression()}.
+ * Supported by HttpClientImpl, HttpStreamClientImpl and the OkHttp clients.
+ */
+@Data
+@Builder
+public class HttpCompression {
+
+    /**
+     * Sends Accept-Encoding: gzip, deflate and decodes the response body while it is read.
+     * Decoded responses have no Content-Encoding and Content-Length headers.
+     */
+    @Builder.Default
+    private final boolean decompressResponses = true;
+
+    /**
+     * Request bodies of at least this size, or of unknown size, are sent with Content-Encoding: gzip.
+     * -1 disables request compression, the server must accept gzip bodies.
+     */
+    @Builder.Default
+    private final long requestGzipThreshold = -1;
+
+    /**
+     * Shared by all calls with these parameters
+     */
+    @Builder.Default
+    private final HttpCompressionCounters counters = new HttpCompressionCounters();
+
+}
@@ -0,0 +1,44 @@
+package com.payneteasy.http.client.api.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes on the wire against bytes seen by the application
+ */
+public class HttpCompressionCounters {
+
+    final LongAdder responseWireBytes    = new LongAdder();
+    final LongAdder responseDecodedBytes = new LongAdder();
+    final LongAdder requestBodyBytes     = new LongAdder();
+    final LongAdder requestWireBytes     = new LongAdder();
+
+    /** response body bytes received, compressed or not */
+    public long getResponseWireBytes() {
+        return responseWireBytes.sum();
+    }
+
+    /** response body bytes after decoding */
+    public long getResponseDecodedBytes() {
+        return responseDecodedBytes.sum();
+    }
+
+    /** request body bytes before compression */
+    public long getRequestBodyBytes() {
+        return requestBodyBytes.sum();
+    }
+
+    /** request body bytes sent, compressed or not */
+    public long getRequestWireBytes() {
+        return requestWireBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCompressionCounters("
+                + "responseWireBytes=" + getResponseWireBytes()
+                + ", responseDecodedBytes=" + getResponseDecodedBytes()
+                + ", requestBodyBytes=" + getRequestBodyBytes()
+                + ", requestWireBytes=" + getRequestWireBytes()
+                + ")";
+    }
+}
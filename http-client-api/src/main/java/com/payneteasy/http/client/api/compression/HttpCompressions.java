@@ -0,0 +1,174 @@
+package com.payneteasy.http.client.api.compression;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaderNames;
+import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Applies {@link HttpCompression} in the engines
+ */
+public final class HttpCompressions {
+
+    private HttpCompressions() {
+    }
+
+    /**
+     * Adds Accept-Encoding and compresses the body if it is big enough
+     *
+     * @return the same request if nothing changes
+     */
+    public static HttpRequest prepareRequest(HttpRequest aRequest, @Nullable HttpCompression aCompression) {
+        if(aCompression == null) {
+            return aRequest;
+        }
+
+        HttpHeaders             headers   = HttpHeaders.of(aRequest.getHeaders());
+        boolean                 addAccept = aCompression.isDecompressResponses() && !headers.contains(HttpHeaderNames.ACCEPT_ENCODING);
+        boolean                 gzipBody  = shouldCompressBody(aRequest, headers, aCompression);
+        HttpCompressionCounters counters  = aCompression.getCounters();
+
+        if(!gzipBody) {
+            countUncompressedBody(aRequest, counters);
+        }
+
+        if(!addAccept && !gzipBody) {
+            return aRequest;
+        }
+
+        List<HttpHeader> newHeaders = new ArrayList<>(headers.size() + 2);
+        newHeaders.addAll(headers);
+        if(addAccept) {
+            newHeaders.add(new HttpHeader(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate"));
+        }
+
+        byte[]           body        = aRequest.getBody();
+        IHttpRequestBody requestBody = aRequest.getRequestBody();
+        if(gzipBody) {
+            newHeaders.add(new HttpHeader(HttpHeaderNames.CONTENT_ENCODING, "gzip"));
+            if(requestBody != null) {
+                requestBody = new GzipRequestBody(requestBody, counters);
+            } else {
+                body = gzip(body);
+                counters.requestBodyBytes.add(aRequest.getBody().length);
+                counters.requestWireBytes.add(body.length);
+            }
+        }
+
+        return HttpRequest.builder()
+                .url(aRequest.getUrl())
+                .method(aRequest.getMethod())
+                .headers(new HttpHeaders(newHeaders))
+                .body(body)
+                .requestBody(requestBody)
+                .build();
+    }
+
+    /**
+     * @return true if the response body will be decoded by {@link #decode(InputStream, List, HttpCompression)}
+     */
+    public static boolean isDecoded(List<HttpHeader> aResponseHeaders, @Nullable HttpCompression aCompression) {
+        return aCompression != null && aCompression.isDecompressResponses() && coding(aResponseHeaders) != null;
+    }
+
+    /**
+     * Decodes gzip and deflate bodies and counts bytes, the stream is returned as is without compression parameters
+     */
+    public static InputStream decode(InputStream aWire, List<HttpHeader> aResponseHeaders, @Nullable HttpCompression aCompression) {
+        if(aCompression == null) {
+            return aWire;
+        }
+
+        HttpCompressionCounters counters = aCompression.getCounters();
+        InputStream             wire     = new CountingInputStream(aWire, counters.responseWireBytes);
+
+        String coding = aCompression.isDecompressResponses() ? coding(aResponseHeaders) : null;
+        if(coding == null) {
+            return new CountingInputStream(wire, counters.responseDecodedBytes);
+        }
+        return new DecodingInputStream(wire, coding.equals("gzip"), counters.responseDecodedBytes);
+    }
+
+    /**
+     * @return headers without Content-Encoding and Content-Length if the body is decoded
+     */
+    public static List<HttpHeader> decodeHeaders(List<HttpHeader> aResponseHeaders, @Nullable HttpCompression aCompression) {
+        if(!isDecoded(aResponseHeaders, aCompression)) {
+            return aResponseHeaders;
+        }
+
+        List<HttpHeader> headers = new ArrayList<>(aResponseHeaders.size());
+        for (HttpHeader header : aResponseHeaders) {
+            if(!header.getName().equalsIgnoreCase(HttpHeaderNames.CONTENT_ENCODING)
+                    && !header.getName().equalsIgnoreCase(HttpHeaderNames.CONTENT_LENGTH)) {
+                headers.add(header);
+            }
+        }
+        return new HttpHeaders(headers);
+    }
+
+    /**
+     * @return gzip, deflate or null for identity and unsupported codings
+     */
+    @Nullable
+    private static String coding(List<HttpHeader> aResponseHeaders) {
+        String value = HttpHeaders.of(aResponseHeaders).get(HttpHeaderNames.CONTENT_ENCODING);
+        if(value == null) {
+            return null;
+        }
+        switch (value.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return "gzip";
+
+            case "deflate":
+                return "deflate";
+
+            default:
+                return null;
+        }
+    }
+
+    private static boolean shouldCompressBody(HttpRequest aRequest, HttpHeaders aHeaders, HttpCompression aCompression) {
+        long threshold = aCompression.getRequestGzipThreshold();
+        if(threshold < 0 || aHeaders.contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return false;
+        }
+
+        if(aRequest.getRequestBody() != null) {
+            long length = aRequest.getRequestBody().getContentLength();
+            return length < 0 || length >= threshold;
+        }
+        return aRequest.getBody() != null && aRequest.getBody().length >= threshold;
+    }
+
+    private static void countUncompressedBody(HttpRequest aRequest, HttpCompressionCounters aCounters) {
+        long length = aRequest.getRequestBody() != null
+                ? aRequest.getRequestBody().getContentLength()
+                : aRequest.getBody() != null ? aRequest.getBody().length : 0;
+        if(length > 0) {
+            aCounters.requestBodyBytes.add(length);
+            aCounters.requestWireBytes.add(length);
+        }
+    }
+
+    private static byte[] gzip(byte[] aBody) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(aBody.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(aBody);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot gzip request body", e);
+        }
+        return out.toByteArray();
+    }
+}
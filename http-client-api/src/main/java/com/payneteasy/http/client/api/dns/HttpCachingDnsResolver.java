@@ -0,0 +1,169 @@
+package com.payneteasy.http.client.api.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches addresses for a ttl and refreshes them in the background, so request threads
+ * wait for the delegate only on the first lookup of a host.
+ *
+ * A hit shortly before the end of ttl starts a refresh. After ttl the old addresses are
+ * returned for up to maxStaleMs while a refresh runs, so a failing resolver does not fail
+ * requests to hosts that were resolved before.
+ */
+public class HttpCachingDnsResolver implements IHttpDnsResolver {
+
+    private static final Logger LOG = Logger.getLogger(HttpCachingDnsResolver.class.getName());
+
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "http-dns-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IHttpDnsResolver   delegate;
+    private final HttpDnsCacheConfig config;
+    private final Executor           executor;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits            = new AtomicLong();
+    private final AtomicLong misses          = new AtomicLong();
+    private final AtomicLong staleHits       = new AtomicLong();
+    private final AtomicLong refreshes       = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    public HttpCachingDnsResolver() {
+        this(HttpSystemDnsResolver.INSTANCE, HttpDnsCacheConfig.builder().build());
+    }
+
+    public HttpCachingDnsResolver(IHttpDnsResolver aDelegate, HttpDnsCacheConfig aConfig) {
+        this(aDelegate, aConfig, SHARED_EXECUTOR);
+    }
+
+    /**
+     * @param aExecutor runs background refreshes
+     */
+    public HttpCachingDnsResolver(IHttpDnsResolver aDelegate, HttpDnsCacheConfig aConfig, Executor aExecutor) {
+        delegate = aDelegate;
+        config   = aConfig;
+        executor = aExecutor;
+        entries  = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> aEldest) {
+                return size() > config.getMaxEntries();
+            }
+        };
+    }
+
+    @Override
+    public List<InetAddress> resolve(String aHost) throws UnknownHostException {
+        String key   = aHost.toLowerCase(Locale.ROOT);
+        Entry  entry = get(key);
+        long   now   = now();
+
+        if(entry == null) {
+            misses.incrementAndGet();
+            return lookup(key).addresses;
+        }
+
+        long age = now - entry.resolvedAtMs;
+        if(age < config.getTtlMs() - config.getRefreshAheadMs()) {
+            hits.incrementAndGet();
+            return entry.addresses;
+        }
+
+        if(age < config.getTtlMs()) {
+            hits.incrementAndGet();
+            refreshInBackground(key, entry);
+            return entry.addresses;
+        }
+
+        if(age < config.getTtlMs() + config.getMaxStaleMs()) {
+            staleHits.incrementAndGet();
+            refreshInBackground(key, entry);
+            return entry.addresses;
+        }
+
+        misses.incrementAndGet();
+        return lookup(key).addresses;
+    }
+
+    public HttpDnsCacheStatistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new HttpDnsCacheStatistics(hits.get(), misses.get(), staleHits.get(), refreshes.get(), refreshFailures.get(), size);
+    }
+
+    private Entry lookup(String aHost) throws UnknownHostException {
+        List<InetAddress> addresses = delegate.resolve(aHost);
+        if(addresses == null || addresses.isEmpty()) {
+            throw new UnknownHostException("No addresses for " + aHost);
+        }
+
+        Entry entry = new Entry(Collections.unmodifiableList(addresses), now());
+        synchronized (entries) {
+            entries.put(aHost, entry);
+        }
+        return entry;
+    }
+
+    private void refreshInBackground(String aHost, Entry aEntry) {
+        if(!aEntry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                refreshes.incrementAndGet();
+                try {
+                    lookup(aHost);
+                } catch (UnknownHostException | RuntimeException e) {
+                    refreshFailures.incrementAndGet();
+                    LOG.log(Level.FINE, "Cannot refresh " + aHost + ", keeping the old addresses", e);
+                } finally {
+                    aEntry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            aEntry.refreshing.set(false);
+        }
+    }
+
+    private Entry get(String aHost) {
+        synchronized (entries) {
+            return entries.get(aHost);
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static class Entry {
+
+        private final List<InetAddress> addresses;
+        private final long              resolvedAtMs;
+        private final AtomicBoolean     refreshing = new AtomicBoolean();
+
+        private Entry(List<InetAddress> aAddresses, long aResolvedAtMs) {
+            addresses    = aAddresses;
+            resolvedAtMs = aResolvedAtMs;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.payneteasy.http.client.api.dns;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class HttpDnsCacheConfig {
+
+    /**
+     * How long resolved addresses are fresh
+     */
+    @Builder.Default
+    private final long ttlMs = 60_000;
+
+    /**
+     * A hit within this time before the end of ttl starts a background refresh
+     */
+    @Builder.Default
+    private final long refreshAheadMs = 10_000;
+
+    /**
+     * How long after the end of ttl the old addresses are returned while the refresh fails
+     */
+    @Builder.Default
+    private final long maxStaleMs = 10 * 60_000;
+
+    @Builder.Default
+    private final int maxEntries = 10_000;
+
+}
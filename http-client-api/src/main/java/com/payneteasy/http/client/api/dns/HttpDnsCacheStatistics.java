@@ -0,0 +1,25 @@
+package com.payneteasy.http.client.api.dns;
+
+import lombok.Data;
+
+@Data
+public class HttpDnsCacheStatistics {
+
+    /** answered from the cache within ttl */
+    private final long hits;
+
+    /** resolved on the calling thread */
+    private final long misses;
+
+    /** answered after ttl while a refresh was running or failing */
+    private final long staleHits;
+
+    /** background refreshes */
+    private final long refreshes;
+
+    /** background refreshes that failed, the old addresses were kept */
+    private final long refreshFailures;
+
+    private final int entries;
+
+}
@@ -0,0 +1,19 @@
+package com.payneteasy.http.client.api.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JVM resolver with its own cache, see networkaddress.cache.ttl
+ */
+public class HttpSystemDnsResolver implements IHttpDnsResolver {
+
+    public static final HttpSystemDnsResolver INSTANCE = new HttpSystemDnsResolver();
+
+    @Override
+    public List<InetAddress> resolve(String aHost) throws UnknownHostException {
+        return Arrays.asList(InetAddress.getAllByName(aHost));
+    }
+}
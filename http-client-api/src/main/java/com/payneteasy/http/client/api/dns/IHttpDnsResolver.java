@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.api.dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * Resolves host names for the clients, set it with HttpRequestParameters.dnsResolver
+ */
+public interface IHttpDnsResolver {
+
+    /**
+     * @return at least one address, in the order to try
+     */
+    List<InetAddress> resolve(String aHost) throws UnknownHostException;
+
+}
@@ -0,0 +1,227 @@
+package com.payneteasy.http.client.api.tls;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509KeyManager;
+import javax.net.ssl.X509TrustManager;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches an SSLContext and its socket factory per trust and key material.
+ *
+ * Requests with the same material share one client session cache, so connections after
+ * the first one resume the TLS session (session id with TLS 1.2, session tickets with TLS 1.3)
+ * instead of a full handshake. The same factory instance also lets HttpURLConnection
+ * reuse keep-alive connections and okhttp reuse its client for these parameters.
+ *
+ * Key stores are read once, changes after the first call are not seen.
+ */
+public class HttpTlsManager {
+
+    private static final int DEFAULT_SESSION_CACHE_SIZE      = 1024;
+    private static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 24 * 60 * 60;
+
+    private final int                                         sessionCacheSize;
+    private final int                                         sessionTimeoutSeconds;
+    private final ConcurrentMap<Object, HttpTlsSocketFactory> factories         = new ConcurrentHashMap<>();
+    private final AtomicLong                                  fullHandshakes    = new AtomicLong();
+    private final AtomicLong                                  resumedHandshakes = new AtomicLong();
+    private final Map<KeyStore, byte[]>                       storeDigests      = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public HttpTlsManager() {
+        this(DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * @param aSessionCacheSize      max sessions per SSLContext, 0 is unlimited
+     * @param aSessionTimeoutSeconds how long a session can be resumed, 0 is unlimited
+     */
+    public HttpTlsManager(int aSessionCacheSize, int aSessionTimeoutSeconds) {
+        sessionCacheSize      = aSessionCacheSize;
+        sessionTimeoutSeconds = aSessionTimeoutSeconds;
+    }
+
+    /**
+     * @param aTrustStore  trusted certificates or null for the JVM default ones
+     * @param aKeyStore    client certificate and key for mutual TLS or null
+     * @param aKeyPassword password of the keys in aKeyStore
+     */
+    public HttpTlsSocketFactory getSocketFactory(@Nullable KeyStore aTrustStore, @Nullable KeyStore aKeyStore, @Nullable char[] aKeyPassword) {
+        String key = materialDigest(aTrustStore, aKeyStore, aKeyPassword);
+        return factories.computeIfAbsent(key, it -> createFactory(trustManagers(aTrustStore), keyManagers(aKeyStore, aKeyPassword)));
+    }
+
+    /**
+     * Managers are compared by identity, so reuse the same instances between requests
+     *
+     * @param aTrustManager trust manager or null for the JVM default one
+     * @param aKeyManager   client key manager for mutual TLS or null
+     */
+    public HttpTlsSocketFactory getSocketFactory(@Nullable X509TrustManager aTrustManager, @Nullable X509KeyManager aKeyManager) {
+        List<Object> key = new ArrayList<>(2);
+        key.add(new IdentityKey(aTrustManager));
+        key.add(new IdentityKey(aKeyManager));
+        return factories.computeIfAbsent(key, it -> createFactory(
+                aTrustManager != null ? new TrustManager[]{aTrustManager} : trustManagers(null)
+                , aKeyManager  != null ? new KeyManager[]{aKeyManager}     : null
+        ));
+    }
+
+    public HttpTlsStatistics getStatistics() {
+        return new HttpTlsStatistics(fullHandshakes.get(), resumedHandshakes.get(), factories.size());
+    }
+
+    private HttpTlsSocketFactory createFactory(TrustManager[] aTrustManagers, @Nullable KeyManager[] aKeyManagers) {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(aKeyManagers, aTrustManagers, null);
+
+            SSLSessionContext sessions = context.getClientSessionContext();
+            sessions.setSessionCacheSize(sessionCacheSize);
+            sessions.setSessionTimeout(sessionTimeoutSeconds);
+
+            return new HttpTlsSocketFactory(context, x509TrustManager(aTrustManagers), fullHandshakes, resumedHandshakes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create SSLContext", e);
+        }
+    }
+
+    private static TrustManager[] trustManagers(@Nullable KeyStore aTrustStore) {
+        try {
+            TrustManagerFactory factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            factory.init(aTrustStore);
+            return factory.getTrustManagers();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create trust managers", e);
+        }
+    }
+
+    @Nullable
+    private static KeyManager[] keyManagers(@Nullable KeyStore aKeyStore, @Nullable char[] aKeyPassword) {
+        if(aKeyStore == null) {
+            return null;
+        }
+        try {
+            KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            factory.init(aKeyStore, aKeyPassword);
+            return factory.getKeyManagers();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create key managers", e);
+        }
+    }
+
+    private static X509TrustManager x509TrustManager(TrustManager[] aTrustManagers) {
+        for (TrustManager trustManager : aTrustManagers) {
+            if(trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
+        }
+        throw new IllegalStateException("No X509TrustManager found");
+    }
+
+    /**
+     * SHA-256 of the certificates in both stores and the key password, private keys are not read
+     */
+    private String materialDigest(@Nullable KeyStore aTrustStore, @Nullable KeyStore aKeyStore, @Nullable char[] aKeyPassword) {
+        MessageDigest digest = sha256();
+        update(digest, "trust", aTrustStore);
+        update(digest, "key", aKeyStore);
+        if(aKeyPassword != null) {
+            digest.update(new String(aKeyPassword).getBytes(StandardCharsets.UTF_8));
+        }
+
+        StringBuilder sb = new StringBuilder("sha256:");
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private void update(MessageDigest aDigest, String aPrefix, @Nullable KeyStore aStore) {
+        aDigest.update(aPrefix.getBytes(StandardCharsets.UTF_8));
+        if(aStore == null) {
+            aDigest.update((byte) 0);
+            return;
+        }
+        aDigest.update(storeDigests.computeIfAbsent(aStore, HttpTlsManager::storeDigest));
+    }
+
+    /**
+     * Memoized per KeyStore instance, KeyStore does not override equals and hashCode
+     */
+    private static byte[] storeDigest(KeyStore aStore) {
+        try {
+            MessageDigest digest = sha256();
+            updateCertificates(digest, aStore);
+            return digest.digest();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read key store", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No SHA-256", e);
+        }
+    }
+
+    private static void updateCertificates(MessageDigest aDigest, KeyStore aStore) throws GeneralSecurityException {
+        List<String> aliases = Collections.list(aStore.aliases());
+        Collections.sort(aliases);
+        for (String alias : aliases) {
+            aDigest.update(alias.getBytes(StandardCharsets.UTF_8));
+            aDigest.update((byte) (aStore.isKeyEntry(alias) ? 1 : 2));
+
+            Certificate[] chain = aStore.isKeyEntry(alias)
+                    ? aStore.getCertificateChain(alias)
+                    : new Certificate[]{aStore.getCertificate(alias)};
+            if(chain == null) {
+                continue;
+            }
+            for (Certificate certificate : chain) {
+                if(certificate != null) {
+                    aDigest.update(certificate.getEncoded());
+                }
+            }
+        }
+    }
+
+    private static class IdentityKey {
+
+        private final Object value;
+
+        private IdentityKey(Object aValue) {
+            value = aValue;
+        }
+
+        @Override
+        public boolean equals(Object aOther) {
+            return aOther instanceof IdentityKey && ((IdentityKey) aOther).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
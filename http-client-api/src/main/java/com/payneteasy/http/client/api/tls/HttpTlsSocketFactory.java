@@ -0,0 +1,113 @@
+package com.payneteasy.http.client.api.tls;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Socket factory of a cached SSLContext, all sockets share its client session cache.
+ * Counts full and resumed handshakes of the sockets it creates, java.net.http uses SSLEngine
+ * and shares the session cache without counting.
+ *
+ * Pass both the factory and {@link #getTrustManager()} to the request parameters,
+ * okhttp and java.net.http need the trust manager.
+ */
+public class HttpTlsSocketFactory extends SSLSocketFactory {
+
+    /**
+     * A resumed session, with TLS 1.3 a session from a ticket too, keeps the values of the session it resumes
+     */
+    private static final String HANDSHAKE_MARKER = HttpTlsSocketFactory.class.getName();
+
+    private final SSLContext       sslContext;
+    private final SSLSocketFactory delegate;
+    private final X509TrustManager trustManager;
+    private final AtomicLong       fullHandshakes;
+    private final AtomicLong       resumedHandshakes;
+
+    HttpTlsSocketFactory(SSLContext aSslContext, X509TrustManager aTrustManager, AtomicLong aFullHandshakes, AtomicLong aResumedHandshakes) {
+        sslContext        = aSslContext;
+        delegate          = aSslContext.getSocketFactory();
+        trustManager      = aTrustManager;
+        fullHandshakes    = aFullHandshakes;
+        resumedHandshakes = aResumedHandshakes;
+    }
+
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public X509TrustManager getTrustManager() {
+        return trustManager;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return observe(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket aSocket, String aHost, int aPort, boolean aAutoClose) throws IOException {
+        return observe(delegate.createSocket(aSocket, aHost, aPort, aAutoClose));
+    }
+
+    @Override
+    public Socket createSocket(Socket aSocket, InputStream aConsumed, boolean aAutoClose) throws IOException {
+        return observe(delegate.createSocket(aSocket, aConsumed, aAutoClose));
+    }
+
+    @Override
+    public Socket createSocket(String aHost, int aPort) throws IOException {
+        return observe(delegate.createSocket(aHost, aPort));
+    }
+
+    @Override
+    public Socket createSocket(String aHost, int aPort, InetAddress aLocalAddress, int aLocalPort) throws IOException {
+        return observe(delegate.createSocket(aHost, aPort, aLocalAddress, aLocalPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress aAddress, int aPort) throws IOException {
+        return observe(delegate.createSocket(aAddress, aPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress aAddress, int aPort, InetAddress aLocalAddress, int aLocalPort) throws IOException {
+        return observe(delegate.createSocket(aAddress, aPort, aLocalAddress, aLocalPort));
+    }
+
+    private Socket observe(Socket aSocket) {
+        if(aSocket instanceof SSLSocket) {
+            ((SSLSocket) aSocket).addHandshakeCompletedListener(this::onHandshakeCompleted);
+        }
+        return aSocket;
+    }
+
+    private void onHandshakeCompleted(HandshakeCompletedEvent aEvent) {
+        SSLSession session = aEvent.getSession();
+        if(session.getValue(HANDSHAKE_MARKER) != null) {
+            resumedHandshakes.incrementAndGet();
+        } else {
+            fullHandshakes.incrementAndGet();
+            session.putValue(HANDSHAKE_MARKER, Boolean.TRUE);
+        }
+    }
+}
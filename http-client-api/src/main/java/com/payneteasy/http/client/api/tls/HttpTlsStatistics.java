@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.api.tls;
+
+import lombok.Data;
+
+@Data
+public class HttpTlsStatistics {
+
+    /** handshakes that created a new session */
+    private final long fullHandshakes;
+
+    /** handshakes that resumed a cached session or a session ticket */
+    private final long resumedHandshakes;
+
+    /** SSLContext instances, one per distinct trust and key material */
+    private final int contexts;
+
+}
@@ -0,0 +1,161 @@
+package com.payneteasy.http.client.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpBatchSchedulerTest {
+
+    private static final IHttpBatchListener NO_LISTENER = aResult -> { };
+
+    @Test
+    public void parallelism_is_never_exceeded() throws Exception {
+        AtomicInteger   inProgress    = new AtomicInteger();
+        AtomicInteger   maxInProgress = new AtomicInteger();
+        ExecutorService executor      = Executors.newFixedThreadPool(8);
+        try {
+            List<HttpBatchResult> results = HttpBatchScheduler.sendAll(requests(50), 4, NO_LISTENER, request -> {
+                maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+                CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                executor.execute(() -> {
+                    sleep(ThreadLocalRandom.current().nextInt(3));
+                    inProgress.decrementAndGet();
+                    future.complete(response(request));
+                });
+                return future;
+            }).get(10, TimeUnit.SECONDS);
+
+            assertEquals(50, results.size());
+            assertTrue("max in progress " + maxInProgress.get(), maxInProgress.get() <= 4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void results_are_ordered_by_request() throws Exception {
+        List<HttpRequest>                     requests = requests(5);
+        List<CompletableFuture<HttpResponse>> calls    = new ArrayList<>();
+        List<Integer>                         order    = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<List<HttpBatchResult>> batch = HttpBatchScheduler.sendAll(requests, 5, aResult -> order.add(aResult.getIndex()), request -> {
+            CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+            calls.add(future);
+            return future;
+        });
+
+        for (int i = calls.size() - 1; i >= 0; i--) {
+            calls.get(i).complete(response(requests.get(i)));
+        }
+
+        List<HttpBatchResult> results = batch.get(1, TimeUnit.SECONDS);
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertSame(requests.get(i), results.get(i).getRequest());
+            assertEquals(requests.get(i).getUrl(), new String(results.get(i).getResponse().getBody()));
+        }
+        assertEquals(Arrays.asList(4, 3, 2, 1, 0), order);
+    }
+
+    @Test
+    public void synchronous_completions_do_not_recurse() throws Exception {
+        AtomicInteger minDepth = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicInteger maxDepth = new AtomicInteger();
+
+        List<HttpBatchResult> results = HttpBatchScheduler.sendAll(requests(10_000), 2, NO_LISTENER, request -> {
+            int depth = Thread.currentThread().getStackTrace().length;
+            minDepth.accumulateAndGet(depth, Math::min);
+            maxDepth.accumulateAndGet(depth, Math::max);
+            return CompletableFuture.completedFuture(response(request));
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10_000, results.size());
+        assertEquals(minDepth.get(), maxDepth.get());
+    }
+
+    @Test
+    public void rejected_calls_fail_without_recursion() throws Exception {
+        AtomicInteger maxDepth = new AtomicInteger();
+        AtomicInteger minDepth = new AtomicInteger(Integer.MAX_VALUE);
+
+        List<HttpBatchResult> results = HttpBatchScheduler.sendAll(requests(10_000), 3, NO_LISTENER, request -> {
+            int depth = Thread.currentThread().getStackTrace().length;
+            minDepth.accumulateAndGet(depth, Math::min);
+            maxDepth.accumulateAndGet(depth, Math::max);
+            throw new RejectedExecutionException("Queue is full");
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10_000, results.size());
+        for (HttpBatchResult result : results) {
+            assertTrue(result.isFailed());
+            assertNull(result.getResponse());
+            assertTrue(result.getError() instanceof RejectedExecutionException);
+        }
+        assertEquals(minDepth.get(), maxDepth.get());
+    }
+
+    @Test
+    public void cancel_skips_calls_not_started() {
+        List<CompletableFuture<HttpResponse>> calls = new ArrayList<>();
+
+        CompletableFuture<List<HttpBatchResult>> batch = HttpBatchScheduler.sendAll(requests(10), 2, NO_LISTENER, request -> {
+            CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+            calls.add(future);
+            return future;
+        });
+        assertEquals(2, calls.size());
+
+        batch.cancel(true);
+
+        assertTrue(calls.get(0).isCancelled());
+        assertTrue(calls.get(1).isCancelled());
+        assertEquals(2, calls.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelism_must_be_positive() {
+        HttpBatchScheduler.sendAll(requests(1), 0, NO_LISTENER, request -> new CompletableFuture<>());
+    }
+
+    @Test
+    public void empty_batch() throws Exception {
+        assertEquals(0, HttpBatchScheduler.sendAll(Collections.emptyList(), 1, NO_LISTENER, request -> {
+            throw new AssertionError("No calls expected");
+        }).get().size());
+    }
+
+    private static List<HttpRequest> requests(int aCount) {
+        List<HttpRequest> requests = new ArrayList<>(aCount);
+        for (int i = 0; i < aCount; i++) {
+            requests.add(HttpRequest.builder().url("http://example.com/" + i).build());
+        }
+        return requests;
+    }
+
+    private static HttpResponse response(HttpRequest aRequest) {
+        return new HttpResponse(200, "OK", HttpHeaders.EMPTY, aRequest.getUrl().getBytes());
+    }
+
+    private static void sleep(long aMillis) {
+        try {
+            Thread.sleep(aMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
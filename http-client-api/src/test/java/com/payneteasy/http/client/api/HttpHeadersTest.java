@@ -0,0 +1,137 @@
+package com.payneteasy.http.client.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpHeadersTest {
+
+    @Test
+    public void lookup_ignores_case() {
+        HttpHeaders headers = headers(
+                "Content-Type"  , "text/plain"
+                , "X-Request-Id", "42"
+        );
+
+        assertEquals("text/plain", headers.get("content-type"));
+        assertEquals("text/plain", headers.get("CONTENT-TYPE"));
+        assertEquals("42"        , headers.get("x-request-id"));
+        assertTrue(headers.contains("X-REQUEST-ID"));
+        assertFalse(headers.contains("Content-Length"));
+        assertNull(headers.get("Content-Length"));
+        assertEquals(Collections.emptyList(), headers.getAll("Content-Length"));
+    }
+
+    @Test
+    public void repeated_headers_keep_received_order() {
+        HttpHeaders headers = headers(
+                "Set-Cookie"    , "a=1"
+                , "Date"        , "Mon, 01 Jan 2024 00:00:00 GMT"
+                , "set-cookie"  , "b=2"
+                , "SET-COOKIE"  , "c=3"
+        );
+
+        assertEquals("a=1", headers.get("Set-Cookie"));
+        assertEquals(Arrays.asList("a=1", "b=2", "c=3"), headers.getAll("set-cookie"));
+        assertEquals(Collections.singletonList("Mon, 01 Jan 2024 00:00:00 GMT"), headers.getAll("date"));
+
+        assertEquals(4           , headers.size());
+        assertEquals("Set-Cookie", headers.get(0).getName());
+        assertEquals("Date"      , headers.get(1).getName());
+        assertEquals("set-cookie", headers.get(2).getName());
+        assertEquals("SET-COOKIE", headers.get(3).getName());
+    }
+
+    @Test
+    public void names_with_the_same_hash_are_not_mixed() {
+        // "x-aak" and "x-ac-" have the same hash, so they land in the same slot
+        HttpHeaders headers = headers(
+                "x-aak"   , "1"
+                , "X-AC-" , "2"
+                , "X-Aak" , "3"
+                , "x-ac-" , "4"
+        );
+
+        assertEquals(Arrays.asList("1", "3"), headers.getAll("X-AAK"));
+        assertEquals(Arrays.asList("2", "4"), headers.getAll("x-ac-"));
+        assertFalse(headers.contains("x-aal"));
+    }
+
+    @Test
+    public void many_names_fill_the_table() {
+        List<HttpHeader> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(new HttpHeader("X-Header-" + i, "v" + i));
+        }
+        HttpHeaders headers = new HttpHeaders(list);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v" + i, headers.get("x-header-" + i));
+        }
+        assertNull(headers.get("x-header-100"));
+    }
+
+    @Test
+    public void empty() {
+        assertEquals(0, HttpHeaders.EMPTY.size());
+        assertNull(HttpHeaders.EMPTY.get("Content-Type"));
+        assertEquals(Collections.emptyList(), HttpHeaders.EMPTY.getAll("Content-Type"));
+        assertFalse(HttpHeaders.EMPTY.contains("Content-Type"));
+
+        assertSame(HttpHeaders.EMPTY, HttpHeaders.of(null));
+        assertSame(HttpHeaders.EMPTY, HttpHeaders.of(Collections.emptyList()));
+    }
+
+    @Test
+    public void of_keeps_indexed_instance() {
+        HttpHeaders headers = headers("Accept", "*/*");
+        assertSame(headers, HttpHeaders.of(headers));
+        assertEquals("*/*", HttpHeaders.of(Collections.singletonList(new HttpHeader("Accept", "*/*"))).get("accept"));
+    }
+
+    @Test
+    public void equals_plain_list() {
+        List<HttpHeader> list = Arrays.asList(
+                new HttpHeader("Accept", "*/*")
+                , new HttpHeader("Host", "example.com")
+        );
+        HttpHeaders headers = new HttpHeaders(list);
+
+        assertEquals(list, headers);
+        assertEquals(headers, list);
+        assertEquals(list.hashCode(), headers.hashCode());
+        assertFalse(headers.equals(Collections.singletonList(new HttpHeader("Accept", "*/*"))));
+    }
+
+    @Test
+    public void copy_is_not_affected_by_source_changes() {
+        List<HttpHeader> list    = new ArrayList<>(Collections.singletonList(new HttpHeader("Accept", "*/*")));
+        HttpHeaders      headers = new HttpHeaders(list);
+        list.add(new HttpHeader("Host", "example.com"));
+
+        assertEquals(1, headers.size());
+        assertNull(headers.get("Host"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutable() {
+        headers("Accept", "*/*").add(new HttpHeader("Host", "example.com"));
+    }
+
+    private static HttpHeaders headers(String... aNamesAndValues) {
+        HttpHeadersBuilder builder = new HttpHeadersBuilder();
+        for (int i = 0; i < aNamesAndValues.length; i += 2) {
+            builder.add(aNamesAndValues[i], aNamesAndValues[i + 1]);
+        }
+        return builder.build();
+    }
+}
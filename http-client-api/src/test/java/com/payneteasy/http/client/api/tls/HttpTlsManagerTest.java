@@ -0,0 +1,45 @@
+package com.payneteasy.http.client.api.tls;
+
+import org.junit.Test;
+
+import java.security.KeyStore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class HttpTlsManagerTest {
+
+    @Test
+    public void same_material_shares_one_factory() throws Exception {
+        HttpTlsManager manager = new HttpTlsManager();
+        KeyStore       first   = emptyStore();
+        KeyStore       second  = emptyStore();
+
+        HttpTlsSocketFactory factory = manager.getSocketFactory(first, null, null);
+        assertSame(factory, manager.getSocketFactory(first, null, null));
+        assertSame(factory, manager.getSocketFactory(second, null, null));
+        assertEquals(1, manager.getStatistics().getContexts());
+    }
+
+    @Test
+    public void key_password_is_part_of_the_material() throws Exception {
+        HttpTlsManager manager = new HttpTlsManager();
+        KeyStore       store   = emptyStore();
+
+        assertNotSame(
+                manager.getSocketFactory(null, store, "a".toCharArray())
+                , manager.getSocketFactory(null, store, "b".toCharArray())
+        );
+        assertNotSame(
+                manager.getSocketFactory(store, null, null)
+                , manager.getSocketFactory(null, store, null)
+        );
+    }
+
+    private static KeyStore emptyStore() throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, null);
+        return store;
+    }
+}
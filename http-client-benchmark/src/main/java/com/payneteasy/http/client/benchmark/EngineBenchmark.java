@@ -0,0 +1,143 @@
+package com.payneteasy.http.client.benchmark;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.impl.HttpClientImpl;
+import com.payneteasy.http.client.impl.HttpStreamClientImpl;
+import com.payneteasy.http.client.nio.HttpClientNioImpl;
+import com.payneteasy.http.client.okhttp.HttpClientOkHttpImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends GET requests to {@link LoopbackServer}.
+ *
+ * Workloads:
+ * <ul>
+ *     <li>json          - small JSON body over a keep-alive connection</li>
+ *     <li>1mb           - 1 MB body with Content-Length</li>
+ *     <li>chunked       - 128 KB body with chunked transfer encoding</li>
+ *     <li>no-keep-alive - small JSON body, the server closes each connection</li>
+ * </ul>
+ *
+ * Setup fails if the engine does not read the whole body of the workload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EngineBenchmark {
+
+    private static final HttpRequestParameters PARAMS = HttpRequestParameters.builder()
+            .timeouts(new HttpTimeouts(10_000, 10_000))
+            .build();
+
+    @Param({"url-connection", "url-connection-stream", "okhttp", "nio"})
+    public String engine;
+
+    @Param({"json", "1mb", "chunked", "no-keep-alive"})
+    public String workload;
+
+    private LoopbackServer    server;
+    private IHttpClient       client;
+    private IHttpStreamClient streamClient;
+    private HttpRequest       request;
+    private byte[]            buffer;
+
+    @Setup
+    public void setup() throws Exception {
+        server  = new LoopbackServer();
+        request = HttpRequest.builder().method(HttpMethod.GET).url(server.url(path(workload))).build();
+        buffer  = new byte[8192];
+
+        switch (engine) {
+            case "url-connection":
+                client = new HttpClientImpl();
+                break;
+            case "url-connection-stream":
+                streamClient = new HttpStreamClientImpl();
+                break;
+            case "okhttp":
+                client = new HttpClientOkHttpImpl();
+                break;
+            case "nio":
+                client = new HttpClientNioImpl();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+
+        long length = readBodyLength();
+        if(length != expectedLength(workload)) {
+            throw new IllegalStateException(engine + " read " + length + " bytes of " + workload + " but expected " + expectedLength(workload));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public void send(Blackhole aBlackhole) throws Exception {
+        if(client != null) {
+            HttpResponse response = client.send(request, PARAMS);
+            aBlackhole.consume(response.getBody());
+            return;
+        }
+
+        try (IHttpStreamResponse response = streamClient.send(request, PARAMS)) {
+            InputStream in = response.getInputStream();
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                aBlackhole.consume(count);
+            }
+        }
+    }
+
+    private long readBodyLength() throws Exception {
+        if(client != null) {
+            return client.send(request, PARAMS).getBody().length;
+        }
+
+        long length = 0;
+        try (IHttpStreamResponse response = streamClient.send(request, PARAMS)) {
+            InputStream in = response.getInputStream();
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                length += count;
+            }
+        }
+        return length;
+    }
+
+    private static long expectedLength(String aWorkload) {
+        switch (aWorkload) {
+            case "1mb":
+                return LoopbackServer.ONE_MB.length;
+            case "chunked":
+                return LoopbackServer.chunkedLength();
+            default:
+                return LoopbackServer.JSON.length;
+        }
+    }
+
+    private static String path(String aWorkload) {
+        switch (aWorkload) {
+            case "json":
+                return "/json";
+            case "1mb":
+                return "/1mb";
+            case "chunked":
+                return "/chunked";
+            case "no-keep-alive":
+                return "/close";
+            default:
+                throw new IllegalArgumentException("Unknown workload " + aWorkload);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.payneteasy.http.client.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process server on 127.0.0.1 so benchmarks run without network
+ */
+public class LoopbackServer implements AutoCloseable {
+
+    static final byte[] JSON = ("{\"status\":\"approved\",\"orderId\":\"0123456789\",\"amount\":10000"
+            + ",\"currency\":\"USD\",\"rrn\":\"123456789012\",\"authCode\":\"A1B2C3\"}").getBytes(StandardCharsets.UTF_8);
+
+    static final byte[] ONE_MB = new byte[1024 * 1024];
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final int CHUNKS     = 16;
+
+    static {
+        Arrays.fill(ONE_MB, (byte) 'x');
+        // otherwise Nagle and delayed ACK add 40 ms to each keep-alive response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer      server;
+    private final ExecutorService executor;
+
+    public LoopbackServer() throws IOException {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        server   = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/json"   , exchange -> respond(exchange, JSON, false));
+        server.createContext("/1mb"    , exchange -> respond(exchange, ONE_MB, false));
+        server.createContext("/close"  , exchange -> respond(exchange, JSON, true));
+        server.createContext("/chunked", this::respondChunked);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url(String aPath) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + aPath;
+    }
+
+    private static void respond(HttpExchange aExchange, byte[] aBody, boolean aClose) throws IOException {
+        drainRequest(aExchange);
+        aExchange.getResponseHeaders().add("Content-Type", "application/json");
+        if(aClose) {
+            aExchange.getResponseHeaders().add("Connection", "close");
+        }
+        aExchange.sendResponseHeaders(200, aBody.length);
+        try (OutputStream out = aExchange.getResponseBody()) {
+            out.write(aBody);
+        }
+    }
+
+    private void respondChunked(HttpExchange aExchange) throws IOException {
+        drainRequest(aExchange);
+        // zero length means chunked transfer encoding
+        aExchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = aExchange.getResponseBody()) {
+            for (int i = 0; i < CHUNKS; i++) {
+                out.write(ONE_MB, 0, CHUNK_SIZE);
+                out.flush();
+            }
+        }
+    }
+
+    static int chunkedLength() {
+        return CHUNK_SIZE * CHUNKS;
+    }
+
+    private static void drainRequest(HttpExchange aExchange) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (aExchange.getRequestBody().read(buffer) >= 0) {
+            // request body is ignored
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package com.payneteasy.http.client.decorators;
+
+public class UrlHosts {
+
+    /**
+     * @return lower case host and port of the url without user info, for example api.example.com:8443
+     */
+    public static String authorityOf(String aUrl) {
+        int start = authorityStart(aUrl);
+        return aUrl.substring(start, authorityEnd(aUrl, start)).toLowerCase();
+    }
+
+    /**
+     * @return index of the host in the url, user info before '@' is skipped
+     */
+    public static int authorityStart(String aUrl) {
+        int start = aUrl.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = authorityEnd(aUrl, start);
+        for (int i = end - 1; i >= start; i--) {
+            if(aUrl.charAt(i) == '@') {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * @return index after the port or the host if the url has no port
+     */
+    public static int authorityEnd(String aUrl, int aStart) {
+        int end = aStart;
+        while (end < aUrl.length()) {
+            char c = aUrl.charAt(end);
+            if(c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+}
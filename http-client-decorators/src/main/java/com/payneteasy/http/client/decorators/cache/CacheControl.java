@@ -0,0 +1,89 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+
+import java.util.List;
+
+/**
+ * Directives of the Cache-Control and Pragma headers used by a shared cache
+ */
+class CacheControl {
+
+    final boolean noStore;
+    final boolean noCache;
+    final boolean isPublic;
+    final boolean isPrivate;
+
+    /** seconds or -1 if absent */
+    final long maxAge;
+
+    /** seconds or -1 if absent */
+    final long sMaxAge;
+
+    private CacheControl(boolean aNoStore, boolean aNoCache, boolean aPublic, boolean aPrivate, long aMaxAge, long aSMaxAge) {
+        noStore   = aNoStore;
+        noCache   = aNoCache;
+        isPublic  = aPublic;
+        isPrivate = aPrivate;
+        maxAge    = aMaxAge;
+        sMaxAge   = aSMaxAge;
+    }
+
+    static CacheControl parse(List<HttpHeader> aHeaders) {
+        boolean noStore   = false;
+        boolean noCache   = false;
+        boolean isPublic  = false;
+        boolean isPrivate = false;
+        long    maxAge    = -1;
+        long    sMaxAge   = -1;
+
+        for (HttpHeader header : aHeaders) {
+            if(header.getName().equalsIgnoreCase("Pragma")) {
+                noCache |= header.getValue().toLowerCase().contains("no-cache");
+                continue;
+            }
+
+            if(!header.getName().equalsIgnoreCase("Cache-Control")) {
+                continue;
+            }
+
+            for (String directive : header.getValue().split(",")) {
+                int    equals = directive.indexOf('=');
+                String name   = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase();
+                String value  = equals < 0 ? "" : directive.substring(equals + 1).trim().replace("\"", "");
+                switch (name) {
+                    case "no-store":
+                        noStore = true;
+                        break;
+
+                    // no-cache="Set-Cookie" form is treated as plain no-cache
+                    case "no-cache":
+                        noCache = true;
+                        break;
+
+                    case "public":
+                        isPublic = true;
+                        break;
+
+                    // private="Set-Cookie" form is treated as plain private
+                    case "private":
+                        isPrivate = true;
+                        break;
+
+                    // an invalid max-age means the response is stale
+                    case "max-age":
+                        maxAge = Math.max(0, CacheHeaders.parseSeconds(value));
+                        break;
+
+                    case "s-maxage":
+                        sMaxAge = Math.max(0, CacheHeaders.parseSeconds(value));
+                        break;
+
+                    default:
+                        break;
+                }
+            }
+        }
+        return new CacheControl(noStore, noCache, isPublic, isPrivate, maxAge, sMaxAge);
+    }
+}
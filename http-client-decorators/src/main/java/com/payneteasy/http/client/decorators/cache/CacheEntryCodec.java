@@ -0,0 +1,66 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class CacheEntryCodec {
+
+    static byte[] encode(HttpCacheEntry aEntry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(aEntry.weight());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(aEntry.getStatusCode());
+            out.writeUTF(aEntry.getReasonPhrase());
+            writeHeaders(out, aEntry.getHeaders());
+            writeHeaders(out, aEntry.getVaryHeaders());
+            out.writeLong(aEntry.getRequestTime());
+            out.writeLong(aEntry.getResponseTime());
+            out.writeInt(aEntry.getBody().length);
+            out.write(aEntry.getBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode cache entry", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static HttpCacheEntry decode(byte[] aBytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(aBytes))) {
+            int              statusCode   = in.readInt();
+            String           reasonPhrase = in.readUTF();
+            HttpHeaders      headers      = new HttpHeaders(readHeaders(in));
+            List<HttpHeader> varyHeaders  = readHeaders(in);
+            long             requestTime  = in.readLong();
+            long             responseTime = in.readLong();
+            byte[]           body         = new byte[in.readInt()];
+            in.readFully(body);
+            return new HttpCacheEntry(statusCode, reasonPhrase, headers, body, varyHeaders, requestTime, responseTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode cache entry", e);
+        }
+    }
+
+    private static void writeHeaders(DataOutputStream aOut, List<HttpHeader> aHeaders) throws IOException {
+        aOut.writeInt(aHeaders.size());
+        for (HttpHeader header : aHeaders) {
+            aOut.writeUTF(header.getName());
+            aOut.writeUTF(header.getValue());
+        }
+    }
+
+    private static List<HttpHeader> readHeaders(DataInputStream aIn) throws IOException {
+        int              count   = aIn.readInt();
+        List<HttpHeader> headers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            headers.add(new HttpHeader(aIn.readUTF(), aIn.readUTF()));
+        }
+        return headers;
+    }
+}
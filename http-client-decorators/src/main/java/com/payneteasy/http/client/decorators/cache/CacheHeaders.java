@@ -0,0 +1,56 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+
+import javax.annotation.Nullable;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+class CacheHeaders {
+
+    @Nullable
+    static String first(List<HttpHeader> aHeaders, String aName) {
+        return HttpHeaders.of(aHeaders).get(aName);
+    }
+
+    /**
+     * @return all values of the header joined with a comma or an empty string
+     */
+    static String joined(List<HttpHeader> aHeaders, String aName) {
+        return String.join(", ", HttpHeaders.of(aHeaders).getAll(aName));
+    }
+
+    /**
+     * @return epoch millis or -1 if the header is absent or invalid
+     */
+    static long date(List<HttpHeader> aHeaders, String aName) {
+        String value = first(aHeaders, aName);
+        if(value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the value in seconds or -1 if the header is absent or invalid
+     */
+    static long seconds(List<HttpHeader> aHeaders, String aName) {
+        String value = first(aHeaders, aName);
+        return value != null ? parseSeconds(value) : -1;
+    }
+
+    static long parseSeconds(String aValue) {
+        try {
+            return Math.max(0, Long.parseLong(aValue.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
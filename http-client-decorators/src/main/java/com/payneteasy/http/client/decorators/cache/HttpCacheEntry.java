@@ -0,0 +1,39 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class HttpCacheEntry {
+
+    private final int         statusCode;
+    private final String      reasonPhrase;
+    private final HttpHeaders headers;
+    private final byte[]      body;
+
+    /** request headers named by Vary, the value is empty if the header was absent */
+    private final List<HttpHeader> varyHeaders;
+
+    /** when the request was sent, epoch millis */
+    private final long requestTime;
+
+    /** when the response was received, epoch millis */
+    private final long responseTime;
+
+    /**
+     * @return approximate size in bytes used to bound the storages
+     */
+    public int weight() {
+        int weight = 64 + body.length;
+        for (HttpHeader header : headers) {
+            weight += 32 + header.getName().length() + header.getValue().length();
+        }
+        for (HttpHeader header : varyHeaders) {
+            weight += 32 + header.getName().length() + header.getValue().length();
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import lombok.Data;
+
+@Data
+public class HttpCacheStatistics {
+
+    /** served from the cache without a network call */
+    private final long hits;
+
+    /** sent to the network because nothing usable was cached */
+    private final long misses;
+
+    /** stale entries confirmed by 304 Not Modified */
+    private final long revalidations;
+
+}
@@ -0,0 +1,365 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared HTTP cache for GET requests as described in RFC 7234.
+ *
+ * <ul>
+ *     <li>freshness from Cache-Control s-maxage, max-age, Expires or 10% of the Last-Modified age</li>
+ *     <li>stale entries are revalidated with If-None-Match and If-Modified-Since</li>
+ *     <li>one variant per url, selected by the request headers named in Vary</li>
+ *     <li>successful unsafe requests invalidate the entry of the url</li>
+ * </ul>
+ *
+ * One decorator serves all its callers, so private responses are not stored. Requests with credentials,
+ * the Authorization or Cookie header or a per request SSLSocketFactory that may hold a client certificate,
+ * store and get only public responses and responses with s-maxage.
+ *
+ * Stale responses are never served and conditional requests from the caller are passed through.
+ */
+public class HttpClientCacheDecorator implements IHttpClient {
+
+    private static final long MAX_HEURISTIC_LIFETIME = TimeUnit.DAYS.toMillis(1);
+
+    private final IHttpClient       delegate;
+    private final IHttpCacheStorage storage;
+
+    private final AtomicLong hits          = new AtomicLong();
+    private final AtomicLong misses        = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    public HttpClientCacheDecorator(IHttpClient aDelegate, IHttpCacheStorage aStorage) {
+        delegate = aDelegate;
+        storage  = aStorage;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        if(aRequest.getMethod() != HttpMethod.GET) {
+            return sendUnsafe(aRequest, aRequestParameters);
+        }
+
+        HttpHeaders  requestHeaders = HttpHeaders.of(aRequest.getHeaders());
+        CacheControl requestControl = CacheControl.parse(requestHeaders);
+        if(requestControl.noStore || isConditional(requestHeaders)) {
+            misses.incrementAndGet();
+            return delegate.send(aRequest, aRequestParameters);
+        }
+
+        String         url         = aRequest.getUrl();
+        boolean        credentials = hasCredentials(requestHeaders, aRequestParameters);
+        HttpCacheEntry entry       = storage.get(url);
+        if(entry != null && (!varyMatches(entry, requestHeaders) || (credentials && !isShareable(entry.getHeaders())))) {
+            entry = null;
+        }
+
+        if(entry == null) {
+            misses.incrementAndGet();
+            return sendAndStore(aRequest, aRequestParameters, requestHeaders, credentials);
+        }
+
+        long now = System.currentTimeMillis();
+        long age = currentAge(entry, now);
+        if(isFresh(entry, age, requestControl)) {
+            hits.incrementAndGet();
+            return toResponse(entry, age);
+        }
+
+        HttpRequest conditional = conditionalRequest(aRequest, entry);
+        if(conditional == null) {
+            misses.incrementAndGet();
+            return sendAndStore(aRequest, aRequestParameters, requestHeaders, credentials);
+        }
+
+        long         requestTime  = System.currentTimeMillis();
+        HttpResponse response     = delegate.send(conditional, aRequestParameters);
+        long         responseTime = System.currentTimeMillis();
+
+        if(response.getStatusCode() != 304) {
+            misses.incrementAndGet();
+            store(url, requestHeaders, credentials, response, requestTime, responseTime);
+            return response;
+        }
+
+        revalidations.incrementAndGet();
+        HttpCacheEntry updated = new HttpCacheEntry(
+                entry.getStatusCode()
+                , entry.getReasonPhrase()
+                , mergeHeaders(entry.getHeaders(), response.getHeaders())
+                , entry.getBody()
+                , entry.getVaryHeaders()
+                , requestTime
+                , responseTime
+        );
+        CacheControl updatedControl = CacheControl.parse(updated.getHeaders());
+        if(updatedControl.noStore || updatedControl.isPrivate) {
+            storage.remove(url);
+        } else {
+            storage.put(url, updated);
+        }
+        return toResponse(updated, currentAge(updated, responseTime));
+    }
+
+    public HttpCacheStatistics getStatistics() {
+        return new HttpCacheStatistics(hits.get(), misses.get(), revalidations.get());
+    }
+
+    private HttpResponse sendUnsafe(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        HttpResponse response = delegate.send(aRequest, aRequestParameters);
+        switch (aRequest.getMethod()) {
+            case HEAD:
+            case OPTIONS:
+            case TRACE:
+                break;
+
+            default:
+                if(response.getStatusCode() < 400) {
+                    storage.remove(aRequest.getUrl());
+                }
+        }
+        return response;
+    }
+
+    private HttpResponse sendAndStore(HttpRequest aRequest, HttpRequestParameters aRequestParameters, HttpHeaders aRequestHeaders, boolean aCredentials) throws HttpConnectException, HttpReadException, HttpWriteException {
+        long         requestTime = System.currentTimeMillis();
+        HttpResponse response    = delegate.send(aRequest, aRequestParameters);
+        store(aRequest.getUrl(), aRequestHeaders, aCredentials, response, requestTime, System.currentTimeMillis());
+        return response;
+    }
+
+    private void store(String aUrl, HttpHeaders aRequestHeaders, boolean aCredentials, HttpResponse aResponse, long aRequestTime, long aResponseTime) {
+        HttpHeaders  headers = HttpHeaders.of(aResponse.getHeaders());
+        CacheControl control = CacheControl.parse(headers);
+        String       vary    = CacheHeaders.joined(headers, "Vary");
+
+        // the stored entry may belong to callers without credentials
+        if(aCredentials && !isShareable(headers)) {
+            return;
+        }
+
+        if(!isCacheableStatus(aResponse.getStatusCode())
+                || control.noStore
+                || control.isPrivate
+                || vary.contains("*")) {
+            storage.remove(aUrl);
+            return;
+        }
+
+        List<HttpHeader> varyHeaders = new ArrayList<>();
+        for (String name : vary.split(",")) {
+            String trimmed = name.trim();
+            if(!trimmed.isEmpty()) {
+                varyHeaders.add(new HttpHeader(trimmed, CacheHeaders.joined(aRequestHeaders, trimmed)));
+            }
+        }
+
+        HttpCacheEntry entry = new HttpCacheEntry(
+                aResponse.getStatusCode()
+                , aResponse.getReasonPhrase()
+                , headers
+                , aResponse.getBody()
+                , varyHeaders
+                , aRequestTime
+                , aResponseTime
+        );
+
+        if(freshnessLifetime(entry) <= 0 && !hasValidator(entry)) {
+            storage.remove(aUrl);
+            return;
+        }
+
+        storage.put(aUrl, entry);
+    }
+
+    private static boolean isFresh(HttpCacheEntry aEntry, long aAge, CacheControl aRequestControl) {
+        if(aRequestControl.noCache) {
+            return false;
+        }
+        if(aRequestControl.maxAge >= 0 && aAge > TimeUnit.SECONDS.toMillis(aRequestControl.maxAge)) {
+            return false;
+        }
+        return freshnessLifetime(aEntry) > aAge;
+    }
+
+    /**
+     * RFC 7234 4.2.1
+     */
+    static long freshnessLifetime(HttpCacheEntry aEntry) {
+        HttpHeaders  headers = aEntry.getHeaders();
+        CacheControl control = CacheControl.parse(headers);
+        if(control.noCache) {
+            return 0;
+        }
+
+        if(control.sMaxAge >= 0) {
+            return TimeUnit.SECONDS.toMillis(control.sMaxAge);
+        }
+
+        if(control.maxAge >= 0) {
+            return TimeUnit.SECONDS.toMillis(control.maxAge);
+        }
+
+        long date = dateValue(aEntry);
+        if(CacheHeaders.first(headers, "Expires") != null) {
+            long expires = CacheHeaders.date(headers, "Expires");
+            return expires < 0 ? 0 : expires - date;
+        }
+
+        long lastModified = CacheHeaders.date(headers, "Last-Modified");
+        if(lastModified >= 0 && lastModified < date) {
+            return Math.min((date - lastModified) / 10, MAX_HEURISTIC_LIFETIME);
+        }
+        return 0;
+    }
+
+    /**
+     * RFC 7234 4.2.3
+     */
+    static long currentAge(HttpCacheEntry aEntry, long aNow) {
+        long ageValue            = Math.max(0, CacheHeaders.seconds(aEntry.getHeaders(), "Age")) * 1000;
+        long apparentAge         = Math.max(0, aEntry.getResponseTime() - dateValue(aEntry));
+        long responseDelay       = aEntry.getResponseTime() - aEntry.getRequestTime();
+        long correctedInitialAge = Math.max(apparentAge, ageValue + responseDelay);
+        return correctedInitialAge + Math.max(0, aNow - aEntry.getResponseTime());
+    }
+
+    private static long dateValue(HttpCacheEntry aEntry) {
+        long date = CacheHeaders.date(aEntry.getHeaders(), "Date");
+        return date >= 0 ? date : aEntry.getResponseTime();
+    }
+
+    @Nullable
+    private static HttpRequest conditionalRequest(HttpRequest aRequest, HttpCacheEntry aEntry) {
+        if(!hasValidator(aEntry)) {
+            return null;
+        }
+
+        String etag         = CacheHeaders.first(aEntry.getHeaders(), "ETag");
+        String lastModified = CacheHeaders.first(aEntry.getHeaders(), "Last-Modified");
+
+        List<HttpHeader> headers = new ArrayList<>(HttpHeaders.of(aRequest.getHeaders()));
+        if(etag != null) {
+            headers.add(new HttpHeader("If-None-Match", etag));
+        }
+        if(lastModified != null) {
+            headers.add(new HttpHeader("If-Modified-Since", lastModified));
+        }
+
+        return HttpRequest.builder()
+                .url(aRequest.getUrl())
+                .method(aRequest.getMethod())
+                .headers(new HttpHeaders(headers))
+                .build();
+    }
+
+    /**
+     * RFC 7234 3.2, a shared cache keeps responses to requests with credentials only if they allow it
+     */
+    private static boolean isShareable(HttpHeaders aResponseHeaders) {
+        CacheControl control = CacheControl.parse(aResponseHeaders);
+        return control.isPublic || control.sMaxAge >= 0;
+    }
+
+    private static boolean hasCredentials(HttpHeaders aRequestHeaders, HttpRequestParameters aRequestParameters) {
+        return aRequestHeaders.contains("Authorization")
+                || aRequestHeaders.contains("Cookie")
+                || (aRequestParameters != null && aRequestParameters.getSslSocketFactory() != null);
+    }
+
+    private static boolean hasValidator(HttpCacheEntry aEntry) {
+        return CacheHeaders.first(aEntry.getHeaders(), "ETag") != null
+                || CacheHeaders.first(aEntry.getHeaders(), "Last-Modified") != null;
+    }
+
+    private static boolean isConditional(HttpHeaders aRequestHeaders) {
+        return aRequestHeaders.contains("If-None-Match")
+                || aRequestHeaders.contains("If-Modified-Since");
+    }
+
+    private static boolean varyMatches(HttpCacheEntry aEntry, HttpHeaders aRequestHeaders) {
+        for (HttpHeader vary : aEntry.getVaryHeaders()) {
+            if(!vary.getValue().equals(CacheHeaders.joined(aRequestHeaders, vary.getName()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * RFC 7234 4.3.4, headers of 304 replace the stored ones except the body framing
+     */
+    static HttpHeaders mergeHeaders(HttpHeaders aStored, List<HttpHeader> aNotModified) {
+        HttpHeaders      notModified = HttpHeaders.of(aNotModified);
+        List<HttpHeader> merged      = new ArrayList<>();
+        for (HttpHeader header : aStored) {
+            if(!isUpdatedBy(header, notModified)) {
+                merged.add(header);
+            }
+        }
+        for (HttpHeader header : notModified) {
+            if(!isFraming(header.getName())) {
+                merged.add(header);
+            }
+        }
+        return new HttpHeaders(merged);
+    }
+
+    private static boolean isUpdatedBy(HttpHeader aHeader, HttpHeaders aNotModified) {
+        return !isFraming(aHeader.getName()) && aNotModified.contains(aHeader.getName());
+    }
+
+    private static boolean isFraming(String aName) {
+        return aName.equalsIgnoreCase("Content-Length")
+                || aName.equalsIgnoreCase("Transfer-Encoding")
+                || aName.equalsIgnoreCase("Content-Encoding");
+    }
+
+    private static HttpResponse toResponse(HttpCacheEntry aEntry, long aAge) {
+        List<HttpHeader> headers = new ArrayList<>(aEntry.getHeaders().size() + 1);
+        for (HttpHeader header : aEntry.getHeaders()) {
+            if(!header.getName().equalsIgnoreCase("Age")) {
+                headers.add(header);
+            }
+        }
+        headers.add(new HttpHeader("Age", String.valueOf(TimeUnit.MILLISECONDS.toSeconds(aAge))));
+        return new HttpResponse(aEntry.getStatusCode(), aEntry.getReasonPhrase(), headers, aEntry.getBody());
+    }
+
+    /**
+     * RFC 7231 6.1, heuristically cacheable status codes
+     */
+    private static boolean isCacheableStatus(int aStatusCode) {
+        switch (aStatusCode) {
+            case 200:
+            case 203:
+            case 204:
+            case 300:
+            case 301:
+            case 404:
+            case 405:
+            case 410:
+            case 414:
+            case 501:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import javax.annotation.Nullable;
+
+/**
+ * Thread safe storage of cached responses, the key is the request url
+ */
+public interface IHttpCacheStorage {
+
+    @Nullable
+    HttpCacheEntry get(String aKey);
+
+    void put(String aKey, HttpCacheEntry aEntry);
+
+    void remove(String aKey);
+
+}
@@ -0,0 +1,107 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Off-heap storage in a memory-mapped segment file of a fixed size.
+ *
+ * Entries are appended as a ring, the oldest written entries are overwritten when the segment wraps.
+ * The index is kept on heap, so the file is truncated on open and the content does not survive a restart.
+ */
+public class MappedFileCacheStorage implements IHttpCacheStorage {
+
+    private final MappedByteBuffer         segment;
+    private final int                      size;
+    private final Map<String, Slot>        slots    = new HashMap<>();
+    private final TreeMap<Integer, String> byOffset = new TreeMap<>();
+
+    private int writePosition;
+
+    public MappedFileCacheStorage(Path aFile, int aSize) throws IOException {
+        size = aSize;
+        try (RandomAccessFile file = new RandomAccessFile(aFile.toFile(), "rw")) {
+            file.setLength(0);
+            file.setLength(aSize);
+            segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, aSize);
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized HttpCacheEntry get(String aKey) {
+        Slot slot = slots.get(aKey);
+        if(slot == null) {
+            return null;
+        }
+        byte[] bytes = new byte[slot.length];
+        ByteBuffer view = segment.duplicate();
+        view.position(slot.offset);
+        view.get(bytes);
+        return CacheEntryCodec.decode(bytes);
+    }
+
+    /**
+     * Entries bigger than a half of the segment are not stored
+     */
+    @Override
+    public synchronized void put(String aKey, HttpCacheEntry aEntry) {
+        remove(aKey);
+
+        byte[] bytes = CacheEntryCodec.encode(aEntry);
+        if(bytes.length > size / 2) {
+            return;
+        }
+
+        if(writePosition + bytes.length > size) {
+            writePosition = 0;
+        }
+        evict(writePosition, writePosition + bytes.length);
+
+        ByteBuffer view = segment.duplicate();
+        view.position(writePosition);
+        view.put(bytes);
+
+        slots.put(aKey, new Slot(writePosition, bytes.length));
+        byOffset.put(writePosition, aKey);
+        writePosition += bytes.length;
+    }
+
+    @Override
+    public synchronized void remove(String aKey) {
+        Slot slot = slots.remove(aKey);
+        if(slot != null) {
+            byOffset.remove(slot.offset);
+        }
+    }
+
+    private void evict(int aStart, int aEnd) {
+        Map.Entry<Integer, String> last;
+        while ((last = byOffset.floorEntry(aEnd - 1)) != null) {
+            Slot slot = slots.get(last.getValue());
+            if(slot.offset + slot.length <= aStart) {
+                return;
+            }
+            remove(last.getValue());
+        }
+    }
+
+    private static class Slot {
+
+        private final int offset;
+        private final int length;
+
+        private Slot(int aOffset, int aLength) {
+            offset = aOffset;
+            length = aLength;
+        }
+    }
+}
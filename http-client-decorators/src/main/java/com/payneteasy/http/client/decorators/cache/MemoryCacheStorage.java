@@ -0,0 +1,60 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU storage bounded by the total weight of entries
+ */
+public class MemoryCacheStorage implements IHttpCacheStorage {
+
+    private final long                        maxBytes;
+    private final Map<String, HttpCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    public MemoryCacheStorage(long aMaxBytes) {
+        maxBytes = aMaxBytes;
+    }
+
+    @Nullable
+    @Override
+    public synchronized HttpCacheEntry get(String aKey) {
+        return entries.get(aKey);
+    }
+
+    @Override
+    public synchronized void put(String aKey, HttpCacheEntry aEntry) {
+        int weight = aEntry.weight();
+        if(weight > maxBytes) {
+            remove(aKey);
+            return;
+        }
+
+        HttpCacheEntry previous = entries.put(aKey, aEntry);
+        if(previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += weight;
+
+        Iterator<HttpCacheEntry> eldest = entries.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized void remove(String aKey) {
+        HttpCacheEntry previous = entries.remove(aKey);
+        if(previous != null) {
+            bytes -= previous.weight();
+        }
+    }
+
+    public synchronized long getSizeInBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,44 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes to both tiers, reads from the first one and promotes hits from the second one
+ */
+public class TieredCacheStorage implements IHttpCacheStorage {
+
+    private final IHttpCacheStorage first;
+    private final IHttpCacheStorage second;
+
+    public TieredCacheStorage(IHttpCacheStorage aFirst, IHttpCacheStorage aSecond) {
+        first  = aFirst;
+        second = aSecond;
+    }
+
+    @Nullable
+    @Override
+    public HttpCacheEntry get(String aKey) {
+        HttpCacheEntry entry = first.get(aKey);
+        if(entry != null) {
+            return entry;
+        }
+
+        entry = second.get(aKey);
+        if(entry != null) {
+            first.put(aKey, entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(String aKey, HttpCacheEntry aEntry) {
+        first.put(aKey, aEntry);
+        second.put(aKey, aEntry);
+    }
+
+    @Override
+    public void remove(String aKey) {
+        first.remove(aKey);
+        second.remove(aKey);
+    }
+}
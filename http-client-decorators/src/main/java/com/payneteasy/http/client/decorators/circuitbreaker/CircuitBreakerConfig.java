@@ -0,0 +1,55 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CircuitBreakerConfig {
+
+    /**
+     * Number of last calls per host the rates are computed from
+     */
+    @Builder.Default
+    private final int windowSize = 100;
+
+    /**
+     * The circuit does not open before this number of calls is in the window
+     */
+    @Builder.Default
+    private final int minimumCalls = 20;
+
+    /**
+     * Percent of failed calls that opens the circuit
+     */
+    @Builder.Default
+    private final int failureRateThreshold = 50;
+
+    /**
+     * Percent of calls slower than {@link #slowCallDurationMs} that opens the circuit
+     */
+    @Builder.Default
+    private final int slowCallRateThreshold = 80;
+
+    @Builder.Default
+    private final long slowCallDurationMs = 5_000;
+
+    /**
+     * How long calls fail fast before probes are let through
+     */
+    @Builder.Default
+    private final long openDurationMs = 10_000;
+
+    /**
+     * Number of probe calls in the half-open state
+     */
+    @Builder.Default
+    private final int halfOpenProbes = 5;
+
+    /**
+     * Count 5xx responses as failures in addition to exceptions
+     */
+    @Builder.Default
+    private final boolean serverErrorsAreFailures = true;
+
+}
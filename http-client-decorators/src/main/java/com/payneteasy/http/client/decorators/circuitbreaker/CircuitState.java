@@ -0,0 +1,14 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+public enum CircuitState {
+
+    /** calls pass, outcomes are recorded in the sliding window */
+    CLOSED,
+
+    /** calls fail immediately with {@link HttpCircuitOpenException} */
+    OPEN,
+
+    /** a limited number of probe calls decide whether to close or open again */
+    HALF_OPEN
+
+}
@@ -0,0 +1,128 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+/**
+ * State of one host, a count based sliding window of outcomes.
+ *
+ * Each admitted call gets the generation of the state it was admitted under,
+ * results of calls from an earlier state are ignored, so a slow call admitted
+ * while CLOSED is never counted as a HALF_OPEN probe.
+ */
+class HostCircuitBreaker {
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW    = 2;
+
+    private final CircuitBreakerConfig config;
+    private final byte[]               window;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int          position;
+    private int          calls;
+    private int          failures;
+    private int          slowCalls;
+    private long         openedAtNanos;
+    private long         generation;
+    private int          probesIssued;
+    private int          probesDone;
+
+    HostCircuitBreaker(CircuitBreakerConfig aConfig) {
+        config = aConfig;
+        window = new byte[aConfig.getWindowSize()];
+    }
+
+    /**
+     * @return generation to pass to {@link #onResult} or -1 if the call is rejected
+     */
+    synchronized long tryAcquire(long aNowNanos) {
+        switch (state) {
+            case CLOSED:
+                return generation;
+
+            case OPEN:
+                if(aNowNanos - openedAtNanos < config.getOpenDurationMs() * 1_000_000) {
+                    return -1;
+                }
+                moveTo(CircuitState.HALF_OPEN);
+                probesIssued = 0;
+                probesDone   = 0;
+                resetWindow();
+                // fall through
+
+            case HALF_OPEN:
+            default:
+                if(probesIssued >= config.getHalfOpenProbes()) {
+                    return -1;
+                }
+                probesIssued++;
+                return generation;
+        }
+    }
+
+    synchronized void onResult(long aGeneration, boolean aFailure, long aDurationNanos, long aNowNanos) {
+        if(aGeneration != generation) {
+            // a call admitted before the last state change
+            return;
+        }
+
+        byte outcome = (byte) ((aFailure ? FAILURE : 0) | (aDurationNanos >= config.getSlowCallDurationMs() * 1_000_000 ? SLOW : 0));
+        record(outcome);
+
+        if(state == CircuitState.HALF_OPEN) {
+            probesDone++;
+            if(probesDone < config.getHalfOpenProbes()) {
+                return;
+            }
+            if(isOverThreshold()) {
+                open(aNowNanos);
+            } else {
+                moveTo(CircuitState.CLOSED);
+                resetWindow();
+            }
+            return;
+        }
+
+        if(calls >= config.getMinimumCalls() && isOverThreshold()) {
+            open(aNowNanos);
+        }
+    }
+
+    synchronized CircuitState getState() {
+        return state;
+    }
+
+    private void record(byte aOutcome) {
+        if(calls == window.length) {
+            byte evicted = window[position];
+            failures  -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            calls++;
+        }
+        window[position] = aOutcome;
+        failures  += aOutcome & FAILURE;
+        slowCalls += (aOutcome & SLOW) >> 1;
+        position   = (position + 1) % window.length;
+    }
+
+    private boolean isOverThreshold() {
+        return failures * 100 >= config.getFailureRateThreshold() * calls
+                || slowCalls * 100 >= config.getSlowCallRateThreshold() * calls;
+    }
+
+    private void open(long aNowNanos) {
+        moveTo(CircuitState.OPEN);
+        openedAtNanos = aNowNanos;
+    }
+
+    private void moveTo(CircuitState aState) {
+        state = aState;
+        generation++;
+    }
+
+    private void resetWindow() {
+        position  = 0;
+        calls     = 0;
+        failures  = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+/**
+ * Thrown without a network call while the circuit of the host is open.
+ * Extends {@link HttpConnectException} because the request was not sent.
+ */
+public class HttpCircuitOpenException extends HttpConnectException {
+
+    private final String host;
+
+    public HttpCircuitOpenException(String aHost) {
+        super("Circuit is open for " + aHost, null);
+        host = aHost;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,84 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+import com.payneteasy.http.client.decorators.UrlHosts;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per host circuit breaker.
+ *
+ * The circuit opens when the failure rate or the slow call rate in the sliding window crosses the threshold,
+ * then calls fail with {@link HttpCircuitOpenException} without waiting for timeouts.
+ * After {@link CircuitBreakerConfig#getOpenDurationMs()} a few probe calls close it again or keep it open.
+ */
+public class HttpClientCircuitBreakerDecorator implements IHttpClient {
+
+    private final IHttpClient                               delegate;
+    private final CircuitBreakerConfig                      config;
+    private final ConcurrentMap<String, HostCircuitBreaker> hosts    = new ConcurrentHashMap<>();
+    private final AtomicLong                                rejected = new AtomicLong();
+
+    public HttpClientCircuitBreakerDecorator(IHttpClient aDelegate) {
+        this(aDelegate, CircuitBreakerConfig.builder().build());
+    }
+
+    public HttpClientCircuitBreakerDecorator(IHttpClient aDelegate, CircuitBreakerConfig aConfig) {
+        delegate = aDelegate;
+        config   = aConfig;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        String             host    = UrlHosts.authorityOf(aRequest.getUrl());
+        HostCircuitBreaker breaker = hosts.computeIfAbsent(host, it -> new HostCircuitBreaker(config));
+
+        long startNanos = System.nanoTime();
+        long generation = breaker.tryAcquire(startNanos);
+        if(generation < 0) {
+            rejected.incrementAndGet();
+            throw new HttpCircuitOpenException(host);
+        }
+
+        boolean failure = true;
+        try {
+            HttpResponse response = delegate.send(aRequest, aRequestParameters);
+            failure = config.isServerErrorsAreFailures() && response.getStatusCode() >= 500;
+            return response;
+        } finally {
+            long endNanos = System.nanoTime();
+            breaker.onResult(generation, failure, endNanos - startNanos, endNanos);
+        }
+    }
+
+    /**
+     * @return CLOSED for unknown hosts
+     */
+    public CircuitState getState(String aHost) {
+        HostCircuitBreaker breaker = hosts.get(aHost);
+        return breaker != null ? breaker.getState() : CircuitState.CLOSED;
+    }
+
+    public Map<String, CircuitState> getStates() {
+        Map<String, CircuitState> states = new TreeMap<>();
+        hosts.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return states;
+    }
+
+    /**
+     * @return calls failed fast since start
+     */
+    public long getRejectedCalls() {
+        return rejected.get();
+    }
+}
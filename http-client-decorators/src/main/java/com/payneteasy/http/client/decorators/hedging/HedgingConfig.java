@@ -0,0 +1,58 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import com.payneteasy.http.client.api.HttpMethod;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Data
+@Builder
+public class HedgingConfig {
+
+    /**
+     * Total attempts per call including the first one, hedges and retries
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * A hedge is sent when no answer arrives within this percentile of recent successful latencies
+     */
+    @Builder.Default
+    private final double hedgePercentile = 95;
+
+    /**
+     * Lower bound of the hedge delay
+     */
+    @Builder.Default
+    private final long minHedgeDelayMs = 5;
+
+    /**
+     * Number of recent latencies the percentile is taken from
+     */
+    @Builder.Default
+    private final int latencyWindow = 1_000;
+
+    /**
+     * Set to false to only retry failures
+     */
+    @Builder.Default
+    private final boolean hedgingEnabled = true;
+
+    /**
+     * Requests with these methods are hedged and retried after read and write failures.
+     * Other methods are only retried after {@link com.payneteasy.http.client.api.exceptions.HttpConnectException}.
+     */
+    @Builder.Default
+    private final Set<HttpMethod> idempotentMethods = EnumSet.of(
+            HttpMethod.GET
+            , HttpMethod.HEAD
+            , HttpMethod.OPTIONS
+            , HttpMethod.PUT
+            , HttpMethod.DELETE
+            , HttpMethod.TRACE
+    );
+
+}
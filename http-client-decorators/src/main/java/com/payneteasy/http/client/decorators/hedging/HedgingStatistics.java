@@ -0,0 +1,23 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import lombok.Data;
+
+@Data
+public class HedgingStatistics {
+
+    /** second copies sent because the first one was slow */
+    private final long hedges;
+
+    /** calls answered by a hedge before the first copy */
+    private final long hedgeWins;
+
+    /** attempts sent after a failure */
+    private final long retries;
+
+    /** hedges and retries not sent because the budget was empty */
+    private final long budgetExhausted;
+
+    /** hedges and retries not sent because the executor rejected them */
+    private final long rejected;
+
+}
@@ -0,0 +1,260 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+import com.payneteasy.http.client.decorators.circuitbreaker.HttpCircuitOpenException;
+import com.payneteasy.http.client.decorators.limiter.HttpLimitExceededException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedges slow idempotent requests and retries failed ones within a {@link RetryBudget}.
+ *
+ * <ul>
+ *     <li>{@link HttpConnectException}, {@link HttpReadException} and {@link HttpWriteException} are retried for idempotent methods</li>
+ *     <li>other methods are retried only if the cause proves the request was not sent: refused connection,
+ *         unknown host or no route, a connect timeout may also be a read timeout on some engines</li>
+ *     <li>{@link HttpCircuitOpenException} and {@link HttpLimitExceededException} are never retried,
+ *         the host is already shedding load</li>
+ *     <li>a hedge is sent when an idempotent request is slower than the configured percentile, the first answer wins</li>
+ *     <li>requests with a one-shot streamed body are sent once</li>
+ * </ul>
+ *
+ * Hedged attempts run on the executor, the losing attempts are interrupted.
+ * A hedge or retry rejected by the executor is not sent and the call waits for the attempts already running.
+ */
+public class HttpClientHedgingDecorator implements IHttpClient {
+
+    private final IHttpClient     delegate;
+    private final Executor        executor;
+    private final HedgingConfig   config;
+    private final RetryBudget     budget;
+    private final RecentLatencies latencies;
+
+    private final AtomicLong hedges          = new AtomicLong();
+    private final AtomicLong hedgeWins       = new AtomicLong();
+    private final AtomicLong retries         = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong rejected        = new AtomicLong();
+
+    public HttpClientHedgingDecorator(IHttpClient aDelegate, Executor aExecutor) {
+        this(aDelegate, aExecutor, HedgingConfig.builder().build(), new RetryBudget(0.1, 10));
+    }
+
+    public HttpClientHedgingDecorator(IHttpClient aDelegate, Executor aExecutor, HedgingConfig aConfig, RetryBudget aBudget) {
+        delegate  = aDelegate;
+        executor  = aExecutor;
+        config    = aConfig;
+        budget    = aBudget;
+        latencies = new RecentLatencies(aConfig.getLatencyWindow(), aConfig.getHedgePercentile());
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        budget.deposit();
+
+        if(aRequest.getRequestBody() != null && aRequest.getRequestBody().isOneShot()) {
+            return delegate.send(aRequest, aRequestParameters);
+        }
+
+        boolean idempotent = config.getIdempotentMethods().contains(aRequest.getMethod());
+        if(idempotent && config.isHedgingEnabled()) {
+            return sendHedged(aRequest, aRequestParameters);
+        }
+        return sendWithRetries(aRequest, aRequestParameters, idempotent);
+    }
+
+    public HedgingStatistics getStatistics() {
+        return new HedgingStatistics(hedges.get(), hedgeWins.get(), retries.get(), budgetExhausted.get(), rejected.get());
+    }
+
+    private HttpResponse sendWithRetries(HttpRequest aRequest, HttpRequestParameters aRequestParameters, boolean aIdempotent) throws HttpConnectException, HttpReadException, HttpWriteException {
+        for (int attempt = 1; ; attempt++) {
+            long startNanos = System.nanoTime();
+            try {
+                HttpResponse response = delegate.send(aRequest, aRequestParameters);
+                latencies.record(System.nanoTime() - startNanos);
+                return response;
+            } catch (HttpConnectException e) {
+                if(isShedding(e) || !(aIdempotent || isNotSent(e)) || !tryRetry(attempt)) {
+                    throw e;
+                }
+            } catch (HttpReadException | HttpWriteException e) {
+                if(!aIdempotent || !tryRetry(attempt)) {
+                    throw e;
+                }
+            }
+            retries.incrementAndGet();
+        }
+    }
+
+    private HttpResponse sendHedged(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        BlockingQueue<Attempt> results  = new LinkedBlockingQueue<>();
+        List<FutureTask<Void>> attempts = new ArrayList<>(config.getMaxAttempts());
+        boolean                mayHedge = true;
+        int                    running  = 1;
+
+        if(!start(aRequest, aRequestParameters, results, attempts, false)) {
+            // no thread for the first attempt, send it from the caller thread without hedging
+            return sendWithRetries(aRequest, aRequestParameters, true);
+        }
+
+        try {
+            while (true) {
+                long    hedgeDelayNanos = hedgeDelayNanos();
+                Attempt result;
+                if(mayHedge && hedgeDelayNanos >= 0 && attempts.size() < config.getMaxAttempts()) {
+                    result = results.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                    if(result == null) {
+                        if(!budget.tryWithdraw()) {
+                            budgetExhausted.incrementAndGet();
+                            mayHedge = false;
+                        } else if(start(aRequest, aRequestParameters, results, attempts, true)) {
+                            hedges.incrementAndGet();
+                            running++;
+                        } else {
+                            mayHedge = false;
+                        }
+                        continue;
+                    }
+                } else {
+                    result = results.take();
+                }
+
+                running--;
+                if(result.response != null) {
+                    if(result.hedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    return result.response;
+                }
+
+                if((result.failure instanceof HttpConnectException && !isShedding(result.failure))
+                        || result.failure instanceof HttpReadException
+                        || result.failure instanceof HttpWriteException) {
+                    if(tryRetry(attempts.size())) {
+                        if(start(aRequest, aRequestParameters, results, attempts, false)) {
+                            retries.incrementAndGet();
+                            running++;
+                            continue;
+                        }
+                        mayHedge = false;
+                    }
+                }
+
+                if(running == 0) {
+                    throw rethrow(result.failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpReadException("Interrupted while waiting for " + aRequest.getUrl(), e);
+        } finally {
+            for (FutureTask<Void> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return false if the executor rejected the attempt
+     */
+    private boolean start(HttpRequest aRequest, HttpRequestParameters aRequestParameters, BlockingQueue<Attempt> aResults, List<FutureTask<Void>> aAttempts, boolean aHedge) {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                HttpResponse response = delegate.send(aRequest, aRequestParameters);
+                latencies.record(System.nanoTime() - startNanos);
+                aResults.add(new Attempt(response, null, aHedge));
+            } catch (Throwable e) {
+                aResults.add(new Attempt(null, e, aHedge));
+            }
+        }, null);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        aAttempts.add(task);
+        return true;
+    }
+
+    private boolean tryRetry(int aAttemptsMade) {
+        if(aAttemptsMade >= config.getMaxAttempts()) {
+            return false;
+        }
+        if(!budget.tryWithdraw()) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isShedding(Throwable aFailure) {
+        return aFailure instanceof HttpCircuitOpenException || aFailure instanceof HttpLimitExceededException;
+    }
+
+    /**
+     * Engines map read timeouts to {@link HttpConnectException} too, so only the cause tells that nothing was sent
+     */
+    private static boolean isNotSent(HttpConnectException aFailure) {
+        for (Throwable cause = aFailure.getCause(); cause != null; cause = cause.getCause()) {
+            if(cause instanceof ConnectException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long hedgeDelayNanos() {
+        long percentile = latencies.percentileNanos();
+        return percentile < 0 ? -1 : Math.max(percentile, TimeUnit.MILLISECONDS.toNanos(config.getMinHedgeDelayMs()));
+    }
+
+    private static RuntimeException rethrow(Throwable aFailure) throws HttpConnectException, HttpReadException, HttpWriteException {
+        if(aFailure instanceof HttpConnectException) {
+            throw (HttpConnectException) aFailure;
+        } else if(aFailure instanceof HttpReadException) {
+            throw (HttpReadException) aFailure;
+        } else if(aFailure instanceof HttpWriteException) {
+            throw (HttpWriteException) aFailure;
+        } else if(aFailure instanceof Error) {
+            throw (Error) aFailure;
+        } else if(aFailure instanceof RuntimeException) {
+            throw (RuntimeException) aFailure;
+        }
+        return new IllegalStateException("Unexpected failure", aFailure);
+    }
+
+    private static class Attempt {
+
+        private final HttpResponse response;
+        private final Throwable    failure;
+        private final boolean      hedge;
+
+        private Attempt(HttpResponse aResponse, Throwable aFailure, boolean aHedge) {
+            response = aResponse;
+            failure  = aFailure;
+            hedge    = aHedge;
+        }
+    }
+}
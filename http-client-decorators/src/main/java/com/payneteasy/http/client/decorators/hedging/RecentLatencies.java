@@ -0,0 +1,49 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring of the last successful latencies, the percentile is recomputed every {@link #RECOMPUTE_EVERY} samples
+ */
+class RecentLatencies {
+
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong      count = new AtomicLong();
+    private final double          percentile;
+
+    private volatile long percentileNanos = -1;
+
+    RecentLatencies(int aWindow, double aPercentile) {
+        samples    = new AtomicLongArray(aWindow);
+        percentile = aPercentile;
+    }
+
+    void record(long aNanos) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), aNanos);
+        if((index + 1) % RECOMPUTE_EVERY == 0) {
+            recompute(Math.min(index + 1, samples.length()));
+        }
+    }
+
+    /**
+     * @return -1 until {@link #RECOMPUTE_EVERY} samples are recorded
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long aSize) {
+        long[] copy = new long[(int) aSize];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int rank = (int) Math.ceil(percentile / 100 * copy.length) - 1;
+        percentileNanos = copy[Math.max(0, Math.min(rank, copy.length - 1))];
+    }
+}
@@ -0,0 +1,54 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries and hedges to a share of the original requests.
+ *
+ * Every original request deposits {@code depositRatio} of a token, every retry or hedge withdraws a whole token,
+ * so during an outage the extra load is at most {@code depositRatio} of the normal traffic plus the bucket capacity.
+ * May be shared by several decorators calling the same upstream.
+ */
+public class RetryBudget {
+
+    private static final long MILLI = 1_000;
+
+    private final long       depositMillis;
+    private final long       maxMillis;
+    private final AtomicLong tokenMillis;
+
+    /**
+     * @param aDepositRatio for example 0.1 to allow one retry per ten requests
+     * @param aMaxTokens    bucket capacity, the bucket starts full
+     */
+    public RetryBudget(double aDepositRatio, int aMaxTokens) {
+        depositMillis = Math.round(aDepositRatio * MILLI);
+        maxMillis     = aMaxTokens * MILLI;
+        tokenMillis   = new AtomicLong(maxMillis);
+    }
+
+    public void deposit() {
+        long current;
+        do {
+            current = tokenMillis.get();
+            if(current >= maxMillis) {
+                return;
+            }
+        } while (!tokenMillis.compareAndSet(current, Math.min(maxMillis, current + depositMillis)));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokenMillis.get();
+            if(current < MILLI) {
+                return false;
+            }
+        } while (!tokenMillis.compareAndSet(current, current - MILLI));
+        return true;
+    }
+
+    public double getTokens() {
+        return tokenMillis.get() / (double) MILLI;
+    }
+}
@@ -0,0 +1,41 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+/**
+ * Records the duration of each call into {@link LatencyHistograms}.
+ * Failed calls are recorded with the {@link LatencyStatusClass#ERROR} class.
+ */
+public class HttpClientLatencyDecorator implements IHttpClient {
+
+    private final IHttpClient       delegate;
+    private final LatencyHistograms histograms;
+
+    public HttpClientLatencyDecorator(IHttpClient aDelegate, LatencyHistograms aHistograms) {
+        delegate   = aDelegate;
+        histograms = aHistograms;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        long startNanos = System.nanoTime();
+        int  statusCode = -1;
+        try {
+            HttpResponse response = delegate.send(aRequest, aRequestParameters);
+            statusCode = response.getStatusCode();
+            return response;
+        } finally {
+            histograms.record(aRequest.getUrl(), statusCode, System.nanoTime() - startNanos);
+        }
+    }
+
+    public LatencyHistograms getHistograms() {
+        return histograms;
+    }
+}
@@ -0,0 +1,92 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free log-linear histogram of microseconds with fixed memory.
+ *
+ * Values below 32 us are exact, bigger values fall into 32 sub-buckets per power of two,
+ * so a recorded value is reported with at most 3% error. Values above 71 minutes are clamped.
+ */
+public class LatencyHistogram {
+
+    private static final int  SUB_BUCKET_BITS  = 5;
+    private static final int  SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int  MAX_MAGNITUDE    = 31;
+    private static final long MAX_VALUE        = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int  BUCKET_COUNT     = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong      sum    = new AtomicLong();
+    private final AtomicLong      max    = new AtomicLong();
+
+    public void recordNanos(long aNanos) {
+        recordMicros(aNanos / 1_000);
+    }
+
+    public void recordMicros(long aMicros) {
+        long value = Math.min(Math.max(aMicros, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * Concurrent records may be partially visible in the snapshot
+     */
+    public LatencySnapshot snapshot() {
+        long[] copy  = new long[BUCKET_COUNT];
+        long   count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count  += copy[i];
+        }
+
+        return new LatencySnapshot(
+                count
+                , sum.get()
+                , max.get()
+                , valueAtPercentile(copy, count, 50)
+                , valueAtPercentile(copy, count, 99)
+                , valueAtPercentile(copy, count, 99.9)
+        );
+    }
+
+    private static long valueAtPercentile(long[] aCounts, long aTotal, double aPercentile) {
+        if(aTotal == 0) {
+            return 0;
+        }
+        long rank       = Math.max(1, (long) Math.ceil(aPercentile / 100 * aTotal));
+        long cumulative = 0;
+        for (int i = 0; i < aCounts.length; i++) {
+            cumulative += aCounts[i];
+            if(cumulative >= rank) {
+                return highestValueAt(i);
+            }
+        }
+        return MAX_VALUE;
+    }
+
+    static int indexOf(long aValue) {
+        if(aValue < SUB_BUCKET_COUNT) {
+            return (int) aValue;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(aValue);
+        int shift     = magnitude - SUB_BUCKET_BITS;
+        int sub       = (int) (aValue >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long highestValueAt(int aIndex) {
+        if(aIndex < SUB_BUCKET_COUNT) {
+            return aIndex;
+        }
+        int  shift = (aIndex - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long sub   = (aIndex - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + sub + 1) << shift) - 1;
+    }
+}
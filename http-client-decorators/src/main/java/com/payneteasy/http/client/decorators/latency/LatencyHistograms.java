@@ -0,0 +1,90 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import com.payneteasy.http.client.decorators.UrlHosts;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histograms keyed by host with port and status class.
+ *
+ * Recording does not allocate once the host is known: hosts are kept in a copy-on-write array
+ * and matched against the url in place, the number of hosts is expected to be small.
+ */
+public class LatencyHistograms {
+
+    private static final LatencyStatusClass[] STATUS_CLASSES = LatencyStatusClass.values();
+
+    private volatile HostHistograms[] hosts = new HostHistograms[0];
+
+    /**
+     * @param aStatusCode http status or -1 if the call failed with an exception
+     */
+    public void record(String aUrl, int aStatusCode, long aNanos) {
+        hostHistograms(aUrl).get(LatencyStatusClass.of(aStatusCode)).recordNanos(aNanos);
+    }
+
+    /**
+     * @return snapshots in the order hosts were first seen
+     */
+    public Map<LatencyKey, LatencySnapshot> snapshot() {
+        Map<LatencyKey, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        for (HostHistograms host : hosts) {
+            for (LatencyStatusClass statusClass : STATUS_CLASSES) {
+                LatencyHistogram histogram = host.histograms.get(statusClass.ordinal());
+                if(histogram != null) {
+                    snapshots.put(new LatencyKey(host.host, statusClass), histogram.snapshot());
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private HostHistograms hostHistograms(String aUrl) {
+        int start = UrlHosts.authorityStart(aUrl);
+        int end   = UrlHosts.authorityEnd(aUrl, start);
+
+        int length = end - start;
+        for (HostHistograms host : hosts) {
+            if(host.host.length() == length && aUrl.regionMatches(true, start, host.host, 0, length)) {
+                return host;
+            }
+        }
+        return addHost(aUrl.substring(start, end).toLowerCase());
+    }
+
+    private synchronized HostHistograms addHost(String aHost) {
+        for (HostHistograms host : hosts) {
+            if(host.host.equalsIgnoreCase(aHost)) {
+                return host;
+            }
+        }
+        HostHistograms   added = new HostHistograms(aHost);
+        HostHistograms[] copy  = Arrays.copyOf(hosts, hosts.length + 1);
+        copy[hosts.length] = added;
+        hosts = copy;
+        return added;
+    }
+
+    private static class HostHistograms {
+
+        private final String                                 host;
+        private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(STATUS_CLASSES.length);
+
+        private HostHistograms(String aHost) {
+            host = aHost;
+        }
+
+        private LatencyHistogram get(LatencyStatusClass aStatusClass) {
+            int              index     = aStatusClass.ordinal();
+            LatencyHistogram histogram = histograms.get(index);
+            if(histogram != null) {
+                return histogram;
+            }
+            histograms.compareAndSet(index, null, new LatencyHistogram());
+            return histograms.get(index);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import lombok.Data;
+
+@Data
+public class LatencyKey {
+
+    private final String             host;
+    private final LatencyStatusClass statusClass;
+
+}
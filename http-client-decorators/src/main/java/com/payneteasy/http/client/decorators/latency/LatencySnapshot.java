@@ -0,0 +1,18 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import lombok.Data;
+
+/**
+ * Latencies in microseconds
+ */
+@Data
+public class LatencySnapshot {
+
+    private final long count;
+    private final long sumMicros;
+    private final long maxMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+
+}
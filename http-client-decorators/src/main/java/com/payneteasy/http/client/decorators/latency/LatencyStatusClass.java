@@ -0,0 +1,35 @@
+package com.payneteasy.http.client.decorators.latency;
+
+public enum LatencyStatusClass {
+
+      INFORMATIONAL ( "1xx"   )
+    , SUCCESS       ( "2xx"   )
+    , REDIRECTION   ( "3xx"   )
+    , CLIENT_ERROR  ( "4xx"   )
+    , SERVER_ERROR  ( "5xx"   )
+    , ERROR         ( "error" );
+
+    private final String label;
+
+    LatencyStatusClass(String aLabel) {
+        label = aLabel;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @param aStatusCode http status or -1 if the call failed with an exception
+     */
+    public static LatencyStatusClass of(int aStatusCode) {
+        switch (aStatusCode / 100) {
+            case 1  : return INFORMATIONAL;
+            case 2  : return SUCCESS;
+            case 3  : return REDIRECTION;
+            case 4  : return CLIENT_ERROR;
+            case 5  : return SERVER_ERROR;
+            default : return ERROR;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.payneteasy.http.client.decorators.latency;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes histograms as a Prometheus summary in the text exposition format
+ */
+public class PrometheusLatencyExporter {
+
+    private final String metricName;
+
+    /**
+     * @param aMetricName for example http_client_request_duration_seconds
+     */
+    public PrometheusLatencyExporter(String aMetricName) {
+        metricName = aMetricName;
+    }
+
+    public String export(LatencyHistograms aHistograms) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("# HELP ").append(metricName).append(" HTTP client call duration\n");
+        sb.append("# TYPE ").append(metricName).append(" summary\n");
+
+        for (Map.Entry<LatencyKey, LatencySnapshot> entry : aHistograms.snapshot().entrySet()) {
+            String          labels   = labels(entry.getKey());
+            LatencySnapshot snapshot = entry.getValue();
+
+            appendQuantile(sb, labels, "0.5"  , snapshot.getP50Micros());
+            appendQuantile(sb, labels, "0.99" , snapshot.getP99Micros());
+            appendQuantile(sb, labels, "0.999", snapshot.getP999Micros());
+
+            sb.append(metricName).append("_sum{").append(labels).append("} ").append(seconds(snapshot.getSumMicros())).append('\n');
+            sb.append(metricName).append("_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void appendQuantile(StringBuilder aBuffer, String aLabels, String aQuantile, long aMicros) {
+        aBuffer.append(metricName)
+                .append('{').append(aLabels).append(",quantile=\"").append(aQuantile).append("\"} ")
+                .append(seconds(aMicros))
+                .append('\n');
+    }
+
+    private static String labels(LatencyKey aKey) {
+        return "host=\"" + escape(aKey.getHost()) + "\",status=\"" + aKey.getStatusClass().getLabel() + "\"";
+    }
+
+    private static String seconds(long aMicros) {
+        return String.format(Locale.ROOT, "%.6f", aMicros / 1_000_000.0);
+    }
+
+    private static String escape(String aValue) {
+        return aValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
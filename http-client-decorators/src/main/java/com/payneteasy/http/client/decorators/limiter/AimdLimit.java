@@ -0,0 +1,45 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease.
+ *
+ * The limit grows by one after a successful call that used at least a half of the limit,
+ * and is multiplied by the backoff ratio after a dropped call or a call slower than the timeout.
+ */
+public class AimdLimit implements ILimitAlgorithm {
+
+    private final int    minLimit;
+    private final int    maxLimit;
+    private final double backoffRatio;
+    private final long   timeoutNanos;
+
+    private volatile int limit;
+
+    public AimdLimit() {
+        this(20, 1, 1_000, 0.9, TimeUnit.SECONDS.toNanos(5));
+    }
+
+    public AimdLimit(int aInitialLimit, int aMinLimit, int aMaxLimit, double aBackoffRatio, long aTimeoutNanos) {
+        limit        = aInitialLimit;
+        minLimit     = aMinLimit;
+        maxLimit     = aMaxLimit;
+        backoffRatio = aBackoffRatio;
+        timeoutNanos = aTimeoutNanos;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long aRttNanos, int aInFlight, boolean aDropped) {
+        if(aDropped || aRttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if(aInFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
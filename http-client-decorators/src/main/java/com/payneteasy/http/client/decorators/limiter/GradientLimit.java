@@ -0,0 +1,75 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+/**
+ * Gradient of the no-load RTT and a short term RTT average.
+ *
+ * While the short term RTT stays close to the no-load one the limit grows by a queue of sqrt(limit),
+ * when the RTT rises because requests queue in the upstream the limit shrinks proportionally, down to a half per sample.
+ * The no-load RTT is the minimum over the last two windows of samples, so a permanent RTT shift becomes the new baseline.
+ */
+public class GradientLimit implements ILimitAlgorithm {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final int    MIN_WINDOW   = 10_000;
+    private static final double TOLERANCE    = 1.5;
+    private static final double SMOOTHING    = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double shortRtt;
+    private long   previousMinRtt = Long.MAX_VALUE;
+    private long   currentMinRtt  = Long.MAX_VALUE;
+    private int    samples;
+
+    public GradientLimit() {
+        this(20, 1, 1_000);
+    }
+
+    public GradientLimit(int aInitialLimit, int aMinLimit, int aMaxLimit) {
+        limit          = aInitialLimit;
+        estimatedLimit = aInitialLimit;
+        minLimit       = aMinLimit;
+        maxLimit       = aMaxLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long aRttNanos, int aInFlight, boolean aDropped) {
+        currentMinRtt = Math.min(currentMinRtt, aRttNanos);
+        if(++samples == MIN_WINDOW) {
+            previousMinRtt = currentMinRtt;
+            currentMinRtt  = aRttNanos;
+            samples        = 0;
+        }
+
+        if(shortRtt == 0) {
+            shortRtt = aRttNanos;
+            return;
+        }
+        shortRtt += (aRttNanos - shortRtt) / SHORT_WINDOW;
+
+        double newLimit;
+        if(aDropped) {
+            newLimit = estimatedLimit * 0.9;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * Math.min(previousMinRtt, currentMinRtt) / shortRtt));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            if(aInFlight < estimatedLimit / 2) {
+                // the limit is not the bottleneck, do not grow it
+                newLimit = Math.min(newLimit, estimatedLimit);
+            }
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit          = (int) estimatedLimit;
+    }
+}
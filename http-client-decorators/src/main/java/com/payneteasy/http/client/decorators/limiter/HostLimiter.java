@@ -0,0 +1,47 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import java.util.concurrent.TimeUnit;
+
+class HostLimiter {
+
+    private final ILimitAlgorithm algorithm;
+
+    private int  inFlight;
+    private long rejected;
+
+    HostLimiter(ILimitAlgorithm aAlgorithm) {
+        algorithm = aAlgorithm;
+    }
+
+    /**
+     * @return calls in flight including this one or -1 if there was no free slot until the deadline
+     */
+    synchronized int acquire(long aMaxWaitNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + aMaxWaitNanos;
+        while (inFlight >= algorithm.getLimit()) {
+            long remaining = deadline - System.nanoTime();
+            if(remaining <= 0) {
+                rejected++;
+                return -1;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return ++inFlight;
+    }
+
+    void release(int aInFlight, long aRttNanos, boolean aDropped) {
+        algorithm.onSample(aRttNanos, aInFlight, aDropped);
+        synchronized (this) {
+            inFlight--;
+            notifyAll();
+        }
+    }
+
+    int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    synchronized LimiterSnapshot snapshot() {
+        return new LimiterSnapshot(algorithm.getLimit(), inFlight, rejected);
+    }
+}
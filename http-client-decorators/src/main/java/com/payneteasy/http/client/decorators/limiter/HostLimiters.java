@@ -0,0 +1,81 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.decorators.UrlHosts;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limiters by host, may be shared by the {@link HttpClientLimiterDecorator} and the {@link HttpStreamClientLimiterDecorator}
+ * of the same upstream so that both count against one limit.
+ */
+public class HostLimiters {
+
+    private final LimiterConfig                      config;
+    private final long                               maxWaitNanos;
+    private final ConcurrentMap<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+
+    public HostLimiters() {
+        this(LimiterConfig.builder().build());
+    }
+
+    public HostLimiters(LimiterConfig aConfig) {
+        config       = aConfig;
+        maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(aConfig.getMaxWaitMs());
+    }
+
+    public Map<String, LimiterSnapshot> getSnapshots() {
+        Map<String, LimiterSnapshot> snapshots = new TreeMap<>();
+        hosts.forEach((host, limiter) -> snapshots.put(host, limiter.snapshot()));
+        return snapshots;
+    }
+
+    Permit acquire(String aUrl) throws HttpConnectException {
+        String      host    = UrlHosts.authorityOf(aUrl);
+        HostLimiter limiter = hosts.computeIfAbsent(host, it -> new HostLimiter(config.getAlgorithm().get()));
+
+        int inFlight;
+        try {
+            inFlight = limiter.acquire(maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpConnectException("Interrupted while waiting for a slot to " + host, e);
+        }
+
+        if(inFlight < 0) {
+            throw new HttpLimitExceededException(host, limiter.getLimit());
+        }
+        return new Permit(limiter, inFlight);
+    }
+
+    /**
+     * 429 and 503 mean the upstream is overloaded
+     */
+    static boolean isDropped(int aStatusCode) {
+        return aStatusCode == 429 || aStatusCode == 503;
+    }
+
+    static class Permit {
+
+        private final HostLimiter limiter;
+        private final int         inFlight;
+        private final long        startNanos = System.nanoTime();
+
+        private Permit(HostLimiter aLimiter, int aInFlight) {
+            limiter  = aLimiter;
+            inFlight = aInFlight;
+        }
+
+        long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        void release(long aRttNanos, boolean aDropped) {
+            limiter.release(inFlight, aRttNanos, aDropped);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+/**
+ * Caps calls in flight per host with an adaptive limit.
+ * Calls over the limit wait up to {@link LimiterConfig#getMaxWaitMs()} and then fail with {@link HttpLimitExceededException}.
+ */
+public class HttpClientLimiterDecorator implements IHttpClient {
+
+    private final IHttpClient  delegate;
+    private final HostLimiters limiters;
+
+    public HttpClientLimiterDecorator(IHttpClient aDelegate, HostLimiters aLimiters) {
+        delegate = aDelegate;
+        limiters = aLimiters;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        HostLimiters.Permit permit  = limiters.acquire(aRequest.getUrl());
+        boolean             dropped = true;
+        try {
+            HttpResponse response = delegate.send(aRequest, aRequestParameters);
+            dropped = HostLimiters.isDropped(response.getStatusCode());
+            return response;
+        } finally {
+            permit.release(permit.elapsedNanos(), dropped);
+        }
+    }
+
+    public HostLimiters getLimiters() {
+        return limiters;
+    }
+}
@@ -0,0 +1,27 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+/**
+ * Thrown without a network call when the host has no free slot.
+ * Extends {@link HttpConnectException} because the request was not sent.
+ */
+public class HttpLimitExceededException extends HttpConnectException {
+
+    private final String host;
+    private final int    limit;
+
+    public HttpLimitExceededException(String aHost, int aLimit) {
+        super("Concurrency limit " + aLimit + " exceeded for " + aHost, null);
+        host  = aHost;
+        limit = aLimit;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,111 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.IHttpStreamClient;
+import com.payneteasy.http.client.api.IHttpStreamResponse;
+import com.payneteasy.http.client.api.IHttpStreamResponseListener;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming variant of {@link HttpClientLimiterDecorator}.
+ *
+ * With a listener the slot is held for the whole call. A returned {@link IHttpStreamResponse} holds the slot until it is closed,
+ * the RTT sample is the time to the response headers so a slow reader does not shrink the limit.
+ */
+public class HttpStreamClientLimiterDecorator implements IHttpStreamClient {
+
+    private final IHttpStreamClient delegate;
+    private final HostLimiters      limiters;
+
+    public HttpStreamClientLimiterDecorator(IHttpStreamClient aDelegate, HostLimiters aLimiters) {
+        delegate = aDelegate;
+        limiters = aLimiters;
+    }
+
+    @Override
+    public void send(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpConnectException, HttpReadException, HttpWriteException {
+        HostLimiters.Permit permit  = limiters.acquire(aRequest.getUrl());
+        boolean             dropped = true;
+        try {
+            delegate.send(aRequest, aRequestParameters, aListener);
+            dropped = false;
+        } finally {
+            permit.release(permit.elapsedNanos(), dropped);
+        }
+    }
+
+    @Override
+    public IHttpStreamResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        HostLimiters.Permit permit = limiters.acquire(aRequest.getUrl());
+        IHttpStreamResponse response;
+        try {
+            response = delegate.send(aRequest, aRequestParameters);
+        } catch (Exception | Error e) {
+            permit.release(permit.elapsedNanos(), true);
+            throw e;
+        }
+        return new LimitedStreamResponse(response, permit, permit.elapsedNanos());
+    }
+
+    public HostLimiters getLimiters() {
+        return limiters;
+    }
+
+    private static class LimitedStreamResponse implements IHttpStreamResponse {
+
+        private final IHttpStreamResponse delegate;
+        private final HostLimiters.Permit permit;
+        private final long                rttNanos;
+        private final AtomicBoolean       released = new AtomicBoolean();
+
+        private LimitedStreamResponse(IHttpStreamResponse aDelegate, HostLimiters.Permit aPermit, long aRttNanos) {
+            delegate = aDelegate;
+            permit   = aPermit;
+            rttNanos = aRttNanos;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return delegate.getStatusCode();
+        }
+
+        @Nonnull
+        @Override
+        public String getReasonPhrase() {
+            return delegate.getReasonPhrase();
+        }
+
+        @Nonnull
+        @Override
+        public List<HttpHeader> getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Nonnull
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return delegate.getInputStream();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                if(released.compareAndSet(false, true)) {
+                    permit.release(rttNanos, HostLimiters.isDropped(delegate.getStatusCode()));
+                }
+            }
+        }
+    }
+}
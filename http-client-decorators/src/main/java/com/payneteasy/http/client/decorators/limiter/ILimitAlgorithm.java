@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+/**
+ * Adapts the concurrency limit of one host from completed calls, implementations must be thread safe
+ */
+public interface ILimitAlgorithm {
+
+    int getLimit();
+
+    /**
+     * @param aRttNanos  duration of the call
+     * @param aInFlight  calls in flight when this one started, including it
+     * @param aDropped   the call failed, timed out or was throttled by the upstream
+     */
+    void onSample(long aRttNanos, int aInFlight, boolean aDropped);
+
+}
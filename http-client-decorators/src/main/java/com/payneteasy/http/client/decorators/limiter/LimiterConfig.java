@@ -0,0 +1,24 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.function.Supplier;
+
+@Data
+@Builder
+public class LimiterConfig {
+
+    /**
+     * Creates an algorithm for each host
+     */
+    @Builder.Default
+    private final Supplier<ILimitAlgorithm> algorithm = AimdLimit::new;
+
+    /**
+     * How long a call waits for a free slot, 0 rejects immediately
+     */
+    @Builder.Default
+    private final long maxWaitMs = 0;
+
+}
@@ -0,0 +1,14 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import lombok.Data;
+
+@Data
+public class LimiterSnapshot {
+
+    private final int  limit;
+    private final int  inFlight;
+
+    /** calls rejected since start */
+    private final long rejected;
+
+}
@@ -0,0 +1,131 @@
+package com.payneteasy.http.client.decorators.singleflight;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges identical concurrent requests into one call to the delegate.
+ *
+ * The first caller sends the request, callers arriving while it is in flight wait for it and get the same
+ * {@link HttpResponse} instance, so the body array must not be modified. A failure is rethrown to every waiter
+ * as the same exception type with the original failure as the cause.
+ */
+public class HttpClientSingleFlightDecorator implements IHttpClient {
+
+    private final IHttpClient                                                     delegate;
+    private final SingleFlightConfig                                              config;
+    private final ConcurrentMap<SingleFlightKey, CompletableFuture<HttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders   = new AtomicLong();
+    private final AtomicLong followers = new AtomicLong();
+    private final AtomicLong bypassed  = new AtomicLong();
+
+    public HttpClientSingleFlightDecorator(IHttpClient aDelegate) {
+        this(aDelegate, SingleFlightConfig.builder().build());
+    }
+
+    public HttpClientSingleFlightDecorator(IHttpClient aDelegate, SingleFlightConfig aConfig) {
+        delegate = aDelegate;
+        config   = aConfig;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        if(!isCoalescable(aRequest)) {
+            bypassed.incrementAndGet();
+            return delegate.send(aRequest, aRequestParameters);
+        }
+
+        SingleFlightKey                 key      = createKey(aRequest, aRequestParameters);
+        CompletableFuture<HttpResponse> future   = new CompletableFuture<>();
+        CompletableFuture<HttpResponse> existing = inFlight.putIfAbsent(key, future);
+
+        if(existing != null) {
+            followers.incrementAndGet();
+            return await(aRequest, existing);
+        }
+
+        leaders.incrementAndGet();
+        try {
+            HttpResponse response = delegate.send(aRequest, aRequestParameters);
+            future.complete(response);
+            return response;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public SingleFlightStatistics getStatistics() {
+        return new SingleFlightStatistics(leaders.get(), followers.get(), bypassed.get(), inFlight.size());
+    }
+
+    private boolean isCoalescable(HttpRequest aRequest) {
+        return aRequest.getBody() == null
+                && aRequest.getRequestBody() == null
+                && config.getMethods().contains(aRequest.getMethod());
+    }
+
+    private SingleFlightKey createKey(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        List<String> headerValues = config.getKeyHeaders().isEmpty() ? allHeaderValues(aRequest) : new ArrayList<>(config.getKeyHeaders().size());
+        for (String name : config.getKeyHeaders()) {
+            headerValues.add(headerValue(aRequest, name));
+        }
+        return new SingleFlightKey(aRequest.getMethod(), aRequest.getUrl(), headerValues, aRequestParameters);
+    }
+
+    private static List<String> allHeaderValues(HttpRequest aRequest) {
+        if(aRequest.getHeaders() == null || aRequest.getHeaders().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(aRequest.getHeaders().size());
+        for (HttpHeader header : aRequest.getHeaders()) {
+            values.add(header.getName().toLowerCase(Locale.ROOT) + ": " + header.getValue());
+        }
+        return values;
+    }
+
+    private static String headerValue(HttpRequest aRequest, String aName) {
+        return aRequest.getHeaders() != null ? String.join("\n", aRequest.getHeaders().getAll(aName)) : "";
+    }
+
+    private static HttpResponse await(HttpRequest aRequest, CompletableFuture<HttpResponse> aFuture) throws HttpConnectException, HttpReadException, HttpWriteException {
+        try {
+            return aFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpReadException("Interrupted while waiting for the coalesced call to " + aRequest.getUrl(), e);
+        } catch (ExecutionException e) {
+            Throwable cause   = e.getCause();
+            String    message = "Coalesced call to " + aRequest.getUrl() + " failed";
+            if(cause instanceof HttpConnectException) {
+                throw new HttpConnectException(message, cause);
+            } else if(cause instanceof HttpReadException) {
+                throw new HttpReadException(message, cause);
+            } else if(cause instanceof HttpWriteException) {
+                throw new HttpWriteException(message, cause);
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(message, cause);
+        }
+    }
+}
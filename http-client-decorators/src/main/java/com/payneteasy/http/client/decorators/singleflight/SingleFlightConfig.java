@@ -0,0 +1,30 @@
+package com.payneteasy.http.client.decorators.singleflight;
+
+import com.payneteasy.http.client.api.HttpMethod;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Singular;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+public class SingleFlightConfig {
+
+    /**
+     * Only bodiless requests with these methods are coalesced
+     */
+    @Builder.Default
+    private final Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD);
+
+    /**
+     * Request headers that are part of the key in addition to the method and url.
+     * Empty means all request headers, so callers with different Authorization or Cookie never share a response.
+     * Listing headers narrows the key, for example when every request carries a unique X-Request-Id.
+     */
+    @Singular
+    private final List<String> keyHeaders;
+
+}
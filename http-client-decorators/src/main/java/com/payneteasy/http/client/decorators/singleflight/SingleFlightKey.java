@@ -0,0 +1,17 @@
+package com.payneteasy.http.client.decorators.singleflight;
+
+import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+class SingleFlightKey {
+
+    private final HttpMethod            method;
+    private final String                url;
+    private final List<String>          headerValues;
+    private final HttpRequestParameters parameters;
+
+}
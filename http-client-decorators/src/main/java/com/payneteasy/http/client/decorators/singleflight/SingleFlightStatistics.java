@@ -0,0 +1,20 @@
+package com.payneteasy.http.client.decorators.singleflight;
+
+import lombok.Data;
+
+@Data
+public class SingleFlightStatistics {
+
+    /** calls sent to the delegate */
+    private final long leaders;
+
+    /** calls that waited for an identical call in flight */
+    private final long followers;
+
+    /** calls that cannot be coalesced, for example with a body */
+    private final long bypassed;
+
+    /** keys in flight right now */
+    private final int inFlight;
+
+}
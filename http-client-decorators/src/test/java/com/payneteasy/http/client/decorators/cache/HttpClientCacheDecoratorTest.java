@@ -0,0 +1,280 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import org.junit.Test;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HttpClientCacheDecoratorTest {
+
+    private static final String                URL    = "https://example.com/config";
+    private static final HttpRequestParameters PARAMS = HttpRequestParameters.builder().build();
+
+    private final StubClient               delegate = new StubClient();
+    private final HttpClientCacheDecorator cache    = new HttpClientCacheDecorator(delegate, new MemoryCacheStorage(1024 * 1024));
+
+    @Test
+    public void freshness_from_max_age() {
+        assertEquals(SECONDS.toMillis(60), HttpClientCacheDecorator.freshnessLifetime(entry(0, header("Cache-Control", "max-age=60"))));
+    }
+
+    @Test
+    public void freshness_s_maxage_overrides_max_age() {
+        assertEquals(SECONDS.toMillis(5), HttpClientCacheDecorator.freshnessLifetime(entry(0, header("Cache-Control", "max-age=60, s-maxage=5"))));
+    }
+
+    @Test
+    public void freshness_from_expires_minus_date() {
+        long date = 1_600_000_000_000L;
+        assertEquals(SECONDS.toMillis(30), HttpClientCacheDecorator.freshnessLifetime(entry(date
+                , header("Date"   , httpDate(date))
+                , header("Expires", httpDate(date + SECONDS.toMillis(30)))
+        )));
+    }
+
+    @Test
+    public void freshness_invalid_expires_is_stale() {
+        assertEquals(0, HttpClientCacheDecorator.freshnessLifetime(entry(0, header("Expires", "0"))));
+    }
+
+    @Test
+    public void freshness_heuristic_is_tenth_of_last_modified_age() {
+        long date = 1_600_000_000_000L;
+        assertEquals(SECONDS.toMillis(100), HttpClientCacheDecorator.freshnessLifetime(entry(date
+                , header("Date"         , httpDate(date))
+                , header("Last-Modified", httpDate(date - SECONDS.toMillis(1000)))
+        )));
+    }
+
+    @Test
+    public void freshness_heuristic_is_capped_at_one_day() {
+        long date = 1_600_000_000_000L;
+        assertEquals(DAYS.toMillis(1), HttpClientCacheDecorator.freshnessLifetime(entry(date
+                , header("Date"         , httpDate(date))
+                , header("Last-Modified", httpDate(date - DAYS.toMillis(365)))
+        )));
+    }
+
+    @Test
+    public void freshness_no_cache_is_zero() {
+        assertEquals(0, HttpClientCacheDecorator.freshnessLifetime(entry(0, header("Cache-Control", "no-cache, max-age=60"))));
+    }
+
+    @Test
+    public void age_adds_age_header_and_response_delay() {
+        long requestTime  = 1_600_000_000_000L;
+        long responseTime = requestTime + 2_000;
+        HttpCacheEntry entry = new HttpCacheEntry(200, "OK", headers(
+                header("Date", httpDate(responseTime))
+                , header("Age", "10")
+        ), new byte[0], new ArrayList<>(), requestTime, responseTime);
+
+        // 10s Age + 2s delay + 5s resident
+        assertEquals(17_000, HttpClientCacheDecorator.currentAge(entry, responseTime + 5_000));
+    }
+
+    @Test
+    public void age_uses_apparent_age_of_old_date() {
+        long responseTime = 1_600_000_000_000L;
+        HttpCacheEntry entry = new HttpCacheEntry(200, "OK", headers(
+                header("Date", httpDate(responseTime - 30_000))
+        ), new byte[0], new ArrayList<>(), responseTime, responseTime);
+
+        assertEquals(31_000, HttpClientCacheDecorator.currentAge(entry, responseTime + 1_000));
+    }
+
+    @Test
+    public void fresh_response_is_served_from_cache() throws Exception {
+        delegate.enqueue(response(200, "one", header("Cache-Control", "max-age=60")));
+
+        assertEquals("one", body(cache.send(get(), PARAMS)));
+        HttpResponse cached = cache.send(get(), PARAMS);
+
+        assertEquals("one", body(cached));
+        assertEquals("0", cached.getHeader("Age"));
+        assertEquals(1, delegate.requests.size());
+        assertEquals(1, cache.getStatistics().getHits());
+    }
+
+    @Test
+    public void vary_selects_by_request_header() throws Exception {
+        delegate.enqueue(response(200, "json", header("Cache-Control", "max-age=60"), header("Vary", "Accept")));
+        delegate.enqueue(response(200, "xml" , header("Cache-Control", "max-age=60"), header("Vary", "Accept")));
+
+        assertEquals("json", body(cache.send(get(header("Accept", "application/json")), PARAMS)));
+        assertEquals("json", body(cache.send(get(header("accept", "application/json")), PARAMS)));
+        assertEquals("xml" , body(cache.send(get(header("Accept", "application/xml")), PARAMS)));
+        assertEquals(2, delegate.requests.size());
+    }
+
+    @Test
+    public void vary_star_is_not_stored() throws Exception {
+        delegate.enqueue(response(200, "one", header("Cache-Control", "max-age=60"), header("Vary", "*")));
+        delegate.enqueue(response(200, "two", header("Cache-Control", "max-age=60")));
+
+        cache.send(get(), PARAMS);
+        assertEquals("two", body(cache.send(get(), PARAMS)));
+    }
+
+    @Test
+    public void not_modified_merges_headers_and_keeps_body() throws Exception {
+        delegate.enqueue(response(200, "body"
+                , header("Cache-Control" , "max-age=0")
+                , header("ETag"          , "\"v1\"")
+                , header("Content-Length", "4")
+                , header("X-Old"         , "kept")
+        ));
+        delegate.enqueue(response(304, ""
+                , header("Cache-Control" , "max-age=60")
+                , header("Content-Length", "0")
+        ));
+
+        cache.send(get(), PARAMS);
+        HttpResponse revalidated = cache.send(get(), PARAMS);
+
+        assertEquals(200         , revalidated.getStatusCode());
+        assertEquals("body"      , body(revalidated));
+        assertEquals("max-age=60", revalidated.getHeader("Cache-Control"));
+        assertEquals("4"         , revalidated.getHeader("Content-Length"));
+        assertEquals("kept"      , revalidated.getHeader("X-Old"));
+        assertEquals("\"v1\""    , HttpHeaders.of(delegate.requests.get(1).getHeaders()).get("If-None-Match"));
+        assertEquals(1, cache.getStatistics().getRevalidations());
+
+        // fresh after the merge
+        assertEquals("body", body(cache.send(get(), PARAMS)));
+        assertEquals(2, delegate.requests.size());
+    }
+
+    @Test
+    public void merge_replaces_all_values_of_updated_names() {
+        HttpHeaders merged = HttpClientCacheDecorator.mergeHeaders(headers(
+                header("Link"          , "a")
+                , header("Link"        , "b")
+                , header("Content-Type", "text/plain")
+        ), Arrays.asList(
+                header("Link"               , "c")
+                , header("Transfer-Encoding", "chunked")
+        ));
+
+        assertEquals(Arrays.asList("c"), merged.getAll("Link"));
+        assertEquals("text/plain", merged.get("Content-Type"));
+        assertNull(merged.get("Transfer-Encoding"));
+    }
+
+    @Test
+    public void response_to_authorized_request_is_not_shared() throws Exception {
+        delegate.enqueue(response(200, "merchant-a", header("Cache-Control", "max-age=60")));
+        delegate.enqueue(response(200, "merchant-b", header("Cache-Control", "max-age=60")));
+        delegate.enqueue(response(200, "anonymous" , header("Cache-Control", "max-age=60")));
+
+        assertEquals("merchant-a", body(cache.send(get(header("Authorization", "Bearer a")), PARAMS)));
+        assertEquals("merchant-b", body(cache.send(get(header("Authorization", "Bearer b")), PARAMS)));
+        assertEquals("anonymous" , body(cache.send(get(), PARAMS)));
+        assertEquals(3, delegate.requests.size());
+    }
+
+    @Test
+    public void anonymous_entry_is_not_served_to_request_with_cookie() throws Exception {
+        delegate.enqueue(response(200, "anonymous", header("Cache-Control", "max-age=60")));
+        delegate.enqueue(response(200, "session"  , header("Cache-Control", "max-age=60")));
+
+        cache.send(get(), PARAMS);
+        assertEquals("session"  , body(cache.send(get(header("Cookie", "session=1")), PARAMS)));
+        assertEquals("anonymous", body(cache.send(get(), PARAMS)));
+        assertEquals(2, delegate.requests.size());
+    }
+
+    @Test
+    public void public_response_to_authorized_request_is_shared() throws Exception {
+        delegate.enqueue(response(200, "public", header("Cache-Control", "public, max-age=60")));
+
+        cache.send(get(header("Authorization", "Bearer a")), PARAMS);
+        assertEquals("public", body(cache.send(get(header("Authorization", "Bearer b")), PARAMS)));
+        assertEquals(1, delegate.requests.size());
+    }
+
+    @Test
+    public void client_certificate_is_a_credential() throws Exception {
+        HttpRequestParameters mutualTls = HttpRequestParameters.builder()
+                .sslSocketFactory((SSLSocketFactory) SSLSocketFactory.getDefault())
+                .build();
+        delegate.enqueue(response(200, "merchant-a", header("Cache-Control", "max-age=60")));
+        delegate.enqueue(response(200, "merchant-b", header("Cache-Control", "max-age=60")));
+
+        cache.send(get(), mutualTls);
+        assertEquals("merchant-b", body(cache.send(get(), mutualTls)));
+    }
+
+    @Test
+    public void private_response_is_not_stored() throws Exception {
+        delegate.enqueue(response(200, "one", header("Cache-Control", "private, max-age=60")));
+        delegate.enqueue(response(200, "two", header("Cache-Control", "private, max-age=60")));
+
+        cache.send(get(), PARAMS);
+        assertEquals("two", body(cache.send(get(), PARAMS)));
+    }
+
+    private static HttpCacheEntry entry(long aResponseTime, HttpHeader... aHeaders) {
+        return new HttpCacheEntry(200, "OK", headers(aHeaders), new byte[0], new ArrayList<>(), aResponseTime, aResponseTime);
+    }
+
+    private static HttpHeaders headers(HttpHeader... aHeaders) {
+        return new HttpHeaders(Arrays.asList(aHeaders));
+    }
+
+    private static HttpHeader header(String aName, String aValue) {
+        return new HttpHeader(aName, aValue);
+    }
+
+    private static HttpRequest get(HttpHeader... aHeaders) {
+        return HttpRequest.builder().url(URL).headers(headers(aHeaders)).build();
+    }
+
+    private static HttpResponse response(int aStatus, String aBody, HttpHeader... aHeaders) {
+        return new HttpResponse(aStatus, "", Arrays.asList(aHeaders), aBody.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(HttpResponse aResponse) {
+        return new String(aResponse.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static String httpDate(long aEpochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(aEpochMillis), ZoneOffset.UTC));
+    }
+
+    private static class StubClient implements IHttpClient {
+
+        private final Deque<HttpResponse> responses = new ArrayDeque<>();
+        private final List<HttpRequest>   requests  = new ArrayList<>();
+
+        void enqueue(HttpResponse aResponse) {
+            responses.add(aResponse);
+        }
+
+        @Override
+        public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+            requests.add(aRequest);
+            return responses.remove();
+        }
+    }
+}
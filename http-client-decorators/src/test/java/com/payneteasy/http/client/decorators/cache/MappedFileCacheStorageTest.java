@@ -0,0 +1,104 @@
+package com.payneteasy.http.client.decorators.cache;
+
+import com.payneteasy.http.client.api.HttpHeaders;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class MappedFileCacheStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** encoded size of an entry with a 100 bytes body */
+    private static final int LENGTH = CacheEntryCodec.encode(entry(100, 'x')).length;
+
+    @Test
+    public void wrap_evicts_only_overwritten_entries() throws Exception {
+        MappedFileCacheStorage storage = storage(LENGTH * 3 + LENGTH / 2);
+        storage.put("a", entry(100, 'a'));
+        storage.put("b", entry(100, 'b'));
+        storage.put("c", entry(100, 'c'));
+
+        // does not fit after c, goes to the start over a
+        storage.put("d", entry(100, 'd'));
+
+        assertNull(storage.get("a"));
+        assertBody('b', storage.get("b"));
+        assertBody('c', storage.get("c"));
+        assertBody('d', storage.get("d"));
+
+        storage.put("e", entry(100, 'e'));
+        assertNull(storage.get("b"));
+        assertBody('c', storage.get("c"));
+        assertBody('e', storage.get("e"));
+    }
+
+    @Test
+    public void entry_overlapping_two_slots_evicts_both() throws Exception {
+        MappedFileCacheStorage storage = storage(LENGTH * 3 + LENGTH / 2);
+        storage.put("a", entry(100, 'a'));
+        storage.put("b", entry(100, 'b'));
+        storage.put("c", entry(100, 'c'));
+
+        storage.put("big", entry(100 + LENGTH / 2, 'g'));
+
+        assertNull(storage.get("a"));
+        assertNull(storage.get("b"));
+        assertBody('c', storage.get("c"));
+        assertNotNull(storage.get("big"));
+    }
+
+    @Test
+    public void put_replaces_the_entry_of_the_key() throws Exception {
+        MappedFileCacheStorage storage = storage(LENGTH * 4);
+        storage.put("a", entry(100, '1'));
+        storage.put("a", entry(100, '2'));
+
+        assertBody('2', storage.get("a"));
+    }
+
+    @Test
+    public void entry_bigger_than_half_of_segment_is_not_stored() throws Exception {
+        MappedFileCacheStorage storage = storage(LENGTH * 2 - 1);
+        storage.put("a", entry(100, 'a'));
+
+        assertNull(storage.get("a"));
+    }
+
+    @Test
+    public void remove() throws Exception {
+        MappedFileCacheStorage storage = storage(LENGTH * 4);
+        storage.put("a", entry(100, 'a'));
+        storage.remove("a");
+
+        assertNull(storage.get("a"));
+    }
+
+    private MappedFileCacheStorage storage(int aSize) throws Exception {
+        return new MappedFileCacheStorage(new File(folder.getRoot(), "cache.seg").toPath(), aSize);
+    }
+
+    private static HttpCacheEntry entry(int aBodyLength, char aFill) {
+        byte[] body = new byte[aBodyLength];
+        Arrays.fill(body, (byte) aFill);
+        return new HttpCacheEntry(200, "OK", HttpHeaders.EMPTY, body, new ArrayList<>(), 1, 2);
+    }
+
+    private static void assertBody(char aFill, HttpCacheEntry aEntry) {
+        assertNotNull(aEntry);
+        byte[] expected = new byte[aEntry.getBody().length];
+        Arrays.fill(expected, (byte) aFill);
+        assertArrayEquals(expected, aEntry.getBody());
+        assertEquals(200, aEntry.getStatusCode());
+    }
+}
@@ -0,0 +1,129 @@
+package com.payneteasy.http.client.decorators.circuitbreaker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HostCircuitBreakerTest {
+
+    private static final long MS   = 1_000_000;
+    private static final long FAST = 10 * MS;
+    private static final long SLOW = 2_000 * MS;
+
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.builder()
+            .windowSize            ( 10    )
+            .minimumCalls          ( 4     )
+            .failureRateThreshold  ( 50    )
+            .slowCallRateThreshold ( 50    )
+            .slowCallDurationMs    ( 1_000 )
+            .openDurationMs        ( 5_000 )
+            .halfOpenProbes        ( 2     )
+            .build();
+
+    @Test
+    public void opens_on_failure_rate() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(CONFIG);
+        call(breaker, false, FAST, 0);
+        call(breaker, true , FAST, 0);
+        call(breaker, false, FAST, 0);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+
+        call(breaker, true, FAST, 0);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertEquals(-1, breaker.tryAcquire(MS));
+    }
+
+    @Test
+    public void does_not_open_before_minimum_calls() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(CONFIG);
+        call(breaker, true, FAST, 0);
+        call(breaker, true, FAST, 0);
+        call(breaker, true, FAST, 0);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void opens_on_slow_calls() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(CONFIG);
+        call(breaker, false, FAST, 0);
+        call(breaker, false, SLOW, 0);
+        call(breaker, false, FAST, 0);
+        call(breaker, false, SLOW, 0);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void half_open_after_open_duration() {
+        HostCircuitBreaker breaker = openBreaker(0);
+
+        assertEquals(-1, breaker.tryAcquire(4_999 * MS));
+        assertEquals(CircuitState.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire(5_000 * MS) >= 0);
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire(5_000 * MS) >= 0);
+        assertEquals("only the configured number of probes", -1, breaker.tryAcquire(5_000 * MS));
+    }
+
+    @Test
+    public void successful_probes_close() {
+        HostCircuitBreaker breaker = openBreaker(0);
+        long first  = breaker.tryAcquire(5_000 * MS);
+        long second = breaker.tryAcquire(5_000 * MS);
+
+        breaker.onResult(first, false, FAST, 5_010 * MS);
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+        breaker.onResult(second, false, FAST, 5_010 * MS);
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void failed_probes_open_again() {
+        HostCircuitBreaker breaker = openBreaker(0);
+        long first  = breaker.tryAcquire(5_000 * MS);
+        long second = breaker.tryAcquire(5_000 * MS);
+
+        breaker.onResult(first , true , FAST, 5_010 * MS);
+        breaker.onResult(second, false, FAST, 5_010 * MS);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        assertEquals(-1, breaker.tryAcquire(9_000 * MS));
+        assertTrue(breaker.tryAcquire(10_010 * MS) >= 0);
+    }
+
+    @Test
+    public void call_admitted_while_closed_is_not_a_probe() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(CONFIG);
+        long straggler = breaker.tryAcquire(0);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST, 0);
+        }
+        assertEquals(CircuitState.OPEN, breaker.getState());
+
+        long first  = breaker.tryAcquire(5_000 * MS);
+        long second = breaker.tryAcquire(5_000 * MS);
+
+        // finishes during HALF_OPEN, would close the circuit together with one probe
+        breaker.onResult(straggler, false, SLOW, 5_010 * MS);
+        breaker.onResult(first    , false, FAST, 5_010 * MS);
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(second, true, FAST, 5_020 * MS);
+        assertEquals(CircuitState.OPEN, breaker.getState());
+    }
+
+    private static HostCircuitBreaker openBreaker(long aNowNanos) {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(CONFIG);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST, aNowNanos);
+        }
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(HostCircuitBreaker aBreaker, boolean aFailure, long aDurationNanos, long aNowNanos) {
+        long generation = aBreaker.tryAcquire(aNowNanos);
+        assertTrue("call must be admitted", generation >= 0);
+        aBreaker.onResult(generation, aFailure, aDurationNanos, aNowNanos);
+    }
+}
@@ -0,0 +1,185 @@
+package com.payneteasy.http.client.decorators.hedging;
+
+import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.decorators.circuitbreaker.HttpCircuitOpenException;
+import com.payneteasy.http.client.decorators.limiter.HttpLimitExceededException;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class HttpClientHedgingDecoratorTest {
+
+    private static final HttpRequestParameters PARAMS   = HttpRequestParameters.builder().build();
+    private static final HttpRequest           REQUEST  = HttpRequest.builder().url("http://example.com/a").build();
+    private static final HttpRequest           POST     = HttpRequest.builder().method(HttpMethod.POST).url("http://example.com/a").body(new byte[]{1}).build();
+    private static final HttpResponse          RESPONSE = new HttpResponse(200, "OK", Collections.emptyList(), new byte[0]);
+
+    @Test
+    public void rejected_first_attempt_is_sent_from_the_caller_thread() throws Exception {
+        Thread                     caller   = Thread.currentThread();
+        LimitedExecutor            executor = new LimitedExecutor(0);
+        HttpClientHedgingDecorator client   = new HttpClientHedgingDecorator((aRequest, aParameters) -> {
+            assertSame(caller, Thread.currentThread());
+            return RESPONSE;
+        }, executor);
+
+        assertSame(RESPONSE, client.send(REQUEST, PARAMS));
+        assertEquals(1, client.getStatistics().getRejected());
+    }
+
+    @Test
+    public void rejected_hedge_waits_for_the_first_attempt() throws Exception {
+        AtomicInteger              calls    = new AtomicInteger();
+        LimitedExecutor            executor = new LimitedExecutor(Integer.MAX_VALUE);
+        HttpClientHedgingDecorator client   = new HttpClientHedgingDecorator((aRequest, aParameters) -> {
+            if(calls.incrementAndGet() > 64) {
+                sleep(100);
+            }
+            return RESPONSE;
+        }, executor);
+
+        // enough fast samples for the hedge percentile
+        for (int i = 0; i < 64; i++) {
+            client.send(REQUEST, PARAMS);
+        }
+
+        executor.allowed.set(1);
+        assertSame(RESPONSE, client.send(REQUEST, PARAMS));
+
+        HedgingStatistics statistics = client.getStatistics();
+        assertEquals(65, calls.get());
+        assertEquals(0 , statistics.getHedges());
+        assertEquals(1 , statistics.getRejected());
+    }
+
+    @Test
+    public void rejected_retry_rethrows_the_failure() {
+        HttpConnectException       failure  = new HttpConnectException("refused", null);
+        LimitedExecutor            executor = new LimitedExecutor(1);
+        HttpClientHedgingDecorator client   = new HttpClientHedgingDecorator((aRequest, aParameters) -> {
+            throw failure;
+        }, executor);
+
+        try {
+            client.send(REQUEST, PARAMS);
+            fail("HttpConnectException expected");
+        } catch (HttpConnectException e) {
+            assertSame(failure, e);
+        } catch (Exception e) {
+            throw new AssertionError("Unexpected " + e, e);
+        }
+
+        HedgingStatistics statistics = client.getStatistics();
+        assertEquals(0, statistics.getRetries());
+        assertEquals(1, statistics.getRejected());
+    }
+
+    @Test
+    public void post_with_read_timeout_is_not_retried() {
+        HttpConnectException failure = new HttpConnectException("Connection timed out", new SocketTimeoutException("timeout"));
+        CountingClient       delegate = new CountingClient(failure);
+
+        assertThrowsSame(failure, new HttpClientHedgingDecorator(delegate, Runnable::run), POST);
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    public void post_with_refused_connection_is_retried() {
+        HttpConnectException failure = new HttpConnectException("Cannot connect", new ConnectException("Connection refused"));
+        CountingClient       delegate = new CountingClient(failure);
+
+        HttpClientHedgingDecorator client = new HttpClientHedgingDecorator(delegate, Runnable::run);
+        assertThrowsSame(failure, client, POST);
+        assertEquals(3, delegate.calls.get());
+        assertEquals(2, client.getStatistics().getRetries());
+    }
+
+    @Test
+    public void shedding_failures_are_not_retried() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            HttpConnectException[] failures = { new HttpCircuitOpenException("example.com"), new HttpLimitExceededException("example.com", 4) };
+            for (HttpConnectException failure : failures) {
+                CountingClient hedged = new CountingClient(failure);
+                assertThrowsSame(failure, new HttpClientHedgingDecorator(hedged, executor), REQUEST);
+                assertEquals(1, hedged.calls.get());
+
+                CountingClient notHedged = new CountingClient(failure);
+                HedgingConfig  config    = HedgingConfig.builder().hedgingEnabled(false).build();
+                assertThrowsSame(failure, new HttpClientHedgingDecorator(notHedged, executor, config, new RetryBudget(0.1, 10)), REQUEST);
+                assertEquals(1, notHedged.calls.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertThrowsSame(Exception aExpected, IHttpClient aClient, HttpRequest aRequest) {
+        try {
+            aClient.send(aRequest, PARAMS);
+            fail(aExpected.getClass().getSimpleName() + " expected");
+        } catch (Exception e) {
+            assertSame(aExpected, e);
+        }
+    }
+
+    private static void sleep(long aMillis) {
+        try {
+            Thread.sleep(aMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class CountingClient implements IHttpClient {
+
+        private final AtomicInteger        calls = new AtomicInteger();
+        private final HttpConnectException failure;
+
+        private CountingClient(HttpConnectException aFailure) {
+            failure = aFailure;
+        }
+
+        @Override
+        public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException {
+            calls.incrementAndGet();
+            throw failure;
+        }
+    }
+
+    /**
+     * Runs the allowed number of tasks on new threads and rejects the rest
+     */
+    private static class LimitedExecutor implements Executor {
+
+        private final AtomicInteger allowed;
+
+        private LimitedExecutor(int aAllowed) {
+            allowed = new AtomicInteger(aAllowed);
+        }
+
+        @Override
+        public void execute(Runnable aTask) {
+            if(allowed.getAndDecrement() <= 0) {
+                throw new RejectedExecutionException("Limit reached");
+            }
+            new Thread(aTask).start();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AimdLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    public void dropped_call_decreases() {
+        AimdLimit limit = limit(20);
+        limit.onSample(FAST, 20, true);
+        assertEquals(10, limit.getLimit());
+        limit.onSample(FAST, 10, true);
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void slow_call_decreases() {
+        AimdLimit limit = limit(20);
+        limit.onSample(SLOW, 20, false);
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void decrease_stops_at_min() {
+        AimdLimit limit = limit(3);
+        limit.onSample(FAST, 3, true);
+        limit.onSample(FAST, 3, true);
+        limit.onSample(FAST, 3, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void additive_increase_when_the_limit_is_used() {
+        AimdLimit limit = limit(20);
+        limit.onSample(FAST, 10, false);
+        assertEquals(21, limit.getLimit());
+        limit.onSample(FAST, 21, false);
+        assertEquals(22, limit.getLimit());
+    }
+
+    @Test
+    public void no_increase_when_the_limit_is_not_used() {
+        AimdLimit limit = limit(20);
+        limit.onSample(FAST, 9, false);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void increase_stops_at_max() {
+        AimdLimit limit = limit(30);
+        limit.onSample(FAST, 30, false);
+        limit.onSample(FAST, 30, false);
+        assertEquals(30, limit.getLimit());
+    }
+
+    private static AimdLimit limit(int aInitialLimit) {
+        return new AimdLimit(aInitialLimit, 2, 30, 0.5, TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,64 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GradientLimitTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void grows_while_rtt_is_stable() {
+        GradientLimit limit = new GradientLimit(20, 1, 1_000);
+        samples(limit, 50, BASE_RTT);
+        assertTrue("limit " + limit.getLimit(), limit.getLimit() > 40);
+    }
+
+    @Test
+    public void shrinks_when_rtt_grows() {
+        GradientLimit limit = new GradientLimit(100, 1, 1_000);
+        samples(limit, 20, BASE_RTT);
+        int before = limit.getLimit();
+
+        samples(limit, 20, BASE_RTT * 10);
+        int after = limit.getLimit();
+        assertTrue("before " + before + ", after " + after, after < before / 2);
+    }
+
+    @Test
+    public void small_rtt_growth_is_tolerated() {
+        GradientLimit limit = new GradientLimit(100, 1, 1_000);
+        samples(limit, 20, BASE_RTT);
+        int before = limit.getLimit();
+
+        samples(limit, 20, BASE_RTT * 14 / 10);
+        assertTrue("before " + before + ", after " + limit.getLimit(), limit.getLimit() >= before);
+    }
+
+    @Test
+    public void dropped_call_decreases() {
+        GradientLimit limit = new GradientLimit(100, 1, 1_000);
+        limit.onSample(BASE_RTT, 100, false);
+        limit.onSample(BASE_RTT, 100, true);
+        assertEquals(90, limit.getLimit());
+    }
+
+    @Test
+    public void does_not_grow_when_the_limit_is_not_used() {
+        GradientLimit limit = new GradientLimit(100, 1, 1_000);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(BASE_RTT, 10, false);
+        }
+        assertEquals(100, limit.getLimit());
+    }
+
+    private static void samples(GradientLimit aLimit, int aCount, long aRttNanos) {
+        for (int i = 0; i < aCount; i++) {
+            aLimit.onSample(aRttNanos, aLimit.getLimit(), false);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.payneteasy.http.client.decorators.limiter;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HostLimitersTest {
+
+    private static final String URL  = "http://example.com/a";
+    private static final String HOST = "example.com";
+
+    @Test
+    public void waits_for_a_free_slot() throws Exception {
+        HostLimiters        limiters = new HostLimiters(config(1, 5_000));
+        HostLimiters.Permit first    = limiters.acquire(URL);
+
+        CompletableFuture<HostLimiters.Permit> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiters.acquire(URL);
+            } catch (HttpConnectException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(100);
+        assertFalse("no slot before the release", second.isDone());
+
+        first.release(first.elapsedNanos(), false);
+        second.get(5, TimeUnit.SECONDS).release(0, false);
+        assertEquals(0, limiters.getSnapshots().get(HOST).getInFlight());
+    }
+
+    @Test
+    public void fails_after_max_wait() throws Exception {
+        HostLimiters limiters = new HostLimiters(config(1, 100));
+        limiters.acquire(URL);
+
+        long startNanos = System.nanoTime();
+        try {
+            limiters.acquire(URL);
+            fail("limit must be exceeded");
+        } catch (HttpLimitExceededException e) {
+            assertEquals(HOST, e.getHost());
+            assertEquals(1, e.getLimit());
+        }
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, limiters.getSnapshots().get(HOST).getRejected());
+    }
+
+    @Test
+    public void zero_wait_rejects_immediately() throws Exception {
+        HostLimiters limiters = new HostLimiters(config(1, 0));
+        limiters.acquire(URL);
+        try {
+            limiters.acquire(URL);
+            fail("limit must be exceeded");
+        } catch (HttpLimitExceededException e) {
+            assertEquals(HOST, e.getHost());
+        }
+    }
+
+    @Test
+    public void throttled_responses_decrease_the_limit() throws Exception {
+        HostLimiters limiters = new HostLimiters(LimiterConfig.builder()
+                .algorithm ( () -> new AimdLimit(20, 1, 100, 0.5, TimeUnit.SECONDS.toNanos(5)) )
+                .build());
+
+        assertEquals(20, limit(limiters, 200));
+        assertEquals(10, limit(limiters, 429));
+        assertEquals(5 , limit(limiters, 503));
+        assertEquals(5 , limit(limiters, 500));
+    }
+
+    private static int limit(HostLimiters aLimiters, int aStatusCode) throws Exception {
+        HttpResponse               response = new HttpResponse(aStatusCode, "", Collections.emptyList(), new byte[0]);
+        HttpClientLimiterDecorator client   = new HttpClientLimiterDecorator((aRequest, aParameters) -> response, aLimiters);
+        client.send(HttpRequest.builder().url(URL).build(), HttpRequestParameters.builder().build());
+        return aLimiters.getSnapshots().get(HOST).getLimit();
+    }
+
+    private static LimiterConfig config(int aLimit, long aMaxWaitMs) {
+        return LimiterConfig.builder()
+                .algorithm ( () -> new FixedLimit(aLimit) )
+                .maxWaitMs ( aMaxWaitMs                   )
+                .build();
+    }
+
+    private static class FixedLimit implements ILimitAlgorithm {
+
+        private final int limit;
+
+        private FixedLimit(int aLimit) {
+            limit = aLimit;
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public void onSample(long aRttNanos, int aInFlight, boolean aDropped) {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.payneteasy.http.client.decorators.singleflight;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.IHttpClient;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientSingleFlightDecoratorTest {
+
+    private static final HttpRequestParameters PARAMS = HttpRequestParameters.builder().build();
+    private static final String                URL    = "http://example.com/a";
+
+    @Test
+    public void same_headers_share_one_call() throws Exception {
+        SingleFlightConfig config = SingleFlightConfig.builder().build();
+
+        HttpResponse[] responses = sendConcurrently(config
+                , request(new HttpHeader("Authorization", "Bearer a"))
+                , request(new HttpHeader("authorization", "Bearer a"))
+        );
+
+        assertSame(responses[0], responses[1]);
+    }
+
+    @Test
+    public void different_credentials_are_not_shared_by_default() throws Exception {
+        SingleFlightConfig config = SingleFlightConfig.builder().build();
+
+        assertNotShared(sendConcurrently(config
+                , request(new HttpHeader("Authorization", "Bearer a"))
+                , request(new HttpHeader("Authorization", "Bearer b"))
+        ));
+        assertNotShared(sendConcurrently(config
+                , request(new HttpHeader("Cookie", "session=a"))
+                , request(new HttpHeader("Cookie", "session=b"))
+        ));
+        assertNotShared(sendConcurrently(config
+                , request(new HttpHeader("Cookie", "session=a"))
+                , request()
+        ));
+    }
+
+    @Test
+    public void key_headers_narrow_the_key() throws Exception {
+        SingleFlightConfig config = SingleFlightConfig.builder().keyHeader("Authorization").build();
+
+        HttpResponse[] shared = sendConcurrently(config
+                , request(new HttpHeader("Authorization", "Bearer a"), new HttpHeader("X-Request-Id", "1"))
+                , request(new HttpHeader("Authorization", "Bearer a"), new HttpHeader("X-Request-Id", "2"))
+        );
+        assertSame(shared[0], shared[1]);
+
+        assertNotShared(sendConcurrently(config
+                , request(new HttpHeader("Authorization", "Bearer a"))
+                , request(new HttpHeader("Authorization", "Bearer b"))
+        ));
+    }
+
+    private static void assertNotShared(HttpResponse[] aResponses) {
+        assertNotSame(aResponses[0], aResponses[1]);
+    }
+
+    /**
+     * The first request blocks in the delegate until the second one has either joined it or reached the delegate
+     */
+    private static HttpResponse[] sendConcurrently(SingleFlightConfig aConfig, HttpRequest aFirst, HttpRequest aSecond) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger  calls   = new AtomicInteger();
+
+        IHttpClient delegate = (aRequest, aParameters) -> {
+            if(calls.incrementAndGet() == 1) {
+                awaitQuietly(release);
+            } else {
+                release.countDown();
+            }
+            return new HttpResponse(200, "OK", Collections.emptyList(), new byte[0]);
+        };
+
+        HttpClientSingleFlightDecorator client   = new HttpClientSingleFlightDecorator(delegate, aConfig);
+        ExecutorService                 executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HttpResponse> first = executor.submit(() -> client.send(aFirst, PARAMS));
+            while (client.getStatistics().getInFlight() == 0) {
+                Thread.sleep(1);
+            }
+
+            Future<HttpResponse> second = executor.submit(() -> client.send(aSecond, PARAMS));
+            while (client.getStatistics().getFollowers() == 0 && calls.get() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            HttpResponse[] responses = { first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS) };
+            assertTrue(calls.get() <= 2);
+            assertEquals(2, client.getStatistics().getLeaders() + client.getStatistics().getFollowers());
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch aLatch) {
+        try {
+            aLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpRequest request(HttpHeader... aHeaders) {
+        return HttpRequest.builder().url(URL).headers(new HttpHeaders(Arrays.asList(aHeaders))).build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs blocking calls on an executor.
+ *
+ * Each call runs entirely on one executor thread, so on java 8 LocalThreadProxyAuthenticator
+ * parameters set inside the call are visible to the JDK Authenticator. Virtual threads
+ * have their own thread locals, so a change of the carrier thread does not matter.
+ *
+ * A running call registers its connection with {@link #onConnected(HttpURLConnection)} once it is connected,
+ * cancelling the future disconnects it and the blocked read or write fails. A call cancelled before
+ * it is connected fails before sending the request.
+ */
+class AsyncCalls {
+
+    private static final ThreadLocal<RunningCall> CURRENT = new ThreadLocal<>();
+
+    interface IBlockingCall<T> {
+        T call() throws Exception;
+    }
+
+    static <T> CompletableFuture<T> submit(Executor aExecutor, IBlockingCall<T> aCall) {
+        CompletableFuture<T> future  = new CompletableFuture<>();
+        RunningCall          running = new RunningCall();
+        future.whenComplete((result, error) -> {
+            if(future.isCancelled()) {
+                running.cancel();
+            }
+        });
+
+        try {
+            aExecutor.execute(() -> {
+                if(future.isDone()) {
+                    return;
+                }
+                CURRENT.set(running);
+                try {
+                    future.complete(aCall.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    CURRENT.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new HttpConnectException("Executor rejected the call", e));
+        }
+        return future;
+    }
+
+    /**
+     * @return true on the thread of a call submitted here
+     */
+    static boolean isRunning() {
+        return CURRENT.get() != null;
+    }
+
+    static boolean isCancelled() {
+        RunningCall running = CURRENT.get();
+        return running != null && running.isCancelled();
+    }
+
+    /**
+     * Called on the thread of the call after HttpURLConnection.connect()
+     *
+     * @return false if the call was cancelled while connecting
+     */
+    static boolean onConnected(HttpURLConnection aConnection) {
+        RunningCall running = CURRENT.get();
+        return running == null || running.setConnection(aConnection);
+    }
+
+    private static class RunningCall {
+
+        private HttpURLConnection connection;
+        private boolean           cancelled;
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized boolean setConnection(HttpURLConnection aConnection) {
+            if(cancelled) {
+                return false;
+            }
+            connection = aConnection;
+            return true;
+        }
+
+        void cancel() {
+            HttpURLConnection current;
+            synchronized (this) {
+                cancelled = true;
+                current   = connection;
+            }
+            if(current != null) {
+                current.disconnect();
+            }
+        }
+    }
+}
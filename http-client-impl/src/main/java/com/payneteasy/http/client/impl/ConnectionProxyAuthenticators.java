@@ -0,0 +1,106 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.HttpProxyParameters;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.Authenticator;
+import java.net.HttpURLConnection;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Proxy credentials scoped to a connection instead of a thread.
+ *
+ * Plain http requests carry Proxy-Authorization from the first request. For https the
+ * CONNECT request is authenticated by an Authenticator set with HttpURLConnection.setAuthenticator()
+ * (java 9+, called through reflection). One Authenticator instance is kept per proxy parameters
+ * because the JDK caches credentials and keep-alive tunnels by the Authenticator, so only the first
+ * tunnel gets 407. Basic tunneling needs -Djdk.http.auth.tunneling.disabledSchemes= at JVM start.
+ *
+ * Java 8 has no per-connection Authenticator and falls back to {@link LocalThreadProxyAuthenticator}.
+ */
+final class ConnectionProxyAuthenticators {
+
+    private static final int    MAX_AUTHENTICATORS = 256;
+    private static final Method SET_AUTHENTICATOR  = findSetAuthenticator();
+
+    private static final ConcurrentMap<HttpProxyParameters, Authenticator> AUTHENTICATORS = new ConcurrentHashMap<>();
+
+    private ConnectionProxyAuthenticators() {
+    }
+
+    /**
+     * @return false on java 8, credentials should be passed with {@link LocalThreadProxyAuthenticator}
+     */
+    static boolean isPerConnection() {
+        return SET_AUTHENTICATOR != null;
+    }
+
+    static void configure(HttpURLConnection aConnection, URL aUrl, @Nullable HttpProxyParameters aParameters) {
+        if(aParameters == null || aParameters.getProxy() == null || aParameters.getProxyUsername() == null) {
+            return;
+        }
+
+        // inside an https tunnel the header would go to the target server
+        if(aParameters.getProxy().type() == Proxy.Type.HTTP && "http".equalsIgnoreCase(aUrl.getProtocol())) {
+            aConnection.setRequestProperty("Proxy-Authorization", basicCredentials(aParameters));
+        }
+
+        if(SET_AUTHENTICATOR != null) {
+            try {
+                SET_AUTHENTICATOR.invoke(aConnection, getAuthenticator(aParameters));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot set authenticator for " + aUrl, e);
+            }
+        }
+    }
+
+    private static Authenticator getAuthenticator(HttpProxyParameters aParameters) {
+        Authenticator authenticator = AUTHENTICATORS.get(aParameters);
+        if(authenticator != null) {
+            return authenticator;
+        }
+        if(AUTHENTICATORS.size() >= MAX_AUTHENTICATORS) {
+            AUTHENTICATORS.clear();
+        }
+        return AUTHENTICATORS.computeIfAbsent(aParameters, ProxyParametersAuthenticator::new);
+    }
+
+    private static String basicCredentials(HttpProxyParameters aParameters) {
+        String credentials = aParameters.getProxyUsername() + ":" + aParameters.getProxyPassword();
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Nullable
+    private static Method findSetAuthenticator() {
+        try {
+            return HttpURLConnection.class.getMethod("setAuthenticator", Authenticator.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class ProxyParametersAuthenticator extends Authenticator {
+
+        private final HttpProxyParameters parameters;
+
+        private ProxyParametersAuthenticator(HttpProxyParameters aParameters) {
+            parameters = aParameters;
+        }
+
+        @Override
+        protected PasswordAuthentication getPasswordAuthentication() {
+            if(getRequestorType() != RequestorType.PROXY) {
+                return null;
+            }
+            return new PasswordAuthentication(parameters.getProxyUsername(), parameters.getProxyPassword().toCharArray());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.IHttpClientEventListener;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reports the end of a streamed body or a read error
+ */
+class EventInputStream extends FilterInputStream {
+
+    private final HttpRequest              request;
+    private final IHttpClientEventListener events;
+    private       long                     length;
+    private       boolean                  reported;
+
+    EventInputStream(InputStream aInputStream, HttpRequest aRequest, IHttpClientEventListener aEvents) {
+        super(aInputStream);
+        request = aRequest;
+        events  = aEvents;
+    }
+
+    @Override
+    public int read() throws IOException {
+        try {
+            int b = super.read();
+            onRead(b < 0 ? -1 : 1);
+            return b;
+        } catch (IOException e) {
+            onError(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(byte[] aBuffer, int aOffset, int aLength) throws IOException {
+        try {
+            int count = super.read(aBuffer, aOffset, aLength);
+            onRead(count);
+            return count;
+        } catch (IOException e) {
+            onError(e);
+            throw e;
+        }
+    }
+
+    private void onRead(int aCount) {
+        if(aCount >= 0) {
+            length += aCount;
+        } else if(!reported) {
+            reported = true;
+            events.onResponseBodyComplete(request, length, System.nanoTime());
+        }
+    }
+
+    private void onError(IOException aError) {
+        if(!reported) {
+            reported = true;
+            events.onCallFailed(request, aError, System.nanoTime());
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.payneteasy.http.client.impl;
 
 import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.body.HttpRequestBodies;
+import com.payneteasy.http.client.api.buffer.HttpBufferPools;
+import com.payneteasy.http.client.api.buffer.HttpPooledBuffer;
+import com.payneteasy.http.client.api.buffer.HttpPooledResponse;
+import com.payneteasy.http.client.api.buffer.IHttpBufferPool;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import com.payneteasy.http.client.api.compression.HttpCompressions;
 import com.payneteasy.http.client.api.exceptions.HttpConnectException;
 import com.payneteasy.http.client.api.exceptions.HttpReadException;
 import com.payneteasy.http.client.api.exceptions.HttpWriteException;
 
+import javax.annotation.Nullable;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLHandshakeException;
 import java.io.IOException;
@@ -12,15 +21,46 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
-public class HttpClientImpl implements IHttpClient {
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class HttpClientImpl implements IHttpClient, IHttpAsyncClient, IHttpPooledClient, IHttpWarmUpClient, IHttpBatchClient {
 
     private static final Logger LOG = Logger.getLogger("http-client.HttpClientImpl");
 
+    private final Executor        executor;
+    private final IHttpBufferPool bufferPool;
+
+    /**
+     * Async calls run on a shared executor: virtual threads on JDK 21+ or cached daemon threads otherwise
+     */
+    public HttpClientImpl() {
+        this(null);
+    }
+
+    /**
+     * @param aExecutor executor for async calls, for example {@link HttpExecutors#newVirtualThreadPerTaskExecutor()}
+     */
+    public HttpClientImpl(Executor aExecutor) {
+        this(aExecutor, HttpBufferPools.getDefault());
+    }
+
+    /**
+     * @param aExecutor   executor for async calls or null for the shared one
+     * @param aBufferPool pool for reading bodies of unknown length and for {@link #sendPooled(HttpRequest, HttpRequestParameters)}
+     */
+    public HttpClientImpl(Executor aExecutor, IHttpBufferPool aBufferPool) {
+        executor   = aExecutor;
+        bufferPool = aBufferPool;
+    }
+
     /**
-     * Registers LocalThreadProxyAuthenticator
-     *
+     * Registers LocalThreadProxyAuthenticator.
+     * Needed only on java 8, java 9+ sets proxy credentials for each connection.
      */
     public static void registerGlobalProxyAuthenticator() {
         System.getProperties().put("jdk.http.auth.tunneling.disabledSchemes", ""); // see https://bugs.openjdk.java.net/browse/JDK-8210814
@@ -31,18 +71,34 @@ public class HttpClientImpl implements IHttpClient {
 
     @Override
     public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
-        HttpProxyParameters proxyParameters = aRequestParameters.getProxyParameters();
+        return execute(aRequest, aRequestParameters, this::parseResponse);
+    }
+
+    @Override
+    public HttpPooledResponse sendPooled(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        return execute(aRequest, aRequestParameters, this::parsePooledResponse);
+    }
+
+    private <T> T execute(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IResponseParser<T> aParser) throws HttpConnectException, HttpReadException, HttpWriteException {
+        IHttpClientEventListener events          = aRequestParameters.getEventListenerOrNoOp();
+        HttpProxyParameters      proxyParameters = ConnectionProxyAuthenticators.isPerConnection() ? null : aRequestParameters.getProxyParameters();
         if(proxyParameters != null) {
             LocalThreadProxyAuthenticator.setParameters(proxyParameters);
         }
         try {
+            events.onCallStart(aRequest, System.nanoTime());
+
             String            url        = aRequest.getUrl();
+            HttpRequest       request    = HttpCompressions.prepareRequest(aRequest, aRequestParameters.getCompression());
             HttpURLConnection connection = createConnection(url, aRequest.getMethod(), aRequestParameters);
 
-            sendHeaders(connection, aRequest.getHeaders());
-            sendBody(url, connection, aRequest.getBody());
+            sendHeaders(connection, request.getHeaders());
+            sendBody(url, connection, request, aRequestParameters);
 
-            return parseResponse(url, connection, aRequestParameters.getTimeouts());
+            return aParser.parse(aRequest, connection, aRequestParameters, events);
+        } catch (HttpConnectException | HttpReadException | HttpWriteException | RuntimeException e) {
+            events.onCallFailed(aRequest, e, System.nanoTime());
+            throw e;
         } finally {
             if(proxyParameters != null) {
                 LocalThreadProxyAuthenticator.clear();
@@ -50,20 +106,107 @@ public class HttpClientImpl implements IHttpClient {
         }
     }
 
-    private HttpResponse parseResponse(String aUrl, HttpURLConnection aConnection, HttpTimeouts aTimeouts) throws HttpReadException, HttpConnectException {
-        int              statusCode = waitForStatusCode(aUrl, aConnection, aTimeouts);
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        return AsyncCalls.submit(getExecutor(), () -> send(aRequest, aRequestParameters));
+    }
 
-        String reasonPhrase;
+    /**
+     * Each request runs on a task of the executor, so at most aParallelism threads of it are busy with the batch
+     */
+    @Override
+    public CompletableFuture<List<HttpBatchResult>> sendAll(List<HttpRequest> aRequests, HttpRequestParameters aRequestParameters, int aParallelism, IHttpBatchListener aListener) {
+        return HttpBatchScheduler.sendAll(aRequests, aParallelism, aListener, request -> sendAsync(request, aRequestParameters));
+    }
+
+    /**
+     * All connections are opened before any HEAD request is sent, so each request keeps its own connection
+     * and leaves it in the JDK keep-alive cache. The cache holds up to http.maxConnections (5 by default) per host.
+     * The executor needs aConnections free threads, the default one starts a thread per task.
+     */
+    @Override
+    public CompletableFuture<HttpWarmUpResult> warmUp(String aUrl, int aConnections, HttpRequestParameters aRequestParameters) {
+        HttpWarmUpRecorder     recorder  = new HttpWarmUpRecorder(aConnections);
+        CountDownLatch         connected = new CountDownLatch(aConnections);
+        CompletableFuture<?>[] futures   = new CompletableFuture<?>[aConnections];
+
+        for (int i = 0; i < aConnections; i++) {
+            futures[i] = AsyncCalls.submit(getExecutor(), () -> {
+                warmUpConnection(aUrl, aRequestParameters, connected, recorder);
+                return null;
+            }).whenComplete((result, error) -> {
+                if(error != null) {
+                    recorder.onFailed(error);
+                    connected.countDown();
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(futures).handle((result, error) -> recorder.toResult());
+    }
+
+    private void warmUpConnection(String aUrl, HttpRequestParameters aParameters, CountDownLatch aConnected, HttpWarmUpRecorder aRecorder) {
+        long              startNanos = System.nanoTime();
+        long              connectNanos;
+        HttpURLConnection connection;
         try {
-            reasonPhrase = aConnection.getResponseMessage();
-        } catch (IOException e) {
-            throw new HttpReadException("Cannot read reason phrase for url " + aUrl, e);
+            connection = createConnection(aUrl, HttpMethod.HEAD, aParameters);
+            connection.connect();
+            connectNanos = System.nanoTime() - startNanos;
+        } catch (HttpConnectException | IOException | RuntimeException e) {
+            aRecorder.onFailed(e);
+            return;
+        } finally {
+            aConnected.countDown();
+        }
+
+        try {
+            aConnected.await(aParameters.getTimeouts().getConnectTimeoutMs(), MILLISECONDS);
+            // a HEAD response has no body, so the connection goes back to the keep-alive cache at once
+            connection.getResponseCode();
+            aRecorder.onConnected(connectNanos);
+        } catch (IOException | RuntimeException e) {
+            aRecorder.onFailed(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aRecorder.onFailed(e);
         }
+    }
+
+    private Executor getExecutor() {
+        return executor != null ? executor : HttpExecutors.getDefaultExecutor();
+    }
+
+    private HttpResponse parseResponse(HttpRequest aRequest, HttpURLConnection aConnection, HttpRequestParameters aParameters, IHttpClientEventListener aEvents) throws HttpReadException, HttpConnectException {
+        String           url          = aRequest.getUrl();
+        int              statusCode   = waitForStatusCode(url, aConnection, aParameters.getTimeouts());
+        aEvents.onResponseHeaders(aRequest, statusCode, System.nanoTime());
+        String           reasonPhrase = readReasonPhrase(url, aConnection);
+        List<HttpHeader> headers      = SafeHttpURLConnection.readHttpHeaders(aConnection);
+        byte[]           body         = readMessageBody(url, statusCode, aConnection, headers, aParameters.getCompression());
+        aEvents.onResponseBodyComplete(aRequest, body.length, System.nanoTime());
+
+        return new HttpResponse(statusCode, reasonPhrase, HttpCompressions.decodeHeaders(headers, aParameters.getCompression()), body);
+    }
+
+    private HttpPooledResponse parsePooledResponse(HttpRequest aRequest, HttpURLConnection aConnection, HttpRequestParameters aParameters, IHttpClientEventListener aEvents) throws HttpReadException, HttpConnectException {
+        String           url          = aRequest.getUrl();
+        int              statusCode   = waitForStatusCode(url, aConnection, aParameters.getTimeouts());
+        aEvents.onResponseHeaders(aRequest, statusCode, System.nanoTime());
+        String           reasonPhrase = readReasonPhrase(url, aConnection);
+        List<HttpHeader> headers      = SafeHttpURLConnection.readHttpHeaders(aConnection);
+        HttpPooledBuffer body         = readPooledMessageBody(url, statusCode, aConnection, headers, aParameters.getCompression());
+        aEvents.onResponseBodyComplete(aRequest, body.getLength(), System.nanoTime());
 
-        List<HttpHeader> headers = readHeaders(aConnection);
-        byte[]           body    = readMessageBody(aUrl, statusCode, aConnection, headers);
+        return new HttpPooledResponse(statusCode, reasonPhrase, HttpCompressions.decodeHeaders(headers, aParameters.getCompression()), body);
+    }
 
-        return new HttpResponse(statusCode, reasonPhrase, headers, body);
+    private static String readReasonPhrase(String aUrl, HttpURLConnection aConnection) throws HttpReadException {
+        try {
+            return aConnection.getResponseMessage();
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot read reason phrase for url " + aUrl, e);
+        }
     }
 
     private int waitForStatusCode(String aUrl, HttpURLConnection aConnection, HttpTimeouts aTimeouts) throws HttpReadException, HttpConnectException {
@@ -81,33 +224,20 @@ public class HttpClientImpl implements IHttpClient {
         return statusCode;
     }
 
-    private byte[] readMessageBody(String aUrl, int aStatusCode, HttpURLConnection aConnection, List<HttpHeader> aHeaders) throws HttpReadException {
-        InputStream inputStream;
-        try {
-            inputStream = aStatusCode >= 400 ? aConnection.getErrorStream() : aConnection.getInputStream();
-        } catch (IOException e) {
-            throw new HttpReadException("Cannot create input stream for url " + aUrl, e);
-        }
-
+    private byte[] readMessageBody(String aUrl, int aStatusCode, HttpURLConnection aConnection, List<HttpHeader> aHeaders, @Nullable HttpCompression aCompression) throws HttpReadException {
+        InputStream inputStream = openMessageBody(aUrl, aStatusCode, aConnection, aHeaders);
         if(inputStream == null) {
             return new byte[0];
         }
-        
-        int length = aConnection.getContentLength();
-        if(length <= 0 ) {
-            HttpHeaderFinder headerFinder = new HttpHeaderFinder(aHeaders);
-            String transferEncoding = headerFinder.get("Transfer-Encoding");
-            if(transferEncoding == null) {
-                return new byte[0];
-            }
-            if(transferEncoding.contains("chunked")) {
-                try {
-                    return readAllBytes(inputStream);
-                } catch (IOException e) {
-                    throw new HttpReadException("Cannot read chunked body from " + aUrl, e);
-                }
-            }
 
+        inputStream = HttpCompressions.decode(inputStream, aHeaders, aCompression);
+        int length  = HttpCompressions.isDecoded(aHeaders, aCompression) ? -1 : aConnection.getContentLength();
+        if(length <= 0) {
+            try {
+                return readAllBytes(inputStream, bufferPool);
+            } catch (IOException e) {
+                throw new HttpReadException("Cannot read chunked body from " + aUrl, e);
+            }
         }
 
         try {
@@ -117,41 +247,62 @@ public class HttpClientImpl implements IHttpClient {
         }
     }
 
+    private HttpPooledBuffer readPooledMessageBody(String aUrl, int aStatusCode, HttpURLConnection aConnection, List<HttpHeader> aHeaders, @Nullable HttpCompression aCompression) throws HttpReadException {
+        InputStream inputStream = openMessageBody(aUrl, aStatusCode, aConnection, aHeaders);
+        if(inputStream == null) {
+            return HttpPooledBuffer.empty();
+        }
 
-    private List<HttpHeader> readHeaders(HttpURLConnection aConnection) {
-        Map<String, List<String>> headerFields = aConnection.getHeaderFields();
-        List<HttpHeader> headers = new ArrayList<>(headerFields.size());
+        inputStream = HttpCompressions.decode(inputStream, aHeaders, aCompression);
+        int length  = HttpCompressions.isDecoded(aHeaders, aCompression) ? -1 : aConnection.getContentLength();
+        try {
+            return HttpPooledBuffer.readFrom(inputStream, length > 0 ? length : -1, bufferPool);
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot read message body from " + aUrl, e);
+        }
+    }
 
-        for (Map.Entry<String, List<String>> entry : headerFields.entrySet()) {
-            if(entry == null) {
-                continue;
-            }
+    /**
+     * @return null if there is no body
+     */
+    private static InputStream openMessageBody(String aUrl, int aStatusCode, HttpURLConnection aConnection, List<HttpHeader> aHeaders) throws HttpReadException {
+        InputStream inputStream;
+        try {
+            inputStream = aStatusCode >= 400 ? aConnection.getErrorStream() : aConnection.getInputStream();
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot create input stream for url " + aUrl, e);
+        }
 
-            String       name   = entry.getKey();
-            if(name == null) {
-                continue;
-            }
+        if(inputStream == null) {
+            return null;
+        }
 
-            List<String> values = entry.getValue();
-            if (values == null) {
-                headers.add(new HttpHeader(name, ""));
-                continue;
-            }
+        if(aConnection.getContentLength() > 0) {
+            return inputStream;
+        }
+
+        String transferEncoding = HttpHeaders.of(aHeaders).get(HttpHeaderNames.TRANSFER_ENCODING);
+        return transferEncoding != null && transferEncoding.contains("chunked") ? inputStream : null;
+    }
 
-            for (String value : values) {
-                headers.add(new HttpHeader(name, value));
+
+    private void sendBody(String aUrl, HttpURLConnection aConnection, HttpRequest aRequest, HttpRequestParameters aParameters) throws HttpWriteException, HttpConnectException {
+        IHttpRequestBody body = HttpRequestBodies.of(aRequest);
+
+        if(body != null) {
+            if(aRequest.getRequestBody() != null) {
+                SafeHttpURLConnection.setStreamingMode(aConnection, body);
+            } else {
+                aConnection.setDoOutput(true);
             }
         }
 
-        return Collections.unmodifiableList(headers);
-    }
+        UrlConnectionEvents.connect(aUrl, aRequest, aConnection, aParameters);
 
-    private void sendBody(String aUrl, HttpURLConnection aConnection, byte[] aRequestBody) throws HttpWriteException, HttpConnectException {
-        if(aRequestBody == null || aRequestBody.length == 0) {
+        if(body == null) {
             return;
         }
 
-        aConnection.setDoOutput(true);
         OutputStream outputStream = null;
         try {
             outputStream = aConnection.getOutputStream();
@@ -162,10 +313,16 @@ public class HttpClientImpl implements IHttpClient {
         }
 
         try {
-            outputStream.write(aRequestBody);
+            body.writeTo(outputStream);
+            outputStream.close();
         } catch (IOException e) {
             throw new HttpWriteException("Cannot create write body to url " + aUrl, e);
         }
+
+        if(aRequest.getRequestBody() != null) {
+            // buffered bodies are sent later in getResponseCode
+            aParameters.getEventListenerOrNoOp().onRequestBodyWritten(aRequest, body.getContentLength(), System.nanoTime());
+        }
     }
 
     private void sendHeaders(HttpURLConnection aConnection, HttpHeaders aHeaders) {
@@ -174,7 +331,7 @@ public class HttpClientImpl implements IHttpClient {
         }
 
         for (HttpHeader header : aHeaders.asList()) {
-            aConnection.setRequestProperty(header.getName(), header.getValue());
+            aConnection.addRequestProperty(header.getName(), header.getValue());
         }
     }
 
@@ -194,6 +351,7 @@ public class HttpClientImpl implements IHttpClient {
         }
 
         configureSsl(connection, aParameters);
+        ConnectionProxyAuthenticators.configure(connection, url, aParameters.getProxyParameters());
 
         connection.setConnectTimeout(aParameters.getTimeouts().getConnectTimeoutMs());
         connection.setReadTimeout(aParameters.getTimeouts().getReadTimeoutMs());
@@ -255,28 +413,20 @@ public class HttpClientImpl implements IHttpClient {
     }
 
     public static byte[] readAllBytes(InputStream aInputStream) throws IOException {
-        List<byte[]> list   = new ArrayList<>();
-        byte[]       buffer = new byte[2048];
-        int          count;
-
-        while( (count = aInputStream.read(buffer)) >= 0) {
-            byte[] bytes = new byte[count];
-            System.arraycopy(buffer, 0, bytes, 0, count);
-            list.add(bytes);
-        }
+        return readAllBytes(aInputStream, HttpBufferPools.getDefault());
+    }
 
-        int size = 0;
-        for (byte[] bytes : list) {
-            size += bytes.length;
+    /**
+     * Reads into a growing pooled buffer and copies the bytes once into the result
+     */
+    public static byte[] readAllBytes(InputStream aInputStream, IHttpBufferPool aBufferPool) throws IOException {
+        try (HttpPooledBuffer buffer = HttpPooledBuffer.readFrom(aInputStream, -1, aBufferPool)) {
+            return buffer.toByteArray();
         }
+    }
 
-        byte[] output = new byte[size];
-        int position = 0;
-        for (byte[] bytes : list) {
-            System.arraycopy(bytes, 0, output, position, bytes.length);
-            position += bytes.length;
-        }
-        return output;
+    private interface IResponseParser<T> {
+        T parse(HttpRequest aRequest, HttpURLConnection aConnection, HttpRequestParameters aParameters, IHttpClientEventListener aEvents) throws HttpReadException, HttpConnectException;
     }
 
 
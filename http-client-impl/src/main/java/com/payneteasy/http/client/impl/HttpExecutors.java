@@ -0,0 +1,87 @@
+package com.payneteasy.http.client.impl;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Executors for the async mode of {@link HttpClientImpl} and {@link HttpStreamClientImpl}.
+ *
+ * Virtual threads are looked up by reflection, so the library still runs on java 8.
+ */
+public class HttpExecutors {
+
+    private static final Logger LOG = Logger.getLogger("http-client.HttpExecutors");
+
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * @return a new executor that starts a virtual thread for each task
+     * @throws IllegalStateException if the runtime does not support virtual threads (JDK 21+)
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            throw new IllegalStateException("Virtual threads are not supported by java " + System.getProperty("java.version"), e);
+        }
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return virtual thread executor on JDK 21+ or cached pool of daemon threads otherwise
+     */
+    public static ExecutorService newVirtualThreadOrCachedExecutor(String aThreadNamePrefix) {
+        if(isVirtualThreadSupported()) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        LOG.fine("Virtual threads are not supported, using cached thread pool");
+        return Executors.newCachedThreadPool(new DaemonThreadFactory(aThreadNamePrefix));
+    }
+
+    /**
+     * Shared executor used by clients created without an explicit executor
+     */
+    static ExecutorService getDefaultExecutor() {
+        ExecutorService executor = defaultExecutor;
+        if(executor == null) {
+            synchronized (HttpExecutors.class) {
+                executor = defaultExecutor;
+                if(executor == null) {
+                    executor = newVirtualThreadOrCachedExecutor("http-client-async-");
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String        prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String aPrefix) {
+            prefix = aPrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable aRunnable) {
+            Thread thread = new Thread(aRunnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,27 +1,25 @@
 package com.payneteasy.http.client.impl;
 
 import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * @deprecated use {@link HttpHeaders#get(String)}
+ */
+@Deprecated
 public class HttpHeaderFinder {
 
-    private final List<HttpHeader> headers;
+    private final HttpHeaders headers;
 
     public HttpHeaderFinder(List<HttpHeader> headers) {
-        this.headers = headers;
+        this.headers = HttpHeaders.of(headers);
     }
 
     public String get(String aHeaderName) {
-        String lowerName = aHeaderName.toLowerCase();
-        for (HttpHeader header : headers) {
-            String name = header.getName();
-            if(name.toLowerCase().equals(lowerName)) {
-                return header.getValue();
-            }
-        }
-        return null;
+        return headers.get(aHeaderName);
     }
 
     public Optional<String> getOpt(String aHeaderName) {
@@ -1,6 +1,10 @@
 package com.payneteasy.http.client.impl;
 
 import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.buffer.HttpBufferPools;
+import com.payneteasy.http.client.api.buffer.IHttpBufferPool;
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import com.payneteasy.http.client.api.compression.HttpCompressions;
 import com.payneteasy.http.client.api.exceptions.HttpConnectException;
 import com.payneteasy.http.client.api.exceptions.HttpReadException;
 import com.payneteasy.http.client.api.exceptions.HttpWriteException;
@@ -9,16 +13,54 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
-public class HttpStreamClientImpl implements IHttpStreamClient {
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public class HttpStreamClientImpl implements IHttpStreamClient, IHttpAsyncStreamClient, IHttpDownloadClient {
 
     private static final Logger LOG = Logger.getLogger("http-client.HttpClientImpl");
 
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final Executor        executor;
+    private final IHttpBufferPool bufferPool;
+
+    /**
+     * Async calls run on a shared executor: virtual threads on JDK 21+ or cached daemon threads otherwise
+     */
+    public HttpStreamClientImpl() {
+        this(null);
+    }
+
     /**
-     * Registers LocalThreadProxyAuthenticator
-     *
+     * @param aExecutor executor for async calls, for example {@link HttpExecutors#newVirtualThreadPerTaskExecutor()}
+     */
+    public HttpStreamClientImpl(Executor aExecutor) {
+        this(aExecutor, HttpBufferPools.getDefault());
+    }
+
+    /**
+     * @param aExecutor   executor for async calls or null for the shared one
+     * @param aBufferPool pool of read buffers passed to listeners
+     */
+    public HttpStreamClientImpl(Executor aExecutor, IHttpBufferPool aBufferPool) {
+        executor   = aExecutor;
+        bufferPool = aBufferPool;
+    }
+
+    /**
+     * Registers LocalThreadProxyAuthenticator.
+     * Needed only on java 8, java 9+ sets proxy credentials for each connection.
      */
     public static void registerGlobalProxyAuthenticator() {
         System.getProperties().put("jdk.http.auth.tunneling.disabledSchemes", ""); // see https://bugs.openjdk.java.net/browse/JDK-8210814
@@ -29,17 +71,24 @@ public class HttpStreamClientImpl implements IHttpStreamClient {
 
     @Override
     public void send(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpConnectException, HttpReadException, HttpWriteException {
-        HttpProxyParameters proxyParameters = configureProxyParameters(aRequestParameters);
+        IHttpClientEventListener events          = aRequestParameters.getEventListenerOrNoOp();
+        HttpProxyParameters      proxyParameters = configureProxyParameters(aRequestParameters);
         try {
-            String url = aRequest.getUrl();
+            events.onCallStart(aRequest, System.nanoTime());
+
+            String      url     = aRequest.getUrl();
+            HttpRequest request = HttpCompressions.prepareRequest(aRequest, aRequestParameters.getCompression());
             SafeHttpURLConnection connection = new SafeHttpURLConnection(
                     createConnection(url, aRequest.getMethod(), aRequestParameters)
             );
 
-            connection.sendHeaders(aRequest.getHeaders());
-            connection.sendBody(url, aRequest.getBody());
+            connection.sendHeaders(request.getHeaders());
+            connection.sendBody(url, request, aRequestParameters);
 
-            parseListenerResponse(aListener, url, connection, aRequestParameters.getTimeouts());
+            parseListenerResponse(aListener, aRequest, connection, aRequestParameters, events);
+        } catch (HttpConnectException | HttpReadException | HttpWriteException | RuntimeException e) {
+            events.onCallFailed(aRequest, e, System.nanoTime());
+            throw e;
         } finally {
             clearProxyParameters(proxyParameters);
         }
@@ -53,7 +102,7 @@ public class HttpStreamClientImpl implements IHttpStreamClient {
 
     @Nullable
     private static HttpProxyParameters configureProxyParameters(HttpRequestParameters aRequestParameters) {
-        HttpProxyParameters proxyParameters = aRequestParameters.getProxyParameters();
+        HttpProxyParameters proxyParameters = ConnectionProxyAuthenticators.isPerConnection() ? null : aRequestParameters.getProxyParameters();
         if(proxyParameters != null) {
             LocalThreadProxyAuthenticator.setParameters(proxyParameters);
         }
@@ -62,52 +111,126 @@ public class HttpStreamClientImpl implements IHttpStreamClient {
 
     @Override
     public IHttpStreamResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
-        HttpProxyParameters proxyParameters = configureProxyParameters(aRequestParameters);
+        IHttpClientEventListener events          = aRequestParameters.getEventListenerOrNoOp();
+        HttpProxyParameters      proxyParameters = configureProxyParameters(aRequestParameters);
         try {
+            events.onCallStart(aRequest, System.nanoTime());
+
             String                url        = aRequest.getUrl();
+            HttpRequest           request    = HttpCompressions.prepareRequest(aRequest, aRequestParameters.getCompression());
             SafeHttpURLConnection connection = new SafeHttpURLConnection(createConnection(url, aRequest.getMethod(), aRequestParameters));
 
-            connection.sendHeaders(aRequest.getHeaders());
-            connection.sendBody(url, aRequest.getBody());
+            connection.sendHeaders(request.getHeaders());
+            connection.sendBody(url, request, aRequestParameters);
 
-            return parseListenerResponse(url, connection, aRequestParameters.getTimeouts());
+            return parseListenerResponse(aRequest, connection, aRequestParameters, aRequestParameters.getEventListener());
+        } catch (HttpConnectException | HttpReadException | HttpWriteException | RuntimeException e) {
+            events.onCallFailed(aRequest, e, System.nanoTime());
+            throw e;
         } finally {
             clearProxyParameters(proxyParameters);
         }
     }
 
-    private void parseListenerResponse(IHttpStreamResponseListener aListener, String aUrl, SafeHttpURLConnection aConnection, HttpTimeouts aTimeouts) throws HttpReadException, HttpConnectException {
-        int    statusCode   = aConnection.waitForStatusCode(aUrl, aTimeouts);
-        String reasonPhrase = aConnection.readReasonPhrase(aUrl);
+    @Override
+    public CompletableFuture<Void> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) {
+        return AsyncCalls.submit(getExecutor(), () -> {
+            send(aRequest, aRequestParameters, aListener);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<IHttpStreamResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        return AsyncCalls.submit(getExecutor(), () -> send(aRequest, aRequestParameters));
+    }
+
+    @Override
+    public HttpDownloadResponse download(HttpRequest aRequest, HttpRequestParameters aRequestParameters, Path aTarget) throws HttpConnectException, HttpReadException, HttpWriteException {
+        String url = aRequest.getUrl();
+        try (IHttpStreamResponse response = send(aRequest, aRequestParameters)) {
+            long length = transferTo(url, response.getInputStream(), aTarget);
+            return new HttpDownloadResponse(
+                    response.getStatusCode()
+                    , response.getReasonPhrase()
+                    , response.getHeaders()
+                    , aTarget
+                    , length
+            );
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot read message body from " + url, e);
+        }
+    }
+
+    /**
+     * FileChannel reads the socket stream straight into the file without collecting the body in memory
+     */
+    private static long transferTo(String aUrl, InputStream aInputStream, Path aTarget) throws HttpReadException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(aTarget, CREATE, WRITE, TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot open file " + aTarget + " to download " + aUrl, e);
+        }
+
+        try (FileChannel out = file; ReadableByteChannel in = Channels.newChannel(aInputStream)) {
+            long position = 0;
+            long count;
+            while ((count = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += count;
+            }
+            return position;
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot download " + aUrl + " to " + aTarget, e);
+        }
+    }
+
+    private Executor getExecutor() {
+        return executor != null ? executor : HttpExecutors.getDefaultExecutor();
+    }
+
+    private void parseListenerResponse(IHttpStreamResponseListener aListener, HttpRequest aRequest, SafeHttpURLConnection aConnection, HttpRequestParameters aParameters, IHttpClientEventListener aEvents) throws HttpReadException, HttpConnectException {
+        String url          = aRequest.getUrl();
+        int    statusCode   = aConnection.waitForStatusCode(url, aParameters.getTimeouts());
+        aEvents.onResponseHeaders(aRequest, statusCode, System.nanoTime());
+        String reasonPhrase = aConnection.readReasonPhrase(url);
 
         aListener.onStatus(statusCode, reasonPhrase);
 
         List<HttpHeader> headers = aConnection.readHeaders();
-        aListener.onHeaders(headers);
+        aListener.onHeaders(HttpCompressions.decodeHeaders(headers, aParameters.getCompression()));
 
-        readMessageBody(aListener, aUrl, statusCode, aConnection, headers);
+        long length = readMessageBody(aListener, url, statusCode, aConnection, headers, aParameters.getCompression());
+        aEvents.onResponseBodyComplete(aRequest, length, System.nanoTime());
     }
 
-    private IHttpStreamResponse parseListenerResponse(String aUrl, SafeHttpURLConnection aConnection, HttpTimeouts aTimeouts) throws HttpReadException, HttpConnectException {
-        int              statusCode   = aConnection.waitForStatusCode(aUrl, aTimeouts);
-        String           reasonPhrase = aConnection.readReasonPhrase(aUrl);
+    /**
+     * @param aEvents null if there is no event listener
+     */
+    private IHttpStreamResponse parseListenerResponse(HttpRequest aRequest, SafeHttpURLConnection aConnection, HttpRequestParameters aParameters, @Nullable IHttpClientEventListener aEvents) throws HttpReadException, HttpConnectException {
+        String           url          = aRequest.getUrl();
+        int              statusCode   = aConnection.waitForStatusCode(url, aParameters.getTimeouts());
+        if(aEvents != null) {
+            aEvents.onResponseHeaders(aRequest, statusCode, System.nanoTime());
+        }
+        String           reasonPhrase = aConnection.readReasonPhrase(url);
         List<HttpHeader> headers      = aConnection.readHeaders();
-        InputStream      inputStream  = aConnection.getInputStream(aUrl, statusCode, headers);
+        InputStream      inputStream  = HttpCompressions.decode(aConnection.getInputStream(url, statusCode, headers), headers, aParameters.getCompression());
 
         return new HttpStreamResponseImpl(
                 statusCode
                 , reasonPhrase
-                , headers
-                , inputStream
+                , HttpCompressions.decodeHeaders(headers, aParameters.getCompression())
+                , aEvents != null ? new EventInputStream(inputStream, aRequest, aEvents) : inputStream
                 , aConnection
         );
     }
 
-    private void readMessageBody(IHttpStreamResponseListener aListener, String aUrl, int aStatusCode, SafeHttpURLConnection aConnection, List<HttpHeader> aHeaders) throws HttpReadException {
-        InputStream inputStream = aConnection.getInputStream(aUrl, aStatusCode, aHeaders);
+    private long readMessageBody(IHttpStreamResponseListener aListener, String aUrl, int aStatusCode, SafeHttpURLConnection aConnection, List<HttpHeader> aHeaders, @Nullable HttpCompression aCompression) throws HttpReadException {
+        InputStream inputStream = HttpCompressions.decode(aConnection.getInputStream(aUrl, aStatusCode, aHeaders), aHeaders, aCompression);
 
         try {
-            readAllBytes(aListener, inputStream);
+            return readAllBytes(aListener, inputStream, bufferPool);
         } catch (IOException e) {
             throw new HttpReadException("Cannot read message body from " + aUrl, e);
         }
@@ -128,6 +251,8 @@ public class HttpStreamClientImpl implements IHttpStreamClient {
             throw new HttpConnectException("Cannot open connection to " + aUrl, e);
         }
 
+        ConnectionProxyAuthenticators.configure(connection, url, aParameters.getProxyParameters());
+
         connection.setConnectTimeout(aParameters.getTimeouts().getConnectTimeoutMs());
         connection.setReadTimeout(aParameters.getTimeouts().getReadTimeoutMs());
 
@@ -151,11 +276,24 @@ public class HttpStreamClientImpl implements IHttpStreamClient {
     }
 
     public static void readAllBytes(IHttpStreamResponseListener aListener, InputStream aInputStream) throws IOException {
-        byte[]       buffer = new byte[4096];
-        int          count;
+        readAllBytes(aListener, aInputStream, HttpBufferPools.getDefault());
+    }
 
-        while( (count = aInputStream.read(buffer)) >= 0) {
-            aListener.onBytes(buffer, 0, count);
+    /**
+     * @return number of bytes passed to the listener
+     */
+    public static long readAllBytes(IHttpStreamResponseListener aListener, InputStream aInputStream, IHttpBufferPool aBufferPool) throws IOException {
+        byte[] buffer = aBufferPool.acquire(4096);
+        long   total  = 0;
+        try {
+            int count;
+            while( (count = aInputStream.read(buffer)) >= 0) {
+                aListener.onBytes(buffer, 0, count);
+                total += count;
+            }
+            return total;
+        } finally {
+            aBufferPool.release(buffer);
         }
     }
 
@@ -5,6 +5,11 @@ import com.payneteasy.http.client.api.HttpProxyParameters;
 import java.net.Authenticator;
 import java.net.PasswordAuthentication;
 
+/**
+ * Proxy credentials are bound to the thread that executes the request.
+ * Async calls set and clear them on the executor thread that runs the call,
+ * virtual threads keep their own thread locals across carrier threads.
+ */
 public class LocalThreadProxyAuthenticator extends Authenticator {
 
     private static final ThreadLocal<HttpProxyParameters> THREAD_LOCAL_PARAMETERS = new ThreadLocal<>();
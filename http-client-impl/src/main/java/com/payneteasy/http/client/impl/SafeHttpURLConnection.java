@@ -1,8 +1,14 @@
 package com.payneteasy.http.client.impl;
 
 import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaderNames;
 import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpHeadersBuilder;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
 import com.payneteasy.http.client.api.HttpTimeouts;
+import com.payneteasy.http.client.api.body.HttpRequestBodies;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
 import com.payneteasy.http.client.api.exceptions.HttpConnectException;
 import com.payneteasy.http.client.api.exceptions.HttpReadException;
 import com.payneteasy.http.client.api.exceptions.HttpWriteException;
@@ -15,10 +21,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 
 public class SafeHttpURLConnection {
@@ -37,7 +40,7 @@ public class SafeHttpURLConnection {
         }
 
         for (HttpHeader header : aHeaders.asList()) {
-            aConnection.setRequestProperty(header.getName(), header.getValue());
+            aConnection.addRequestProperty(header.getName(), header.getValue());
         }
     }
 
@@ -61,6 +64,57 @@ public class SafeHttpURLConnection {
         }
     }
 
+    public void sendBody(String aUrl, HttpRequest aRequest, HttpRequestParameters aParameters) throws HttpWriteException, HttpConnectException {
+        IHttpRequestBody body = HttpRequestBodies.of(aRequest);
+
+        if(body != null) {
+            if(aRequest.getRequestBody() != null) {
+                setStreamingMode(aConnection, body);
+            } else {
+                aConnection.setDoOutput(true);
+            }
+        }
+
+        UrlConnectionEvents.connect(aUrl, aRequest, aConnection, aParameters);
+
+        if(body == null) {
+            return;
+        }
+
+        OutputStream outputStream;
+        try {
+            outputStream = aConnection.getOutputStream();
+        } catch (IOException e) {
+            throw new HttpWriteException("Cannot create output stream for url " + aUrl, e);
+        }
+
+        try {
+            body.writeTo(outputStream);
+            outputStream.close();
+        } catch (IOException e) {
+            throw new HttpWriteException("Cannot create write body to url " + aUrl, e);
+        }
+
+        if(aRequest.getRequestBody() != null) {
+            // buffered bodies are sent later in getResponseCode
+            aParameters.getEventListenerOrNoOp().onRequestBodyWritten(aRequest, body.getContentLength(), System.nanoTime());
+        }
+    }
+
+    /**
+     * Streams the body to the socket instead of buffering it in memory.
+     * In streaming mode HttpURLConnection cannot resend the body on auth or redirect responses.
+     */
+    static void setStreamingMode(HttpURLConnection aConnection, IHttpRequestBody aBody) {
+        aConnection.setDoOutput(true);
+        long length = aBody.getContentLength();
+        if(length >= 0) {
+            aConnection.setFixedLengthStreamingMode(length);
+        } else {
+            aConnection.setChunkedStreamingMode(0);
+        }
+    }
+
 
     public int waitForStatusCode(String aUrl, HttpTimeouts aTimeouts) throws HttpReadException, HttpConnectException {
         LOG.fine(String.format("Waiting for response code for %s with timeouts %s ...", aUrl, aTimeouts.toString()));
@@ -86,32 +140,34 @@ public class SafeHttpURLConnection {
     }
 
 
+    /**
+     * @return headers in the received order, the list is an {@link HttpHeaders}
+     */
     public List<HttpHeader> readHeaders() {
-        Map<String, List<String>> headerFields = aConnection.getHeaderFields();
-        List<HttpHeader>          headers      = new ArrayList<>(headerFields.size());
-
-        for (Map.Entry<String, List<String>> entry : headerFields.entrySet()) {
-            if(entry == null) {
-                continue;
-            }
+        return readHttpHeaders(aConnection);
+    }
 
-            String       name   = entry.getKey();
-            if(name == null) {
-                continue;
-            }
+    public HttpHeaders readHttpHeaders() {
+        return readHttpHeaders(aConnection);
+    }
 
-            List<String> values = entry.getValue();
-            if (values == null) {
-                headers.add(new HttpHeader(name, ""));
-                continue;
+    /**
+     * Reads headers by index, unlike getHeaderFields() it keeps the received order of repeated headers
+     */
+    static HttpHeaders readHttpHeaders(HttpURLConnection aUrlConnection) {
+        HttpHeadersBuilder headers = new HttpHeadersBuilder(16);
+        for (int i = 0; ; i++) {
+            String value = aUrlConnection.getHeaderField(i);
+            if(value == null) {
+                return headers.build();
             }
 
-            for (String value : values) {
-                headers.add(new HttpHeader(name, value));
+            // the status line has no name
+            String name = aUrlConnection.getHeaderFieldKey(i);
+            if(name != null) {
+                headers.add(name, value);
             }
         }
-
-        return Collections.unmodifiableList(headers);
     }
 
     @Nonnull
@@ -138,8 +194,7 @@ public class SafeHttpURLConnection {
             return true;
         }
 
-        HttpHeaderFinder headerFinder = new HttpHeaderFinder(aHeaders);
-        String transferEncoding       = headerFinder.get("Transfer-Encoding");
+        String transferEncoding = HttpHeaders.of(aHeaders).get(HttpHeaderNames.TRANSFER_ENCODING);
 
         if(transferEncoding == null) {
             return false;
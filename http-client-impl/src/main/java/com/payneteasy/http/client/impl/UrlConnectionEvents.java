@@ -0,0 +1,53 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.IHttpClientEventListener;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * HttpURLConnection connects implicitly in getOutputStream or getResponseCode.
+ * With an event listener it is connected explicitly to observe the connect phase,
+ * an async call is connected explicitly so that cancelling it can disconnect the socket.
+ */
+class UrlConnectionEvents {
+
+    /**
+     * Must be called after the streaming mode is set and before getOutputStream
+     */
+    static void connect(String aUrl, HttpRequest aRequest, HttpURLConnection aConnection, HttpRequestParameters aParameters) throws HttpConnectException {
+        IHttpClientEventListener listener = aParameters.getEventListener();
+        boolean                  async    = AsyncCalls.isRunning();
+        if(listener == null && !async) {
+            return;
+        }
+
+        if(async && AsyncCalls.isCancelled()) {
+            throw new HttpConnectException("Call to " + aUrl + " is cancelled", null);
+        }
+
+        if(listener != null) {
+            listener.onConnectStart(aRequest, System.nanoTime());
+        }
+        try {
+            aConnection.connect();
+        } catch (SSLHandshakeException e) {
+            throw new HttpConnectException("Bad ssl certificate at " + aUrl, e);
+        } catch (IOException e) {
+            throw new HttpConnectException("Cannot connect to " + aUrl, e);
+        }
+        if(listener != null) {
+            listener.onConnectEnd(aRequest, System.nanoTime());
+        }
+
+        // disconnect() does nothing while connecting, so a cancel during connect is seen only here
+        if(async && !AsyncCalls.onConnected(aConnection)) {
+            aConnection.disconnect();
+            throw new HttpConnectException("Call to " + aUrl + " is cancelled", null);
+        }
+    }
+}
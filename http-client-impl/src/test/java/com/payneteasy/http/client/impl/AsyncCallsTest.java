@@ -0,0 +1,123 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.HttpBatchResult;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.HttpTimeouts;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import org.junit.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncCallsTest {
+
+    @Test
+    public void error_completes_the_future() throws Exception {
+        StackOverflowError error = new StackOverflowError();
+
+        CompletableFuture<Object> future = AsyncCalls.submit(Runnable::run, () -> {
+            throw error;
+        });
+
+        assertSame(error, causeOf(future));
+    }
+
+    @Test
+    public void rejected_call_fails_with_connect_exception() throws Exception {
+        CompletableFuture<Object> future = AsyncCalls.submit(aTask -> {
+            throw new RejectedExecutionException("Queue is full");
+        }, () -> null);
+
+        Throwable cause = causeOf(future);
+        assertTrue(cause.toString(), cause instanceof HttpConnectException);
+        assertTrue(cause.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void cancel_while_connecting() throws Exception {
+        assertCancelStopsCall(0);
+    }
+
+    @Test
+    public void cancel_while_reading() throws Exception {
+        assertCancelStopsCall(300);
+    }
+
+    @Test
+    public void cancel_batch_stops_running_call_and_skips_the_rest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0)) {
+            HttpClientImpl        client     = new HttpClientImpl(executor);
+            HttpRequestParameters parameters = HttpRequestParameters.builder().timeouts(new HttpTimeouts(5_000, 30_000)).build();
+            HttpRequest           request    = HttpRequest.builder().url("http://127.0.0.1:" + server.getLocalPort() + "/").build();
+
+            CompletableFuture<List<HttpBatchResult>> batch = client.sendAll(Arrays.asList(request, request, request), parameters, 1);
+
+            try (Socket ignored = server.accept()) {
+                batch.cancel(true);
+
+                CountDownLatch finished = new CountDownLatch(1);
+                executor.execute(finished::countDown);
+                assertTrue("call is still blocked after cancel", finished.await(5, TimeUnit.SECONDS));
+            }
+
+            server.setSoTimeout(300);
+            try (Socket next = server.accept()) {
+                fail("Requests after cancel must be skipped, got a connection from " + next);
+            } catch (SocketTimeoutException e) {
+                // nothing connected
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertCancelStopsCall(long aCancelDelayMs) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0)) {
+            HttpClientImpl        client     = new HttpClientImpl(executor);
+            HttpRequestParameters parameters = HttpRequestParameters.builder().timeouts(new HttpTimeouts(5_000, 30_000)).build();
+            HttpRequest           request    = HttpRequest.builder().url("http://127.0.0.1:" + server.getLocalPort() + "/").build();
+
+            CompletableFuture<HttpResponse> future = client.sendAsync(request, parameters);
+
+            // the server never answers, the call blocks reading the status line
+            try (Socket ignored = server.accept()) {
+                Thread.sleep(aCancelDelayMs);
+                future.cancel(true);
+
+                CountDownLatch finished = new CountDownLatch(1);
+                executor.execute(finished::countDown);
+                assertTrue("call is still blocked after cancel", finished.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> aFuture) throws Exception {
+        try {
+            aFuture.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("Exception expected");
+        return null;
+    }
+}
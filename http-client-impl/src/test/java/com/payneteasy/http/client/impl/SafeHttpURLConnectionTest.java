@@ -0,0 +1,70 @@
+package com.payneteasy.http.client.impl;
+
+import com.payneteasy.http.client.api.HttpHeaders;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class SafeHttpURLConnectionTest {
+
+    @Test
+    public void read_headers_skips_status_line() throws Exception {
+        HttpHeaders headers = SafeHttpURLConnection.readHttpHeaders(new StubConnection(
+                null          , "HTTP/1.1 200 OK"
+                , "Set-Cookie", "a=1"
+                , "Date"      , "Mon, 01 Jan 2024 00:00:00 GMT"
+                , "Set-Cookie", "b=2"
+        ));
+
+        assertEquals(3, headers.size());
+        assertEquals("Set-Cookie", headers.get(0).getName());
+        assertEquals("Date"      , headers.get(1).getName());
+        assertEquals(Arrays.asList("a=1", "b=2"), headers.getAll("set-cookie"));
+    }
+
+    @Test
+    public void read_headers_without_headers() throws Exception {
+        assertEquals(0, SafeHttpURLConnection.readHttpHeaders(new StubConnection(null, "HTTP/1.0 204 No Content")).size());
+        assertEquals(0, SafeHttpURLConnection.readHttpHeaders(new StubConnection()).size());
+    }
+
+    /**
+     * Headers by index as sun.net.www.protocol.http.HttpURLConnection returns them, the status line has a null key
+     */
+    private static class StubConnection extends HttpURLConnection {
+
+        private final String[] namesAndValues;
+
+        private StubConnection(String... aNamesAndValues) throws Exception {
+            super(new URL("http://example.com/"));
+            namesAndValues = aNamesAndValues;
+        }
+
+        @Override
+        public String getHeaderFieldKey(int aIndex) {
+            return aIndex * 2 < namesAndValues.length ? namesAndValues[aIndex * 2] : null;
+        }
+
+        @Override
+        public String getHeaderField(int aIndex) {
+            return aIndex * 2 < namesAndValues.length ? namesAndValues[aIndex * 2 + 1] : null;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public void connect() {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.payneteasy.http.client.integrationtest;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.impl.HttpClientImpl;
+import com.payneteasy.http.client.impl.HttpExecutors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.*;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.payneteasy.http.client.api.HttpMethod.GET;
+
+/**
+ * Sends 10k concurrent requests to a local server that answers after a delay
+ * and compares peak thread count and throughput for virtual and platform threads.
+ */
+@Ignore("Manual benchmark, run with -Dtest=VirtualThreadBenchmarkTest on JDK 21+")
+public class VirtualThreadBenchmarkTest {
+
+    private static final int REQUESTS        = 10_000;
+    private static final int PLATFORM_POOL   = 200;
+    private static final int RESPONSE_DELAY  = 1_000;
+
+    private static final HttpRequestParameters PARAMS = HttpRequestParameters.builder()
+            .timeouts(new HttpTimeouts(10_000, 60_000))
+            .build();
+
+    private HttpServer               server;
+    private ScheduledExecutorService delayer;
+    private String                   url;
+
+    @Before
+    public void startServer() throws Exception {
+        System.setProperty("http.maxConnections", "20000");
+        delayer = Executors.newScheduledThreadPool(4);
+        server  = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 20_000);
+        server.createContext("/slow", exchange -> delayer.schedule(() -> respond(exchange), RESPONSE_DELAY, TimeUnit.MILLISECONDS));
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        delayer.shutdownNow();
+    }
+
+    @Test
+    public void virtual_threads() throws Exception {
+        Assume.assumeTrue("JDK 21+ is required", HttpExecutors.isVirtualThreadSupported());
+        run("virtual threads", HttpExecutors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Test
+    public void platform_threads() throws Exception {
+        run("platform pool " + PLATFORM_POOL, Executors.newFixedThreadPool(PLATFORM_POOL));
+    }
+
+    private void run(String aName, ExecutorService aExecutor) throws Exception {
+        IHttpAsyncClient client  = new HttpClientImpl(aExecutor);
+        HttpRequest      request = HttpRequest.builder().method(GET).url(url).build();
+
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        long started = System.nanoTime();
+
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(client.sendAsync(request, PARAMS));
+        }
+
+        int ok = 0;
+        for (CompletableFuture<HttpResponse> future : futures) {
+            if (future.get().getStatusCode() == 200) {
+                ok++;
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        aExecutor.shutdown();
+
+        System.out.printf("%-20s requests=%d ok=%d elapsed=%d ms throughput=%.0f req/s peakThreads=%d%n"
+                , aName, REQUESTS, ok, elapsedMs, REQUESTS * 1000.0 / elapsedMs
+                , ManagementFactory.getThreadMXBean().getPeakThreadCount());
+
+        Assert.assertEquals(REQUESTS, ok);
+    }
+
+    private static void respond(HttpExchange aExchange) {
+        try {
+            byte[] body = "ok".getBytes();
+            aExchange.sendResponseHeaders(200, body.length);
+            aExchange.getResponseBody().write(body);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            aExchange.close();
+        }
+    }
+}
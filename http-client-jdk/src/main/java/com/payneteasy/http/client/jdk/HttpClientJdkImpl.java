@@ -0,0 +1,105 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.payneteasy.http.client.jdk.JdkHttpClients.NO_REASON_PHRASE;
+
+/**
+ * IHttpClient on java.net.http.HttpClient.
+ *
+ * HTTP/2 is negotiated with ALPN for https and requests to the same host share one connection.
+ */
+public class HttpClientJdkImpl implements IHttpClient, IHttpAsyncClient {
+
+    private static final int DEFAULT_MAX_CACHED_CLIENTS = 32;
+
+    private final JdkHttpClients clients;
+
+    public HttpClientJdkImpl() {
+        this(HttpClient.Version.HTTP_2, null);
+    }
+
+    /**
+     * @param aVersion  preferred protocol version
+     * @param aExecutor executor for async tasks, null for the java.net.http default
+     */
+    public HttpClientJdkImpl(HttpClient.Version aVersion, Executor aExecutor) {
+        this(aVersion, aExecutor, DEFAULT_MAX_CACHED_CLIENTS);
+    }
+
+    /**
+     * @param aMaxCachedClients max number of clients built for distinct connect timeouts, proxy and ssl parameters
+     */
+    public HttpClientJdkImpl(HttpClient.Version aVersion, Executor aExecutor, int aMaxCachedClients) {
+        clients = new JdkHttpClients(aVersion, aExecutor, aMaxCachedClients);
+    }
+
+    public JdkHttpClientCacheStatistics getClientCacheStatistics() {
+        return clients.getStatistics();
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        java.net.http.HttpRequest request    = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        HttpClient                client     = clients.getClient(aRequestParameters);
+        long                      startTimeMs = System.currentTimeMillis();
+
+        java.net.http.HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            JdkHttpClients.throwException(JdkHttpClients.convertException(e, aRequest.getUrl(), startTimeMs));
+            return null;
+        }
+        return createResponse(response);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        java.net.http.HttpRequest request;
+        try {
+            request = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        } catch (HttpConnectException e) {
+            CompletableFuture<HttpResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        HttpClient client      = clients.getClient(aRequestParameters);
+        long       startTimeMs = System.currentTimeMillis();
+
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        CompletableFuture<java.net.http.HttpResponse<byte[]>> call = client.sendAsync(request, BodyHandlers.ofByteArray());
+        call.whenComplete((response, error) -> {
+            if(error != null) {
+                future.completeExceptionally(JdkHttpClients.convertException(error, aRequest.getUrl(), startTimeMs));
+            } else {
+                future.complete(createResponse(response));
+            }
+        });
+        future.whenComplete((response, error) -> {
+            if(future.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private static HttpResponse createResponse(java.net.http.HttpResponse<byte[]> aResponse) {
+        byte[] body = aResponse.body();
+        return new HttpResponse(
+                aResponse.statusCode()
+                , NO_REASON_PHRASE
+                , JdkHttpClients.convertHeaders(aResponse.headers())
+                , body != null ? body : new byte[0]
+        );
+    }
+}
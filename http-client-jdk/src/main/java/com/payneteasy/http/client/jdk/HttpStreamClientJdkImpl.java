@@ -0,0 +1,169 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.payneteasy.http.client.jdk.JdkHttpClients.NO_REASON_PHRASE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * IHttpStreamClient on java.net.http.HttpClient.
+ *
+ * Body chunks go straight from the HttpClient to the listener, the body is never buffered.
+ */
+public class HttpStreamClientJdkImpl implements IHttpStreamClient, IHttpAsyncStreamClient, IHttpDownloadClient {
+
+    private static final int DEFAULT_MAX_CACHED_CLIENTS = 32;
+
+    private final JdkHttpClients clients;
+
+    public HttpStreamClientJdkImpl() {
+        this(HttpClient.Version.HTTP_2, null);
+    }
+
+    /**
+     * @param aVersion  preferred protocol version
+     * @param aExecutor executor for async tasks and listener callbacks, null for the java.net.http default
+     */
+    public HttpStreamClientJdkImpl(HttpClient.Version aVersion, Executor aExecutor) {
+        this(aVersion, aExecutor, DEFAULT_MAX_CACHED_CLIENTS);
+    }
+
+    /**
+     * @param aMaxCachedClients max number of clients built for distinct connect timeouts, proxy and ssl parameters
+     */
+    public HttpStreamClientJdkImpl(HttpClient.Version aVersion, Executor aExecutor, int aMaxCachedClients) {
+        clients = new JdkHttpClients(aVersion, aExecutor, aMaxCachedClients);
+    }
+
+    public JdkHttpClientCacheStatistics getClientCacheStatistics() {
+        return clients.getStatistics();
+    }
+
+    @Override
+    public void send(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpConnectException, HttpReadException, HttpWriteException {
+        java.net.http.HttpRequest request     = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        HttpClient                client      = clients.getClient(aRequestParameters);
+        long                      startTimeMs = System.currentTimeMillis();
+
+        try {
+            client.send(request, listenerHandler(aListener));
+        } catch (Exception e) {
+            JdkHttpClients.throwException(JdkHttpClients.convertException(e, aRequest.getUrl(), startTimeMs));
+        }
+    }
+
+    @Override
+    public IHttpStreamResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        java.net.http.HttpRequest request     = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        HttpClient                client      = clients.getClient(aRequestParameters);
+        long                      startTimeMs = System.currentTimeMillis();
+
+        try {
+            return createStreamResponse(client.send(request, BodyHandlers.ofInputStream()));
+        } catch (Exception e) {
+            JdkHttpClients.throwException(JdkHttpClients.convertException(e, aRequest.getUrl(), startTimeMs));
+            return null;
+        }
+    }
+
+    /**
+     * HttpClient writes body buffers straight into the file channel
+     */
+    @Override
+    public HttpDownloadResponse download(HttpRequest aRequest, HttpRequestParameters aRequestParameters, Path aTarget) throws HttpConnectException, HttpReadException, HttpWriteException {
+        java.net.http.HttpRequest request     = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        HttpClient                client      = clients.getClient(aRequestParameters);
+        long                      startTimeMs = System.currentTimeMillis();
+
+        java.net.http.HttpResponse<Path> response;
+        try {
+            response = client.send(request, BodyHandlers.ofFile(aTarget, CREATE, WRITE, TRUNCATE_EXISTING));
+        } catch (Exception e) {
+            JdkHttpClients.throwException(JdkHttpClients.convertException(e, aRequest.getUrl(), startTimeMs));
+            return null;
+        }
+
+        long length;
+        try {
+            length = Files.size(response.body());
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot get size of " + aTarget, e);
+        }
+
+        return new HttpDownloadResponse(
+                response.statusCode()
+                , NO_REASON_PHRASE
+                , JdkHttpClients.convertHeaders(response.headers())
+                , response.body()
+                , length
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) {
+        return sendAsync(aRequest, aRequestParameters, listenerHandler(aListener))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public CompletableFuture<IHttpStreamResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        return sendAsync(aRequest, aRequestParameters, BodyHandlers.ofInputStream())
+                .thenApply(HttpStreamClientJdkImpl::createStreamResponse);
+    }
+
+    private <T> CompletableFuture<java.net.http.HttpResponse<T>> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, BodyHandler<T> aHandler) {
+        CompletableFuture<java.net.http.HttpResponse<T>> future = new CompletableFuture<>();
+
+        java.net.http.HttpRequest request;
+        try {
+            request = JdkHttpClients.createRequest(aRequest, aRequestParameters);
+        } catch (HttpConnectException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        long startTimeMs = System.currentTimeMillis();
+        clients.getClient(aRequestParameters)
+                .sendAsync(request, aHandler)
+                .whenComplete((response, error) -> {
+                    if(error != null) {
+                        future.completeExceptionally(JdkHttpClients.convertException(error, aRequest.getUrl(), startTimeMs));
+                    } else {
+                        future.complete(response);
+                    }
+                });
+        return future;
+    }
+
+    private static BodyHandler<Void> listenerHandler(IHttpStreamResponseListener aListener) {
+        return responseInfo -> {
+            aListener.onStatus(responseInfo.statusCode(), NO_REASON_PHRASE);
+            aListener.onHeaders(JdkHttpClients.convertHeaders(responseInfo.headers()));
+            return BodySubscribers.fromSubscriber(new ListenerBodySubscriber(aListener));
+        };
+    }
+
+    private static IHttpStreamResponse createStreamResponse(java.net.http.HttpResponse<InputStream> aResponse) {
+        return new HttpStreamResponseJdkImpl(
+                aResponse.statusCode()
+                , JdkHttpClients.convertHeaders(aResponse.headers())
+                , aResponse.body()
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.IHttpStreamResponse;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public class HttpStreamResponseJdkImpl implements IHttpStreamResponse {
+
+    private final int              statusCode;
+    private final List<HttpHeader> headers;
+    private final InputStream      inputStream;
+
+    public HttpStreamResponseJdkImpl(int statusCode, List<HttpHeader> headers, InputStream inputStream) {
+        this.statusCode  = statusCode;
+        this.headers     = headers;
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    @Nonnull
+    public String getReasonPhrase() {
+        return JdkHttpClients.NO_REASON_PHRASE;
+    }
+
+    @Override
+    @Nonnull
+    public List<HttpHeader> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nonnull
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Closing the stream releases the connection (or HTTP/2 stream) back to the client
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,20 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.HttpProxyParameters;
+import lombok.Data;
+
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Parameters that can be set only on java.net.http.HttpClient, not on a request
+ */
+@Data
+class JdkClientKey {
+
+    private final int                 connectTimeoutMs;
+    private final HttpProxyParameters proxyParameters;
+    private final X509TrustManager    trustManager;
+    private final SSLSocketFactory    sslSocketFactory;
+
+}
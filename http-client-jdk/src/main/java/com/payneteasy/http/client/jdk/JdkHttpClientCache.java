@@ -0,0 +1,51 @@
+package com.payneteasy.http.client.jdk;
+
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * LRU cache of java.net.http.HttpClient instances.
+ *
+ * An evicted client has no shutdown, requests in flight complete and its selector thread
+ * and connections go away once it is no longer referenced.
+ */
+class JdkHttpClientCache {
+
+    private final Map<JdkClientKey, HttpClient> clients;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    JdkHttpClientCache(int aMaxSize) {
+        clients = new LinkedHashMap<JdkClientKey, HttpClient>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<JdkClientKey, HttpClient> aEldest) {
+                if(size() > aMaxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized HttpClient get(JdkClientKey aKey, Function<JdkClientKey, HttpClient> aFactory) {
+        HttpClient client = clients.get(aKey);
+        if(client != null) {
+            hits++;
+            return client;
+        }
+
+        misses++;
+        client = aFactory.apply(aKey);
+        clients.put(aKey, client);
+        return client;
+    }
+
+    synchronized JdkHttpClientCacheStatistics getStatistics() {
+        return new JdkHttpClientCacheStatistics(hits, misses, evictions, clients.size());
+    }
+}
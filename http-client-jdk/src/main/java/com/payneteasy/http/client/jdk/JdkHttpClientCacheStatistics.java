@@ -0,0 +1,13 @@
+package com.payneteasy.http.client.jdk;
+
+import lombok.Data;
+
+@Data
+public class JdkHttpClientCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int  size;
+
+}
@@ -0,0 +1,256 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import com.payneteasy.http.client.api.HttpProxyParameters;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.body.HttpRequestBodies;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.tls.HttpTlsSocketFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.TrustManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.*;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpTimeoutException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * Creates and caches java.net.http.HttpClient instances.
+ *
+ * Each HttpClient owns a selector thread and a connection pool (HTTP/2 connections are
+ * multiplexed), so clients are shared between requests with the same connect timeout,
+ * proxy and trust manager. The number of distinct clients is bounded by an LRU cache.
+ */
+class JdkHttpClients {
+
+    private static final Logger LOG = Logger.getLogger("http-client.JdkHttpClients");
+
+    /**
+     * HTTP/2 has no reason phrase and java.net.http does not expose it for HTTP/1.1
+     */
+    static final String NO_REASON_PHRASE = "";
+
+    /**
+     * Managed by java.net.http.HttpClient itself, setting them throws IllegalArgumentException
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"
+    ));
+
+    private final HttpClient.Version version;
+    private final Executor           executor;
+    private final JdkHttpClientCache clientCache;
+
+    JdkHttpClients(HttpClient.Version aVersion, Executor aExecutor, int aMaxCachedClients) {
+        version     = aVersion;
+        executor    = aExecutor;
+        clientCache = new JdkHttpClientCache(aMaxCachedClients);
+    }
+
+    JdkHttpClientCacheStatistics getStatistics() {
+        return clientCache.getStatistics();
+    }
+
+    HttpClient getClient(HttpRequestParameters aParameters) {
+        if(aParameters.getHostnameVerifier() != null) {
+            throw new IllegalStateException("java.net.http.HttpClient does not support custom HostnameVerifier");
+        }
+
+        if(aParameters.getSslSocketFactory() != null && aParameters.getTrustManager() == null) {
+            throw new IllegalStateException("java.net.http.HttpClient needs SSLContext, set X509TrustManager instead of SSLSocketFactory");
+        }
+
+        JdkClientKey key = new JdkClientKey(
+                aParameters.getTimeouts().getConnectTimeoutMs()
+                , aParameters.getProxyParameters()
+                , aParameters.getTrustManager()
+                , aParameters.getSslSocketFactory()
+        );
+        return clientCache.get(key, this::createClient);
+    }
+
+    private HttpClient createClient(JdkClientKey aKey) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version        ( version                                        )
+                .followRedirects( HttpClient.Redirect.NORMAL                     )
+                .connectTimeout ( Duration.ofMillis(aKey.getConnectTimeoutMs())  );
+
+        if(executor != null) {
+            builder.executor(executor);
+        }
+
+        if(aKey.getTrustManager() != null) {
+            builder.sslContext(createSslContext(aKey));
+        }
+
+        HttpProxyParameters proxyParameters = aKey.getProxyParameters();
+        if(proxyParameters != null && proxyParameters.getProxy() != null) {
+            Proxy proxy = proxyParameters.getProxy();
+            if(proxy.type() != Proxy.Type.HTTP) {
+                throw new IllegalStateException("java.net.http.HttpClient supports only HTTP proxies but was " + proxy);
+            }
+            builder.proxy(ProxySelector.of((InetSocketAddress) proxy.address()));
+
+            if(proxyParameters.getProxyUsername() != null) {
+                builder.authenticator(new ProxyAuthenticator(proxyParameters));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * The SSLContext of {@link HttpTlsSocketFactory} is shared, so its session cache is shared with other engines
+     */
+    private static SSLContext createSslContext(JdkClientKey aKey) {
+        if(aKey.getSslSocketFactory() instanceof HttpTlsSocketFactory) {
+            return ((HttpTlsSocketFactory) aKey.getSslSocketFactory()).getSslContext();
+        }
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[]{aKey.getTrustManager()}, null);
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create SSLContext", e);
+        }
+    }
+
+    static java.net.http.HttpRequest createRequest(HttpRequest aRequest, HttpRequestParameters aParameters) throws HttpConnectException {
+        URI uri;
+        try {
+            uri = new URI(aRequest.getUrl());
+        } catch (URISyntaxException e) {
+            throw new HttpConnectException("Cannot parse url: " + aRequest.getUrl(), e);
+        }
+
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(aParameters.getTimeouts().getReadTimeoutMs()));
+
+        if(aRequest.getHeaders() != null) {
+            for (HttpHeader header : aRequest.getHeaders().asList()) {
+                if(RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                    LOG.fine("Skipping restricted header " + header.getName());
+                    continue;
+                }
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+
+        builder.method(aRequest.getMethod().name(), createBodyPublisher(aRequest));
+
+        return builder.build();
+    }
+
+    private static BodyPublisher createBodyPublisher(HttpRequest aRequest) {
+        IHttpRequestBody body = HttpRequestBodies.of(aRequest);
+        if(body == null || body.getContentLength() == 0) {
+            return BodyPublishers.noBody();
+        }
+
+        if(aRequest.getRequestBody() == null) {
+            return BodyPublishers.ofByteArray(aRequest.getBody());
+        }
+
+        BodyPublisher publisher = BodyPublishers.ofInputStream(() -> {
+            try {
+                return body.openStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open request body", e);
+            }
+        });
+
+        long length = body.getContentLength();
+        return length > 0 ? BodyPublishers.fromPublisher(publisher, length) : publisher;
+    }
+
+    static List<HttpHeader> convertHeaders(java.net.http.HttpHeaders aHeaders) {
+        List<HttpHeader> headers = new ArrayList<>(aHeaders.map().size());
+        for (Map.Entry<String, List<String>> entry : aHeaders.map().entrySet()) {
+            // HTTP/2 pseudo headers
+            if(entry.getKey().startsWith(":")) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                headers.add(new HttpHeader(entry.getKey(), value));
+            }
+        }
+        return new HttpHeaders(headers);
+    }
+
+    /**
+     * @return HttpConnectException or HttpReadException
+     */
+    static Exception convertException(Throwable aError, String aUrl, long aStartTimeMs) {
+        Throwable e = aError instanceof CompletionException && aError.getCause() != null ? aError.getCause() : aError;
+
+        if(e instanceof HttpConnectException || e instanceof HttpReadException) {
+            return (Exception) e;
+        }
+
+        if(e instanceof SSLHandshakeException) {
+            return new HttpConnectException("Bad ssl certificate at " + aUrl, e);
+        }
+
+        if(e instanceof HttpConnectTimeoutException) {
+            return new HttpConnectException("Connection timed out to " + aUrl + " within " + (System.currentTimeMillis() - aStartTimeMs) + " ms", e);
+        }
+
+        if(e instanceof ConnectException) {
+            return new HttpConnectException("Cannot connect to " + aUrl + " within " + (System.currentTimeMillis() - aStartTimeMs) + " ms", e);
+        }
+
+        if(e instanceof HttpTimeoutException) {
+            return new HttpReadException("Read timed out from " + aUrl + " within " + (System.currentTimeMillis() - aStartTimeMs) + " ms", e);
+        }
+
+        if(e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new HttpReadException("Interrupted while reading from " + aUrl, e);
+        }
+
+        if(e instanceof IOException) {
+            return new HttpReadException("Cannot read from " + aUrl, e);
+        }
+
+        return new HttpReadException("Unexpected error for " + aUrl, e);
+    }
+
+    static void throwException(Exception aException) throws HttpConnectException, HttpReadException {
+        if(aException instanceof HttpConnectException) {
+            throw (HttpConnectException) aException;
+        }
+        throw (HttpReadException) aException;
+    }
+
+    private static class ProxyAuthenticator extends Authenticator {
+
+        private final HttpProxyParameters parameters;
+
+        private ProxyAuthenticator(HttpProxyParameters aParameters) {
+            parameters = aParameters;
+        }
+
+        @Override
+        protected PasswordAuthentication getPasswordAuthentication() {
+            if(getRequestorType() != RequestorType.PROXY) {
+                return null;
+            }
+            return new PasswordAuthentication(parameters.getProxyUsername(), parameters.getProxyPassword().toCharArray());
+        }
+    }
+}
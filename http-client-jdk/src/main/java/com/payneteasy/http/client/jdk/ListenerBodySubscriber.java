@@ -0,0 +1,52 @@
+package com.payneteasy.http.client.jdk;
+
+import com.payneteasy.http.client.api.IHttpStreamResponseListener;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * Passes body chunks to the listener as they arrive without collecting the body
+ */
+class ListenerBodySubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+    private final IHttpStreamResponseListener listener;
+    private final byte[]                      chunk = new byte[8192];
+
+    ListenerBodySubscriber(IHttpStreamResponseListener aListener) {
+        listener = aListener;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription aSubscription) {
+        aSubscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> aBuffers) {
+        for (ByteBuffer buffer : aBuffers) {
+            if(buffer.hasArray()) {
+                listener.onBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                continue;
+            }
+
+            // read only or direct buffers
+            while (buffer.hasRemaining()) {
+                int count = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, count);
+                listener.onBytes(chunk, 0, count);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable aError) {
+        // reported by the response future
+    }
+
+    @Override
+    public void onComplete() {
+        // reported by the response future
+    }
+}
@@ -0,0 +1,72 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects the whole body for IHttpClient
+ */
+class BufferedResponseSink implements INioResponseSink {
+
+    /** Content-Length is trusted up to this size, longer bodies grow the buffer as bytes arrive */
+    private static final int MAX_PREALLOCATED = 64 * 1024;
+
+    private final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+
+    private int              statusCode;
+    private String           reasonPhrase;
+    private List<HttpHeader> headers;
+    private byte[]           body = new byte[0];
+    private int              length;
+
+    CompletableFuture<HttpResponse> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onStatus(int aStatusCode, String aReasonPhrase) {
+        statusCode   = aStatusCode;
+        reasonPhrase = aReasonPhrase;
+    }
+
+    @Override
+    public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+        headers = aHeaders;
+        if(aBodyLength > 0) {
+            body = new byte[(int) Math.min(aBodyLength, MAX_PREALLOCATED)];
+        }
+    }
+
+    @Override
+    public void onBytes(byte[] aBytes, int aOffset, int aCount) {
+        if(length + aCount > body.length) {
+            body = Arrays.copyOf(body, Math.max(length + aCount, body.length * 2));
+        }
+        System.arraycopy(aBytes, aOffset, body, length, aCount);
+        length += aCount;
+    }
+
+    @Override
+    public void onComplete() {
+        future.complete(new HttpResponse(
+                statusCode
+                , reasonPhrase
+                , headers
+                , length == body.length ? body : Arrays.copyOf(body, length)
+        ));
+    }
+
+    @Override
+    public void onError(Exception aError) {
+        future.completeExceptionally(aError);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+}
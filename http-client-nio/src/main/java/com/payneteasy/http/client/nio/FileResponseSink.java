@@ -0,0 +1,104 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpDownloadResponse;
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the body into a file channel on the event loop thread
+ */
+class FileResponseSink implements INioResponseSink {
+
+    private static final Logger LOG = Logger.getLogger(FileResponseSink.class.getName());
+
+    private final CompletableFuture<HttpDownloadResponse> future = new CompletableFuture<>();
+
+    private final String      url;
+    private final Path        path;
+    private final FileChannel file;
+
+    private int              statusCode;
+    private String           reasonPhrase;
+    private List<HttpHeader> headers;
+    private long             length;
+
+    FileResponseSink(String aUrl, Path aPath, FileChannel aFile) {
+        url  = aUrl;
+        path = aPath;
+        file = aFile;
+        future.whenComplete((response, error) -> {
+            if(future.isCancelled()) {
+                closeFile();
+            }
+        });
+    }
+
+    CompletableFuture<HttpDownloadResponse> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onStatus(int aStatusCode, String aReasonPhrase) {
+        statusCode   = aStatusCode;
+        reasonPhrase = aReasonPhrase;
+    }
+
+    @Override
+    public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+        headers = aHeaders;
+    }
+
+    @Override
+    public void onBytes(byte[] aBytes, int aOffset, int aCount) {
+        if(future.isDone()) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(aBytes, aOffset, aCount);
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            length += aCount;
+        } catch (IOException e) {
+            closeFile();
+            future.completeExceptionally(new HttpReadException("Cannot download " + url + " to " + path, e));
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        closeFile();
+        future.complete(new HttpDownloadResponse(statusCode, reasonPhrase, headers, path, length));
+    }
+
+    @Override
+    public void onError(Exception aError) {
+        closeFile();
+        future.completeExceptionally(aError);
+    }
+
+    /**
+     * A failed write also stops the exchange
+     */
+    @Override
+    public boolean isCancelled() {
+        return future.isCompletedExceptionally();
+    }
+
+    private void closeFile() {
+        try {
+            file.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cannot close " + path, e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * IHttpClient on non blocking sockets.
+ *
+ * Futures complete on an event loop thread, do not block in their callbacks.
+ * Proxies are not supported.
+ */
+public class HttpClientNioImpl implements IHttpClient, IHttpAsyncClient {
+
+    private final NioHttpEngine engine;
+
+    public HttpClientNioImpl() {
+        this(NioHttpEngine.getDefault());
+    }
+
+    public HttpClientNioImpl(NioHttpEngine aEngine) {
+        engine = aEngine;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        return NioHttpEngine.await(sendAsync(aRequest, aRequestParameters), aRequest.getUrl());
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        BufferedResponseSink sink = new BufferedResponseSink();
+        engine.submit(aRequest, aRequestParameters, sink);
+        return sink.getFuture();
+    }
+}
@@ -0,0 +1,307 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental HTTP/1.1 response parser.
+ *
+ * Bytes are fed as they come from the socket, body chunks are passed to the listener
+ * without collecting the body.
+ */
+class HttpResponseParser {
+
+    private enum State {
+          STATUS_LINE
+        , HEADERS
+        , BODY_FIXED
+        , CHUNK_SIZE
+        , CHUNK_DATA
+        , CHUNK_DATA_END
+        , TRAILERS
+        , BODY_UNTIL_CLOSE
+        , DONE
+    }
+
+    private static final int INITIAL_LINE_LENGTH = 256;
+
+    private final IHttpResponseParserListener listener;
+    private final boolean                     headRequest;
+    private final int                         maxLineLength;
+    private       byte[]                      line;
+
+    private State            state = State.STATUS_LINE;
+    private int              lineLength;
+    private boolean          lineReady;
+    private boolean          started;
+    private int              statusCode;
+    private String           reasonPhrase;
+    private boolean          http10;
+    private List<HttpHeader> headers = new ArrayList<>();
+    private long             contentLength = -1;
+    private boolean          chunked;
+    private boolean          keepAlive = true;
+    private String           connectionHeader;
+    private long             remaining;
+
+    HttpResponseParser(IHttpResponseParserListener aListener, boolean aHeadRequest, int aMaxLineLength) {
+        listener      = aListener;
+        headRequest   = aHeadRequest;
+        maxLineLength = aMaxLineLength;
+        // grows up to the max length only for long lines
+        line          = new byte[Math.min(INITIAL_LINE_LENGTH, aMaxLineLength)];
+    }
+
+    /**
+     * Consumes bytes until the buffer is empty or the message is complete
+     */
+    void feed(ByteBuffer aBuffer) throws IOException {
+        if(aBuffer.hasRemaining()) {
+            started = true;
+        }
+
+        while (aBuffer.hasRemaining() && state != State.DONE) {
+            switch (state) {
+                case STATUS_LINE:
+                    if(readLine(aBuffer) && lineLength > 0) {
+                        parseStatusLine();
+                        state = State.HEADERS;
+                    }
+                    break;
+
+                case HEADERS:
+                    if(readLine(aBuffer)) {
+                        if(lineLength == 0) {
+                            onHeadersEnd();
+                        } else {
+                            parseHeader();
+                        }
+                    }
+                    break;
+
+                case BODY_FIXED:
+                    remaining -= deliver(aBuffer, remaining);
+                    if(remaining == 0) {
+                        state = State.DONE;
+                    }
+                    break;
+
+                case CHUNK_SIZE:
+                    if(readLine(aBuffer)) {
+                        remaining = parseChunkSize();
+                        state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+                    }
+                    break;
+
+                case CHUNK_DATA:
+                    remaining -= deliver(aBuffer, remaining);
+                    if(remaining == 0) {
+                        state = State.CHUNK_DATA_END;
+                    }
+                    break;
+
+                case CHUNK_DATA_END:
+                    if(readLine(aBuffer)) {
+                        if(lineLength != 0) {
+                            throw new IOException("Expected CRLF after chunk data");
+                        }
+                        state = State.CHUNK_SIZE;
+                    }
+                    break;
+
+                case TRAILERS:
+                    // trailers are ignored
+                    if(readLine(aBuffer) && lineLength == 0) {
+                        state = State.DONE;
+                    }
+                    break;
+
+                case BODY_UNTIL_CLOSE:
+                    deliver(aBuffer, Long.MAX_VALUE);
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+    }
+
+    void onEndOfStream() throws IOException {
+        if(state == State.BODY_UNTIL_CLOSE) {
+            state = State.DONE;
+            return;
+        }
+
+        if(state != State.DONE) {
+            throw new EOFException("Unexpected end of stream while reading " + state);
+        }
+    }
+
+    boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return true if at least one byte of the response was received
+     */
+    boolean isStarted() {
+        return started;
+    }
+
+    private long deliver(ByteBuffer aBuffer, long aMax) {
+        int count = (int) Math.min(aMax, aBuffer.remaining());
+        listener.onBody(aBuffer.array(), aBuffer.arrayOffset() + aBuffer.position(), count);
+        aBuffer.position(aBuffer.position() + count);
+        return count;
+    }
+
+    /**
+     * @return true if the line is complete
+     */
+    private boolean readLine(ByteBuffer aBuffer) throws IOException {
+        if(lineReady) {
+            lineLength = 0;
+            lineReady  = false;
+        }
+
+        while (aBuffer.hasRemaining()) {
+            byte b = aBuffer.get();
+            if(b == '\n') {
+                if(lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                lineReady = true;
+                return true;
+            }
+
+            if(lineLength == line.length) {
+                if(lineLength == maxLineLength) {
+                    throw new IOException("Line is longer than " + maxLineLength + " bytes");
+                }
+                line = Arrays.copyOf(line, Math.min(line.length * 2, maxLineLength));
+            }
+            line[lineLength++] = b;
+        }
+        // wait for more bytes, keep the partial line
+        return false;
+    }
+
+    private String lineAsString() {
+        return new String(line, 0, lineLength, StandardCharsets.ISO_8859_1);
+    }
+
+    private void parseStatusLine() throws IOException {
+        String text = lineAsString();
+        if(!text.startsWith("HTTP/")) {
+            throw new IOException("Bad status line: " + text);
+        }
+
+        int first = text.indexOf(' ');
+        if(first < 0 || text.length() < first + 4) {
+            throw new IOException("Bad status line: " + text);
+        }
+
+        http10 = text.startsWith("HTTP/1.0");
+        try {
+            statusCode = Integer.parseInt(text.substring(first + 1, first + 4));
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad status code in " + text, e);
+        }
+        reasonPhrase = text.length() > first + 5 ? text.substring(first + 5) : "";
+    }
+
+    private void parseHeader() throws IOException {
+        String text  = lineAsString();
+        int    colon = text.indexOf(':');
+        if(colon <= 0) {
+            throw new IOException("Bad header line: " + text);
+        }
+
+        String name  = text.substring(0, colon).trim();
+        String value = text.substring(colon + 1).trim();
+        headers.add(new HttpHeader(name, value));
+
+        if("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = parseLength(value, 10, "Content-Length");
+        } else if("Transfer-Encoding".equalsIgnoreCase(name)) {
+            chunked = value.toLowerCase().contains("chunked");
+        } else if("Connection".equalsIgnoreCase(name)) {
+            connectionHeader = value.toLowerCase();
+        }
+    }
+
+    private void onHeadersEnd() throws IOException {
+        if(statusCode == 101) {
+            throw new IOException("Protocol upgrade is not supported");
+        }
+
+        if(statusCode >= 100 && statusCode < 200) {
+            // 100 Continue and other interim responses
+            headers          = new ArrayList<>();
+            contentLength    = -1;
+            chunked          = false;
+            connectionHeader = null;
+            state            = State.STATUS_LINE;
+            return;
+        }
+
+        if(connectionHeader != null && connectionHeader.contains("close")) {
+            keepAlive = false;
+        } else if(http10) {
+            keepAlive = connectionHeader != null && connectionHeader.contains("keep-alive");
+        }
+
+        long bodyLength;
+        if(headRequest || statusCode == 204 || statusCode == 304) {
+            bodyLength = 0;
+            state      = State.DONE;
+        } else if(chunked) {
+            bodyLength = -1;
+            state      = State.CHUNK_SIZE;
+        } else if(contentLength >= 0) {
+            bodyLength = contentLength;
+            remaining  = contentLength;
+            state      = contentLength == 0 ? State.DONE : State.BODY_FIXED;
+        } else {
+            bodyLength = -1;
+            keepAlive  = false;
+            state      = State.BODY_UNTIL_CLOSE;
+        }
+
+        listener.onStatus(statusCode, reasonPhrase);
+        listener.onHeaders(new HttpHeaders(headers), bodyLength);
+    }
+
+    private long parseChunkSize() throws IOException {
+        String text      = lineAsString();
+        int    extension = text.indexOf(';');
+        String size      = (extension >= 0 ? text.substring(0, extension) : text).trim();
+        return parseLength(size, 16, "chunk size");
+    }
+
+    /**
+     * Only digits are accepted, a sign would move the buffer position backwards
+     */
+    private static long parseLength(String aValue, int aRadix, String aName) throws IOException {
+        if(aValue.isEmpty() || Character.digit(aValue.charAt(0), aRadix) < 0) {
+            throw new IOException("Bad " + aName + ": " + aValue);
+        }
+        try {
+            return Long.parseLong(aValue, aRadix);
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad " + aName + ": " + aValue, e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * IHttpStreamClient on non blocking sockets.
+ *
+ * Listener callbacks run on an event loop thread and must not block.
+ * The input stream of {@link IHttpStreamResponse} applies back pressure:
+ * the socket is not read while the unread part of the body exceeds
+ * {@link NioEngineParameters#getStreamBufferSize()}.
+ */
+public class HttpStreamClientNioImpl implements IHttpStreamClient, IHttpAsyncStreamClient, IHttpDownloadClient {
+
+    private final NioHttpEngine engine;
+
+    public HttpStreamClientNioImpl() {
+        this(NioHttpEngine.getDefault());
+    }
+
+    public HttpStreamClientNioImpl(NioHttpEngine aEngine) {
+        engine = aEngine;
+    }
+
+    @Override
+    public void send(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpConnectException, HttpReadException, HttpWriteException {
+        NioHttpEngine.await(sendAsync(aRequest, aRequestParameters, aListener), aRequest.getUrl());
+    }
+
+    @Override
+    public IHttpStreamResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        return NioHttpEngine.await(sendAsync(aRequest, aRequestParameters), aRequest.getUrl());
+    }
+
+    @Override
+    public HttpDownloadResponse download(HttpRequest aRequest, HttpRequestParameters aRequestParameters, Path aTarget) throws HttpConnectException, HttpReadException, HttpWriteException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(aTarget, CREATE, WRITE, TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot open file " + aTarget + " to download " + aRequest.getUrl(), e);
+        }
+
+        FileResponseSink sink = new FileResponseSink(aRequest.getUrl(), aTarget, file);
+        try {
+            engine.submit(aRequest, aRequestParameters, sink);
+        } catch (RuntimeException e) {
+            sink.onError(e);
+            throw e;
+        }
+        return NioHttpEngine.await(sink.getFuture(), aRequest.getUrl());
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) {
+        ListenerResponseSink sink = new ListenerResponseSink(aListener);
+        engine.submit(aRequest, aRequestParameters, sink);
+        return sink.getFuture();
+    }
+
+    @Override
+    public CompletableFuture<IHttpStreamResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        StreamResponseSink sink = new StreamResponseSink(engine.getParameters().getStreamBufferSize());
+        engine.submit(aRequest, aRequestParameters, sink);
+        return sink.getFuture();
+    }
+}
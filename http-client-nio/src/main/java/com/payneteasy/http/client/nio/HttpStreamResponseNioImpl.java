@@ -0,0 +1,55 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.IHttpStreamResponse;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public class HttpStreamResponseNioImpl implements IHttpStreamResponse {
+
+    private final int              statusCode;
+    private final String           reasonPhrase;
+    private final List<HttpHeader> headers;
+    private final InputStream      inputStream;
+
+    public HttpStreamResponseNioImpl(int statusCode, String reasonPhrase, List<HttpHeader> headers, InputStream inputStream) {
+        this.statusCode   = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.headers      = headers;
+        this.inputStream  = inputStream;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    @Nonnull
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    @Override
+    @Nonnull
+    public List<HttpHeader> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    @Nonnull
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * A fully read body leaves the connection in the pool, an unread body closes it
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
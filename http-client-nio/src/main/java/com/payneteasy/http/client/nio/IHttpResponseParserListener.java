@@ -0,0 +1,18 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+
+import java.util.List;
+
+interface IHttpResponseParserListener {
+
+    void onStatus(int aStatusCode, String aReasonPhrase);
+
+    /**
+     * @param aBodyLength 0 if no body follows, Content-Length or -1 for a chunked body or a body until close
+     */
+    void onHeaders(List<HttpHeader> aHeaders, long aBodyLength);
+
+    void onBody(byte[] aBytes, int aOffset, int aCount);
+
+}
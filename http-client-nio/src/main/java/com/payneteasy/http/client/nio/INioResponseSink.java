@@ -0,0 +1,40 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+
+import java.util.List;
+
+/**
+ * Receives a response on the event loop thread. Implementations must not block.
+ */
+interface INioResponseSink {
+
+    void onStatus(int aStatusCode, String aReasonPhrase);
+
+    /**
+     * @param aBodyLength 0 if no body follows, Content-Length or -1 if unknown
+     */
+    void onHeaders(List<HttpHeader> aHeaders, long aBodyLength);
+
+    void onBytes(byte[] aBytes, int aOffset, int aCount);
+
+    void onComplete();
+
+    /**
+     * @param aError HttpConnectException, HttpReadException or HttpWriteException
+     */
+    void onError(Exception aError);
+
+    boolean isCancelled();
+
+    /**
+     * @return true if the socket should not be read until the resume action is called
+     */
+    default boolean isPaused() {
+        return false;
+    }
+
+    default void setResumeAction(Runnable aAction) {
+        // no flow control
+    }
+}
@@ -0,0 +1,54 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.IHttpStreamResponseListener;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calls the listener from the event loop thread
+ */
+class ListenerResponseSink implements INioResponseSink {
+
+    private final IHttpStreamResponseListener listener;
+    private final CompletableFuture<Void>     future = new CompletableFuture<>();
+
+    ListenerResponseSink(IHttpStreamResponseListener aListener) {
+        listener = aListener;
+    }
+
+    CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onStatus(int aStatusCode, String aReasonPhrase) {
+        listener.onStatus(aStatusCode, aReasonPhrase);
+    }
+
+    @Override
+    public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+        listener.onHeaders(aHeaders);
+    }
+
+    @Override
+    public void onBytes(byte[] aBytes, int aOffset, int aCount) {
+        listener.onBytes(aBytes, aOffset, aCount);
+    }
+
+    @Override
+    public void onComplete() {
+        future.complete(null);
+    }
+
+    @Override
+    public void onError(Exception aError) {
+        future.completeExceptionally(aError);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+}
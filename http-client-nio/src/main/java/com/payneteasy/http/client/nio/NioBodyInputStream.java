@@ -0,0 +1,145 @@
+package com.payneteasy.http.client.nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+
+/**
+ * Body chunks queued by the event loop and read by the caller thread.
+ *
+ * The loop stops reading the socket while more than bufferSize bytes are queued
+ * and resumes when the reader has consumed half of them.
+ */
+class NioBodyInputStream extends InputStream {
+
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    private final int                bufferSize;
+
+    private int         chunkPosition;
+    private long        queued;
+    private boolean     finished;
+    private boolean     closed;
+    private IOException error;
+    private Runnable    resumeAction;
+    private boolean     pauseRequested;
+
+    NioBodyInputStream(int aBufferSize) {
+        bufferSize = aBufferSize;
+    }
+
+    synchronized void setResumeAction(Runnable aAction) {
+        resumeAction = aAction;
+    }
+
+    synchronized void offer(byte[] aBytes, int aOffset, int aCount) {
+        if(closed) {
+            return;
+        }
+        byte[] chunk = new byte[aCount];
+        System.arraycopy(aBytes, aOffset, chunk, 0, aCount);
+        chunks.addLast(chunk);
+        queued += aCount;
+        notifyAll();
+    }
+
+    synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    synchronized void fail(IOException aError) {
+        error = aError;
+        notifyAll();
+    }
+
+    synchronized boolean isPaused() {
+        pauseRequested = queued > bufferSize;
+        return pauseRequested;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int count = read(one, 0, 1);
+        return count < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] aBuffer, int aOffset, int aLength) throws IOException {
+        if(aLength == 0) {
+            return 0;
+        }
+
+        Runnable resume = null;
+        int      count;
+        synchronized (this) {
+            while (chunks.isEmpty() && !finished && error == null && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for body", e);
+                }
+            }
+
+            if(closed) {
+                throw new IOException("Stream closed");
+            }
+
+            if(chunks.isEmpty()) {
+                if(error != null) {
+                    throw error;
+                }
+                return -1;
+            }
+
+            byte[] chunk = chunks.peekFirst();
+            count = Math.min(aLength, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, aBuffer, aOffset, count);
+            chunkPosition += count;
+            if(chunkPosition == chunk.length) {
+                chunks.removeFirst();
+                chunkPosition = 0;
+            }
+            queued -= count;
+
+            if(pauseRequested && queued <= bufferSize / 2) {
+                pauseRequested = false;
+                resume = resumeAction;
+            }
+        }
+
+        if(resume != null) {
+            resume.run();
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized int available() {
+        return (int) Math.min(Integer.MAX_VALUE, queued);
+    }
+
+    @Override
+    public void close() {
+        Runnable resume;
+        synchronized (this) {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            chunks.clear();
+            queued = 0;
+            resume = finished ? null : resumeAction;
+            notifyAll();
+        }
+        // lets the loop notice the cancelled exchange and close the connection
+        if(resume != null) {
+            resume.run();
+        }
+    }
+}
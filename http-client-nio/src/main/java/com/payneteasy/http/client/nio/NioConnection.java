@@ -0,0 +1,611 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import javax.net.ssl.*;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keep-alive HTTP/1.1 connection, optionally over SSLEngine.
+ *
+ * All methods are called from the event loop thread.
+ */
+class NioConnection implements IHttpResponseParserListener {
+
+    private static final Logger LOG = Logger.getLogger("http-client.NioConnection");
+
+    private static final ByteBuffer[] EMPTY = new ByteBuffer[]{ByteBuffer.allocate(0)};
+
+    private enum State { CONNECTING, HANDSHAKING, WRITING, READING, IDLE, CLOSED }
+
+    private final NioEventLoop        loop;
+    private final NioRoute            route;
+    private final NioEngineParameters parameters;
+    private final SocketChannel       channel;
+    private final SelectionKey        key;
+    private final SSLEngine           engine;
+
+    /** socket to SSLEngine, write mode */
+    private ByteBuffer netIn;
+    /** SSLEngine to socket, read mode */
+    private ByteBuffer netOut;
+    /** decrypted or plain bytes for the parser, write mode */
+    private ByteBuffer appIn;
+
+    private State              state;
+    private NioExchange        exchange;
+    private ByteBuffer[]       request;
+    private HttpResponseParser parser;
+    private long               stateStartedNanos;
+    private long               lastActivityNanos;
+    private boolean            reused;
+    private boolean            readPaused;
+
+    private NioConnection(NioEventLoop aLoop, Selector aSelector, NioRoute aRoute, NioEngineParameters aParameters, SocketChannel aChannel) throws IOException {
+        loop       = aLoop;
+        route      = aRoute;
+        parameters = aParameters;
+        channel    = aChannel;
+        key        = aChannel.register(aSelector, 0, this);
+        engine     = aRoute.isSecure() ? createEngine(aRoute) : null;
+        netIn      = engine != null ? ByteBuffer.allocate(engine.getSession().getPacketBufferSize()) : null;
+        netOut     = engine != null ? (ByteBuffer) ByteBuffer.allocate(engine.getSession().getPacketBufferSize()).flip() : null;
+        appIn      = ByteBuffer.allocate(engine != null
+                ? Math.max(parameters.getReadBufferSize(), engine.getSession().getApplicationBufferSize())
+                : parameters.getReadBufferSize());
+    }
+
+    static NioConnection open(NioEventLoop aLoop, Selector aSelector, NioExchange aExchange, NioEngineParameters aParameters) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            NioConnection connection = new NioConnection(aLoop, aSelector, aExchange.getRoute(), aParameters, channel);
+            connection.connect(aExchange);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static SSLEngine createEngine(NioRoute aRoute) {
+        SSLEngine engine = aRoute.getSslContext().createSSLEngine(aRoute.getHost(), aRoute.getPort());
+        engine.setUseClientMode(true);
+        if(aRoute.getHostnameVerifier() == null) {
+            SSLParameters sslParameters = engine.getSSLParameters();
+            sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+            engine.setSSLParameters(sslParameters);
+        }
+        return engine;
+    }
+
+    NioRoute getRoute() {
+        return route;
+    }
+
+    boolean isOpen() {
+        return state != State.CLOSED && channel.isOpen();
+    }
+
+    private void connect(NioExchange aExchange) throws IOException {
+        exchange = aExchange;
+        setState(State.CONNECTING);
+        if(channel.connect(aExchange.getAddress())) {
+            onConnected();
+        } else {
+            interest(SelectionKey.OP_CONNECT);
+        }
+    }
+
+    /**
+     * Sends the next request over the idle connection
+     */
+    void reuse(NioExchange aExchange) {
+        exchange = aExchange;
+        reused   = true;
+        try {
+            startWriting();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    void onReady() {
+        try {
+            if(!key.isValid()) {
+                return;
+            }
+            switch (state) {
+                case CONNECTING:
+                    if(channel.finishConnect()) {
+                        onConnected();
+                    }
+                    break;
+
+                case HANDSHAKING:
+                    continueHandshake();
+                    break;
+
+                case WRITING:
+                    continueWriting();
+                    break;
+
+                case READING:
+                    readResponse();
+                    break;
+
+                case IDLE:
+                    onIdleReadable();
+                    break;
+
+                default:
+                    break;
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void onConnected() throws IOException {
+        if(engine == null) {
+            startWriting();
+            return;
+        }
+        setState(State.HANDSHAKING);
+        engine.beginHandshake();
+        continueHandshake();
+    }
+
+    private void continueHandshake() throws IOException {
+        if(!handshake()) {
+            return;
+        }
+
+        HostnameVerifier verifier = route.getHostnameVerifier();
+        if(verifier != null && !verifier.verify(route.getHost(), engine.getSession())) {
+            throw new SSLPeerUnverifiedException("Hostname " + route.getHost() + " not verified");
+        }
+        startWriting();
+    }
+
+    /**
+     * @return true if the handshake is finished
+     */
+    private boolean handshake() throws IOException {
+        while (true) {
+            if(!flushNetOut()) {
+                interest(SelectionKey.OP_WRITE);
+                return false;
+            }
+
+            SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+            switch (status) {
+                case NOT_HANDSHAKING:
+                case FINISHED:
+                    return true;
+
+                case NEED_TASK:
+                    runDelegatedTasks();
+                    break;
+
+                case NEED_WRAP:
+                    wrap(EMPTY);
+                    break;
+
+                default:
+                    // NEED_UNWRAP and NEED_UNWRAP_AGAIN (java 9+)
+                    if(unwrap() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                        int count = channel.read(netIn);
+                        if(count < 0) {
+                            throw new EOFException("Connection closed during TLS handshake");
+                        }
+                        if(count == 0) {
+                            interest(SelectionKey.OP_READ);
+                            return false;
+                        }
+                        touch();
+                    }
+                    break;
+            }
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private void wrap(ByteBuffer[] aSource) throws IOException {
+        netOut.clear();
+        SSLEngineResult result = engine.wrap(aSource, netOut);
+        netOut.flip();
+        if(result.getStatus() == SSLEngineResult.Status.CLOSED) {
+            throw new SSLException("SSLEngine closed");
+        }
+    }
+
+    private SSLEngineResult.Status unwrap() throws IOException {
+        while (true) {
+            netIn.flip();
+            SSLEngineResult result;
+            try {
+                result = engine.unwrap(netIn, appIn);
+            } finally {
+                netIn.compact();
+            }
+
+            if(result.getStatus() != SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                return result.getStatus();
+            }
+
+            if(appIn.position() > 0) {
+                // let the caller pass decrypted bytes to the parser
+                return result.getStatus();
+            }
+            appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize() + appIn.capacity());
+        }
+    }
+
+    /**
+     * @return true if netOut is empty
+     */
+    private boolean flushNetOut() throws IOException {
+        while (netOut.hasRemaining()) {
+            if(channel.write(netOut) == 0) {
+                return false;
+            }
+            touch();
+        }
+        return true;
+    }
+
+    private void startWriting() throws IOException {
+        setState(State.WRITING);
+        request = exchange.startAttempt();
+        continueWriting();
+    }
+
+    private void continueWriting() throws IOException {
+        if(!writeRequest()) {
+            interest(SelectionKey.OP_WRITE);
+            return;
+        }
+
+        NioExchange current = exchange;
+        current.getSink().setResumeAction(() -> loop.execute(() -> resumeReading(current)));
+
+        request    = null;
+        parser     = new HttpResponseParser(this, exchange.isHeadRequest(), parameters.getMaxHeaderLineLength());
+        readPaused = false;
+        setState(State.READING);
+        interest(SelectionKey.OP_READ);
+
+        // TLS records that came with the end of the handshake
+        if(engine != null && netIn.position() > 0) {
+            processInput(false);
+        }
+    }
+
+    /**
+     * @return true if the whole request is written
+     */
+    private boolean writeRequest() throws IOException {
+        while (true) {
+            if(remaining(request) == 0) {
+                ByteBuffer[] next = exchange.nextRequestBuffers();
+                if(next == null) {
+                    return engine == null || flushNetOut();
+                }
+                request = next;
+                continue;
+            }
+
+            if(engine == null) {
+                if(channel.write(request) == 0) {
+                    return false;
+                }
+                touch();
+            } else {
+                if(!flushNetOut()) {
+                    return false;
+                }
+                wrap(request);
+            }
+        }
+    }
+
+    private static long remaining(ByteBuffer[] aBuffers) {
+        long remaining = 0;
+        for (ByteBuffer buffer : aBuffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
+    private void readResponse() throws IOException {
+        int count = channel.read(engine != null ? netIn : appIn);
+        if(count > 0) {
+            touch();
+        }
+        processInput(count < 0);
+    }
+
+    private void processInput(boolean aEndOfStream) throws IOException {
+        boolean closed = aEndOfStream;
+
+        if(engine != null) {
+            while (state == State.READING && netIn.position() > 0) {
+                SSLEngineResult.Status status = unwrap();
+                if(engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                    runDelegatedTasks();
+                }
+                feedParser();
+                if(status == SSLEngineResult.Status.CLOSED) {
+                    closed = true;
+                    break;
+                }
+                if(status == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                    break;
+                }
+            }
+        } else {
+            feedParser();
+        }
+
+        if(state != State.READING) {
+            return;
+        }
+
+        if(closed) {
+            parser.onEndOfStream();
+            finishExchange(false);
+            return;
+        }
+
+        if(exchange.getSink().isPaused()) {
+            readPaused = true;
+            interest(0);
+        }
+    }
+
+    private void feedParser() throws IOException {
+        if(state != State.READING) {
+            return;
+        }
+
+        appIn.flip();
+        try {
+            parser.feed(appIn);
+        } finally {
+            boolean extra = appIn.hasRemaining();
+            appIn.clear();
+            if(parser.isComplete()) {
+                finishExchange(!extra && (engine == null || netIn.position() == 0));
+            }
+        }
+    }
+
+    /**
+     * Called by the sink (through the loop) when the reader drained the stream buffer
+     */
+    private void resumeReading(NioExchange aExchange) {
+        if(state != State.READING || exchange != aExchange) {
+            return;
+        }
+        if(aExchange.isCancelled()) {
+            close();
+            return;
+        }
+        if(!readPaused) {
+            return;
+        }
+        readPaused = false;
+        touch();
+        interest(SelectionKey.OP_READ);
+    }
+
+    private void finishExchange(boolean aReusable) {
+        NioExchange finished = exchange;
+        boolean     keepAlive = aReusable && parser.isKeepAlive();
+
+        exchange = null;
+        parser   = null;
+
+        if(keepAlive) {
+            setState(State.IDLE);
+            interest(SelectionKey.OP_READ);
+            if(!loop.release(this)) {
+                close();
+            }
+        } else {
+            close();
+        }
+
+        finished.complete();
+    }
+
+    private void onIdleReadable() throws IOException {
+        // the server closed the idle connection or sent garbage
+        appIn.clear();
+        LOG.fine(() -> "Idle connection to " + route + " became readable, closing");
+        close();
+    }
+
+    @Override
+    public void onStatus(int aStatusCode, String aReasonPhrase) {
+        exchange.getSink().onStatus(aStatusCode, aReasonPhrase);
+    }
+
+    @Override
+    public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+        exchange.getSink().onHeaders(aHeaders, aBodyLength);
+    }
+
+    @Override
+    public void onBody(byte[] aBytes, int aOffset, int aCount) {
+        exchange.getSink().onBytes(aBytes, aOffset, aCount);
+    }
+
+    void checkTimeouts(long aNowNanos) {
+        switch (state) {
+            case IDLE:
+                if(aNowNanos - stateStartedNanos > parameters.getKeepAliveMs() * 1_000_000L) {
+                    close();
+                }
+                return;
+
+            case CLOSED:
+                return;
+
+            default:
+                break;
+        }
+
+        if(exchange.isCancelled()) {
+            close();
+            return;
+        }
+
+        if(exchange.isCallTimedOut(aNowNanos)) {
+            fail(new SocketTimeoutException("Call timed out after " + exchange.getTimeouts().getCallTimeoutMs() + " ms"));
+            return;
+        }
+
+        int timeoutMs;
+        long since;
+        switch (state) {
+            case CONNECTING:
+            case HANDSHAKING:
+                timeoutMs = exchange.getTimeouts().getConnectTimeoutMs();
+                since     = stateStartedNanos;
+                break;
+            case WRITING:
+                timeoutMs = exchange.getTimeouts().getWriteTimeoutMs();
+                since     = lastActivityNanos;
+                break;
+            default:
+                timeoutMs = readPaused ? 0 : exchange.getTimeouts().getReadTimeoutMs();
+                since     = lastActivityNanos;
+                break;
+        }
+
+        if(timeoutMs > 0 && aNowNanos - since > timeoutMs * 1_000_000L) {
+            fail(new SocketTimeoutException(state + " timed out after " + timeoutMs + " ms"));
+        }
+    }
+
+    /**
+     * Fails the current exchange and closes the connection
+     */
+    void fail(Throwable aError) {
+        State       failedState = state;
+        NioExchange failed      = exchange;
+
+        boolean retry = failed != null
+                && reused
+                && (failedState == State.WRITING || (failedState == State.READING && !parser.isStarted()))
+                && aError instanceof IOException
+                && !(aError instanceof SocketTimeoutException)
+                && failed.canRetry()
+                && loop.isRunning();
+
+        close();
+
+        if(failed == null) {
+            LOG.log(Level.FINE, "Idle connection to " + route + " failed", aError);
+            return;
+        }
+
+        if(retry) {
+            LOG.log(Level.FINE, "Retrying " + failed.getUrl() + " on a new connection", aError);
+            loop.start(failed, true);
+            return;
+        }
+
+        if(failedState == State.CONNECTING && canTryNextAddress(failed) && failed.nextAddress()) {
+            LOG.log(Level.FINE, "Trying next address of " + failed.getUrl(), aError);
+            loop.start(failed, true);
+            return;
+        }
+
+        failed.fail(convertError(failedState, failed, aError));
+    }
+
+    /**
+     * Nothing was sent yet, so any request may go to another address of the host
+     */
+    private boolean canTryNextAddress(NioExchange aExchange) {
+        return !aExchange.isCancelled()
+                && !aExchange.isCallTimedOut(System.nanoTime())
+                && loop.isRunning();
+    }
+
+    private static Exception convertError(State aState, NioExchange aExchange, Throwable aError) {
+        String url = aExchange.getUrl();
+        switch (aState) {
+            case CONNECTING:
+            case HANDSHAKING:
+                if(aError instanceof SSLException) {
+                    return new HttpConnectException("Bad ssl certificate at " + url, aError);
+                }
+                if(aError instanceof SocketTimeoutException) {
+                    return new HttpConnectException("Connection timed out to " + url + " within " + aExchange.getElapsedMs() + " ms", aError);
+                }
+                return new HttpConnectException("Cannot connect to " + url + " within " + aExchange.getElapsedMs() + " ms", aError);
+
+            case WRITING:
+                return new HttpWriteException("Cannot write request to " + url, aError);
+
+            default:
+                return new HttpReadException("Cannot read from " + url, aError);
+        }
+    }
+
+    void close() {
+        if(state == State.CLOSED) {
+            return;
+        }
+        State previous = state;
+        setState(State.CLOSED);
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cannot close channel to " + route, e);
+        }
+        loop.onClosed(this, previous == State.IDLE);
+    }
+
+    private void interest(int aOps) {
+        if(key.isValid()) {
+            key.interestOps(aOps);
+        }
+    }
+
+    private void setState(State aState) {
+        state             = aState;
+        stateStartedNanos = System.nanoTime();
+        lastActivityNanos = stateStartedNanos;
+    }
+
+    private void touch() {
+        lastActivityNanos = System.nanoTime();
+    }
+}
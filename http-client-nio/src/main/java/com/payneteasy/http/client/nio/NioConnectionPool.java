@@ -0,0 +1,63 @@
+package com.payneteasy.http.client.nio;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Idle keep-alive connections of one event loop. Not thread safe.
+ */
+class NioConnectionPool {
+
+    private final Map<NioRoute, ArrayDeque<NioConnection>> idle = new HashMap<>();
+    private final int                                      maxIdlePerRoute;
+
+    NioConnectionPool(int aMaxIdlePerRoute) {
+        maxIdlePerRoute = aMaxIdlePerRoute;
+    }
+
+    /**
+     * @return the most recently used idle connection or null
+     */
+    NioConnection acquire(NioRoute aRoute) {
+        ArrayDeque<NioConnection> connections = idle.get(aRoute);
+        if(connections == null) {
+            return null;
+        }
+
+        NioConnection connection;
+        while ((connection = connections.pollLast()) != null) {
+            if(connection.isOpen()) {
+                break;
+            }
+        }
+
+        if(connections.isEmpty()) {
+            idle.remove(aRoute);
+        }
+        return connection;
+    }
+
+    /**
+     * @return false if there are too many idle connections for the route
+     */
+    boolean release(NioConnection aConnection) {
+        ArrayDeque<NioConnection> connections = idle.computeIfAbsent(aConnection.getRoute(), route -> new ArrayDeque<>());
+        if(connections.size() >= maxIdlePerRoute) {
+            return false;
+        }
+        connections.addLast(aConnection);
+        return true;
+    }
+
+    void remove(NioConnection aConnection) {
+        ArrayDeque<NioConnection> connections = idle.get(aConnection.getRoute());
+        if(connections == null) {
+            return;
+        }
+        connections.remove(aConnection);
+        if(connections.isEmpty()) {
+            idle.remove(aConnection.getRoute());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.payneteasy.http.client.nio;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NioEngineParameters {
+
+    /**
+     * Number of selector threads
+     */
+    @Builder.Default
+    private final int eventLoops                 = 2;
+
+    /**
+     * Idle keep-alive connections kept per host and port on each event loop
+     */
+    @Builder.Default
+    private final int maxIdleConnectionsPerRoute = 16;
+
+    /**
+     * Idle connections are closed after this time
+     */
+    @Builder.Default
+    private final int keepAliveMs                = 60_000;
+
+    @Builder.Default
+    private final int readBufferSize             = 16 * 1024;
+
+    /**
+     * Max length of the status line and of each header line
+     */
+    @Builder.Default
+    private final int maxHeaderLineLength        = 64 * 1024;
+
+    /**
+     * Reading from the socket pauses while the unread part of a streamed body exceeds this size
+     */
+    @Builder.Default
+    private final int streamBufferSize           = 256 * 1024;
+
+}
@@ -0,0 +1,167 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Selector thread. Owns its connections and its connection pool.
+ */
+class NioEventLoop implements Runnable, Closeable {
+
+    private static final Logger LOG = Logger.getLogger("http-client.NioEventLoop");
+
+    private static final long TIMEOUT_CHECK_INTERVAL_NANOS = 100_000_000L;
+
+    private final NioEngineParameters  parameters;
+    private final Selector             selector;
+    private final Thread               thread;
+    private final Queue<Runnable>      tasks       = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean        wakeupSent  = new AtomicBoolean();
+    private final Set<NioConnection>   connections = new HashSet<>();
+    private final NioConnectionPool    pool;
+    private final NioResolver          resolver;
+
+    private volatile boolean running = true;
+    private long             lastTimeoutCheckNanos = System.nanoTime();
+
+    NioEventLoop(String aName, NioEngineParameters aParameters, NioResolver aResolver) throws IOException {
+        parameters = aParameters;
+        resolver   = aResolver;
+        selector   = Selector.open();
+        pool       = new NioConnectionPool(aParameters.getMaxIdleConnectionsPerRoute());
+        thread     = new Thread(this, aName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void submit(NioExchange aExchange) {
+        execute(() -> start(aExchange, false));
+    }
+
+    void execute(Runnable aTask) {
+        if(!running) {
+            throw new IllegalStateException("Event loop " + thread.getName() + " is closed");
+        }
+        tasks.add(aTask);
+        if(Thread.currentThread() != thread && wakeupSent.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    void start(NioExchange aExchange, boolean aNewConnection) {
+        if(aExchange.isCancelled()) {
+            return;
+        }
+
+        NioConnection idle = aNewConnection ? null : pool.acquire(aExchange.getRoute());
+        if(idle != null) {
+            idle.reuse(aExchange);
+            return;
+        }
+
+        if(!aExchange.isResolved()) {
+            resolver.resolve(aExchange, this);
+            return;
+        }
+
+        try {
+            connections.add(NioConnection.open(this, selector, aExchange, parameters));
+        } catch (IOException | RuntimeException e) {
+            if(aExchange.nextAddress()) {
+                LOG.log(Level.FINE, "Trying next address of " + aExchange.getUrl(), e);
+                start(aExchange, true);
+                return;
+            }
+            aExchange.fail(new HttpConnectException("Cannot connect to " + aExchange.getUrl() + " within " + aExchange.getElapsedMs() + " ms", e));
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    boolean release(NioConnection aConnection) {
+        return pool.release(aConnection);
+    }
+
+    void onClosed(NioConnection aConnection, boolean aIdle) {
+        connections.remove(aConnection);
+        if(aIdle) {
+            pool.remove(aConnection);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(TIMEOUT_CHECK_INTERVAL_NANOS / 1_000_000);
+                wakeupSent.set(false);
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    ((NioConnection) key.attachment()).onReady();
+                }
+
+                runTasks();
+                checkTimeouts();
+            } catch (Throwable e) {
+                LOG.log(Level.SEVERE, "Error in event loop " + thread.getName(), e);
+            }
+        }
+        closeAll();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void checkTimeouts() {
+        long now = System.nanoTime();
+        if(now - lastTimeoutCheckNanos < TIMEOUT_CHECK_INTERVAL_NANOS) {
+            return;
+        }
+        lastTimeoutCheckNanos = now;
+
+        for (NioConnection connection : new ArrayList<>(connections)) {
+            connection.checkTimeouts(now);
+        }
+    }
+
+    private void closeAll() {
+        runTasks();
+        for (NioConnection connection : new ArrayList<>(connections)) {
+            connection.fail(new IOException("Event loop closed"));
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cannot close selector", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.HttpTimeouts;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One request and its response. Accessed only from the event loop thread
+ * except for the cancelled flag of the sink.
+ */
+class NioExchange {
+
+    private static final Logger LOG = Logger.getLogger(NioExchange.class.getName());
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final String           url;
+    private final NioRoute         route;
+    private final IHttpDnsResolver dnsResolver;
+    private final HttpMethod       method;
+    private final byte[]           head;
+    private final byte[]           body;
+    private final IHttpRequestBody streamBody;
+    private final HttpTimeouts     timeouts;
+    private final INioResponseSink sink;
+    private final long             startedNanos;
+
+    private List<InetAddress>    addresses;
+    private int                  addressIndex;
+    private int                  attempts;
+    private boolean              done;
+    private NioRequestBodyReader bodyReader;
+
+    NioExchange(String aUrl, NioRoute aRoute, IHttpDnsResolver aDnsResolver, HttpMethod aMethod, byte[] aHead, byte[] aBody, IHttpRequestBody aStreamBody, HttpTimeouts aTimeouts, INioResponseSink aSink) {
+        url          = aUrl;
+        route        = aRoute;
+        dnsResolver  = aDnsResolver;
+        method       = aMethod;
+        head         = aHead;
+        body         = aBody;
+        streamBody   = aStreamBody;
+        timeouts     = aTimeouts;
+        sink         = aSink;
+        startedNanos = System.nanoTime();
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    NioRoute getRoute() {
+        return route;
+    }
+
+    /**
+     * @return resolver of the request or null for the system one
+     */
+    IHttpDnsResolver getDnsResolver() {
+        return dnsResolver;
+    }
+
+    boolean isResolved() {
+        return addresses != null;
+    }
+
+    void setAddresses(List<InetAddress> aAddresses) {
+        addresses    = aAddresses;
+        addressIndex = 0;
+    }
+
+    InetSocketAddress getAddress() {
+        return new InetSocketAddress(addresses.get(addressIndex), route.getPort());
+    }
+
+    /**
+     * Switches to the next resolved address after a failed connect
+     *
+     * @return false if all addresses were tried
+     */
+    boolean nextAddress() {
+        if(addresses == null || addressIndex + 1 >= addresses.size()) {
+            return false;
+        }
+        addressIndex++;
+        return true;
+    }
+
+    HttpTimeouts getTimeouts() {
+        return timeouts;
+    }
+
+    INioResponseSink getSink() {
+        return sink;
+    }
+
+    boolean isHeadRequest() {
+        return method == HttpMethod.HEAD;
+    }
+
+    boolean isCancelled() {
+        return sink.isCancelled();
+    }
+
+    long getElapsedMs() {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    boolean isCallTimedOut(long aNowNanos) {
+        int callTimeoutMs = timeouts.getCallTimeoutMs();
+        return callTimeoutMs > 0 && aNowNanos - startedNanos > callTimeoutMs * 1_000_000L;
+    }
+
+    /**
+     * Requests that failed on a reused connection before any response byte may be sent again
+     * if they are idempotent, the server could close the idle connection at the same time.
+     */
+    boolean canRetry() {
+        if(attempts >= MAX_ATTEMPTS || (streamBody != null && streamBody.isOneShot())) {
+            return false;
+        }
+        switch (method) {
+            case GET:
+            case HEAD:
+            case OPTIONS:
+            case PUT:
+            case DELETE:
+            case TRACE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    ByteBuffer[] startAttempt() throws IOException {
+        attempts++;
+        closeBody();
+        if(streamBody != null) {
+            bodyReader = new NioRequestBodyReader(streamBody);
+        }
+        return body != null
+                ? new ByteBuffer[]{ByteBuffer.wrap(head), ByteBuffer.wrap(body)}
+                : new ByteBuffer[]{ByteBuffer.wrap(head)};
+    }
+
+    /**
+     * @return next buffers of the streamed body or null if the whole request was returned
+     */
+    ByteBuffer[] nextRequestBuffers() throws IOException {
+        return bodyReader != null ? bodyReader.next() : null;
+    }
+
+    void complete() {
+        if(done) {
+            return;
+        }
+        done = true;
+        closeBody();
+        sink.onComplete();
+    }
+
+    void fail(Exception aError) {
+        if(done) {
+            return;
+        }
+        done = true;
+        closeBody();
+        sink.onError(aError);
+    }
+
+    private void closeBody() {
+        if(bodyReader == null) {
+            return;
+        }
+        try {
+            bodyReader.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cannot close request body of " + url, e);
+        }
+        bodyReader = null;
+    }
+}
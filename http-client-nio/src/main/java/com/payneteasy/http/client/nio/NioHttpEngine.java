@@ -0,0 +1,164 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpProxyParameters;
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.body.HttpRequestBodies;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector event loops with their keep-alive connection pools.
+ *
+ * One engine serves any number of concurrent requests with
+ * {@link NioEngineParameters#getEventLoops()} threads.
+ */
+public class NioHttpEngine implements Closeable {
+
+    private static volatile NioHttpEngine defaultEngine;
+
+    private final NioEngineParameters parameters;
+    private final NioEventLoop[]      loops;
+    private final NioSslContexts      sslContexts = new NioSslContexts();
+    private final NioResolver         resolver    = new NioResolver();
+    private final AtomicInteger       next        = new AtomicInteger();
+
+    public NioHttpEngine(NioEngineParameters aParameters) {
+        parameters = aParameters;
+        loops      = new NioEventLoop[aParameters.getEventLoops()];
+        try {
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new NioEventLoop("http-client-nio-" + i, aParameters, resolver);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Cannot open selector", e);
+        }
+    }
+
+    /**
+     * @return shared engine with default parameters, its threads are daemons
+     */
+    public static NioHttpEngine getDefault() {
+        NioHttpEngine engine = defaultEngine;
+        if(engine == null) {
+            synchronized (NioHttpEngine.class) {
+                engine = defaultEngine;
+                if(engine == null) {
+                    engine = new NioHttpEngine(NioEngineParameters.builder().build());
+                    defaultEngine = engine;
+                }
+            }
+        }
+        return engine;
+    }
+
+    public NioEngineParameters getParameters() {
+        return parameters;
+    }
+
+    void submit(HttpRequest aRequest, HttpRequestParameters aParameters, INioResponseSink aSink) {
+        NioExchange exchange;
+        try {
+            exchange = createExchange(aRequest, aParameters, aSink);
+        } catch (HttpConnectException e) {
+            aSink.onError(e);
+            return;
+        }
+        loops[Math.abs(next.getAndIncrement() % loops.length)].submit(exchange);
+    }
+
+    private NioExchange createExchange(HttpRequest aRequest, HttpRequestParameters aParameters, INioResponseSink aSink) throws HttpConnectException {
+        HttpProxyParameters proxyParameters = aParameters.getProxyParameters();
+        if(proxyParameters != null && proxyParameters.getProxy() != null) {
+            throw new IllegalStateException("Nio engine does not support proxies");
+        }
+
+        String url = aRequest.getUrl();
+        URI    uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new HttpConnectException("Cannot parse url: " + url, e);
+        }
+
+        boolean secure;
+        if("https".equalsIgnoreCase(uri.getScheme())) {
+            secure = true;
+        } else if("http".equalsIgnoreCase(uri.getScheme())) {
+            secure = false;
+        } else {
+            throw new HttpConnectException("Unsupported scheme in " + url, null);
+        }
+
+        if(uri.getHost() == null) {
+            throw new HttpConnectException("No host in url: " + url, null);
+        }
+
+        int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+
+        SSLContext sslContext = secure ? sslContexts.getContext(aParameters) : null;
+        if(!secure && aParameters.getHostnameVerifier() != null) {
+            throw new IllegalStateException("Cannot set HostnameVerifier for http url " + url);
+        }
+
+        NioRoute route = new NioRoute(uri.getHost(), port, sslContext, secure ? aParameters.getHostnameVerifier() : null);
+
+        IHttpRequestBody requestBody = HttpRequestBodies.of(aRequest);
+        IHttpRequestBody streamBody  = aRequest.getRequestBody();
+        byte[]           body        = requestBody != null && streamBody == null ? aRequest.getBody() : null;
+        byte[]           head        = NioRequestEncoder.encodeHead(aRequest, uri, port, requestBody != null ? requestBody.getContentLength() : 0);
+
+        return new NioExchange(url, route, aParameters.getDnsResolver(), aRequest.getMethod(), head, body, streamBody, aParameters.getTimeouts(), aSink);
+    }
+
+    /**
+     * Waits for the future and rethrows the exceptions declared by IHttpClient
+     */
+    static <T> T await(CompletableFuture<T> aFuture, String aUrl) throws HttpConnectException, HttpReadException, HttpWriteException {
+        try {
+            return aFuture.get();
+        } catch (InterruptedException e) {
+            aFuture.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new HttpReadException("Interrupted while waiting for " + aUrl, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof HttpConnectException) {
+                throw (HttpConnectException) cause;
+            }
+            if(cause instanceof HttpReadException) {
+                throw (HttpReadException) cause;
+            }
+            if(cause instanceof HttpWriteException) {
+                throw (HttpWriteException) cause;
+            }
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HttpReadException("Unexpected error for " + aUrl, cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (NioEventLoop loop : loops) {
+            if(loop != null) {
+                loop.close();
+            }
+        }
+        resolver.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a streamed request body chunk by chunk on the event loop thread.
+ * Bodies with unknown length are framed with chunked transfer encoding.
+ */
+class NioRequestBodyReader {
+
+    private static final int    CHUNK_SIZE = 16 * 1024;
+    private static final byte[] CRLF       = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final InputStream inputStream;
+    private final long        length;
+    private final byte[]      buffer;
+    private       long        sent;
+    private       boolean     finished;
+
+    NioRequestBodyReader(IHttpRequestBody aBody) throws IOException {
+        inputStream = aBody.openStream();
+        length      = aBody.getContentLength();
+        buffer      = new byte[CHUNK_SIZE];
+    }
+
+    /**
+     * @return buffers to write or null at the end of the body
+     */
+    ByteBuffer[] next() throws IOException {
+        if(finished) {
+            return null;
+        }
+
+        int count = inputStream.read(buffer);
+        if(count < 0) {
+            finished = true;
+            close();
+            if(length < 0) {
+                return new ByteBuffer[]{ByteBuffer.wrap(LAST_CHUNK)};
+            }
+            if(sent != length) {
+                throw new IOException("Request body has " + sent + " bytes but its content length is " + length);
+            }
+            return null;
+        }
+
+        sent += count;
+        if(length < 0) {
+            return new ByteBuffer[]{
+                    ByteBuffer.wrap(Integer.toHexString(count).getBytes(StandardCharsets.ISO_8859_1))
+                    , ByteBuffer.wrap(CRLF)
+                    , ByteBuffer.wrap(buffer, 0, count)
+                    , ByteBuffer.wrap(CRLF)
+            };
+        }
+
+        if(sent > length) {
+            throw new IOException("Request body is longer than its content length " + length);
+        }
+        return new ByteBuffer[]{ByteBuffer.wrap(buffer, 0, count)};
+    }
+
+    void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpMethod;
+import com.payneteasy.http.client.api.HttpRequest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the request line and headers
+ */
+class NioRequestEncoder {
+
+    /**
+     * @param aBodyLength body length or -1 for chunked transfer encoding
+     */
+    static byte[] encodeHead(HttpRequest aRequest, URI aUri, int aPort, long aBodyLength) {
+        StringBuilder sb = new StringBuilder(256);
+
+        sb.append(aRequest.getMethod().name()).append(' ');
+        String path = aUri.getRawPath();
+        sb.append(path == null || path.isEmpty() ? "/" : path);
+        if(aUri.getRawQuery() != null) {
+            sb.append('?').append(aUri.getRawQuery());
+        }
+        sb.append(" HTTP/1.1\r\n");
+
+        boolean hostSet = false;
+        if(aRequest.getHeaders() != null) {
+            for (HttpHeader header : aRequest.getHeaders().asList()) {
+                String name = header.getName();
+                if("Content-Length".equalsIgnoreCase(name) || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                    continue;
+                }
+                hostSet |= "Host".equalsIgnoreCase(name);
+                appendHeader(sb, name, header.getValue());
+            }
+        }
+
+        if(!hostSet) {
+            appendHeader(sb, "Host", hostHeader(aUri, aPort));
+        }
+
+        if(aBodyLength < 0) {
+            appendHeader(sb, "Transfer-Encoding", "chunked");
+        } else if(aBodyLength > 0 || hasBodySemantics(aRequest.getMethod())) {
+            appendHeader(sb, "Content-Length", Long.toString(aBodyLength));
+        }
+
+        sb.append("\r\n");
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean hasBodySemantics(HttpMethod aMethod) {
+        return aMethod == HttpMethod.POST || aMethod == HttpMethod.PUT;
+    }
+
+    private static String hostHeader(URI aUri, int aPort) {
+        String host = aUri.getHost();
+        if(host.indexOf(':') >= 0 && !host.startsWith("[")) {
+            host = "[" + host + "]";
+        }
+        boolean defaultPort = ("http".equalsIgnoreCase(aUri.getScheme()) && aPort == 80)
+                || ("https".equalsIgnoreCase(aUri.getScheme()) && aPort == 443);
+        return defaultPort ? host : host + ":" + aPort;
+    }
+
+    private static void appendHeader(StringBuilder aBuffer, String aName, String aValue) {
+        aBuffer.append(aName).append(": ").append(aValue).append("\r\n");
+    }
+}
@@ -0,0 +1,99 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.dns.HttpSystemDnsResolver;
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves host names on daemon worker threads, so a slow DNS server blocks
+ * neither the caller of sendAsync nor the selector thread.
+ */
+class NioResolver implements Closeable {
+
+    private final AtomicInteger   threads  = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "http-client-nio-dns-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Called on the event loop thread, the exchange is started again on the loop once its addresses are known
+     */
+    void resolve(NioExchange aExchange, NioEventLoop aLoop) {
+        String           host     = aExchange.getRoute().getHost();
+        IHttpDnsResolver resolver = aExchange.getDnsResolver() != null ? aExchange.getDnsResolver() : HttpSystemDnsResolver.INSTANCE;
+
+        if(aExchange.getDnsResolver() == null && isLiteral(host)) {
+            // InetAddress parses literals without a lookup
+            onResolved(aExchange, aLoop, lookup(resolver, host, aExchange));
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                Object result = lookup(resolver, host, aExchange);
+                try {
+                    aLoop.execute(() -> onResolved(aExchange, aLoop, result));
+                } catch (IllegalStateException e) {
+                    aExchange.fail(new HttpConnectException("Cannot connect to " + aExchange.getUrl(), e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            aExchange.fail(new HttpConnectException("Cannot resolve host " + host + " for " + aExchange.getUrl(), e));
+        }
+    }
+
+    /**
+     * @return addresses or HttpConnectException
+     */
+    private static Object lookup(IHttpDnsResolver aResolver, String aHost, NioExchange aExchange) {
+        try {
+            List<InetAddress> addresses = aResolver.resolve(aHost);
+            if(addresses == null || addresses.isEmpty()) {
+                throw new UnknownHostException("No addresses for " + aHost);
+            }
+            return addresses;
+        } catch (UnknownHostException | RuntimeException e) {
+            return new HttpConnectException("Cannot resolve host " + aHost + " for " + aExchange.getUrl(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void onResolved(NioExchange aExchange, NioEventLoop aLoop, Object aResult) {
+        if(aResult instanceof HttpConnectException) {
+            aExchange.fail((HttpConnectException) aResult);
+            return;
+        }
+        aExchange.setAddresses(Collections.unmodifiableList((List<InetAddress>) aResult));
+        aLoop.start(aExchange, true);
+    }
+
+    private static boolean isLiteral(String aHost) {
+        if(aHost.indexOf(':') >= 0) {
+            return true;
+        }
+        for (int i = 0; i < aHost.length(); i++) {
+            char c = aHost.charAt(i);
+            if(c != '.' && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,27 @@
+package com.payneteasy.http.client.nio;
+
+import lombok.Data;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Connections are reused only for requests with equal routes
+ */
+@Data
+class NioRoute {
+
+    private final String           host;
+    private final int              port;
+    private final SSLContext       sslContext;
+    private final HostnameVerifier hostnameVerifier;
+
+    boolean isSecure() {
+        return sslContext != null;
+    }
+
+    @Override
+    public String toString() {
+        return (isSecure() ? "https://" : "http://") + host + ":" + port;
+    }
+}
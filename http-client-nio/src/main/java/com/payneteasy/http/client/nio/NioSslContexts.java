@@ -0,0 +1,45 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpRequestParameters;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SSLEngine needs SSLContext, so contexts are created from trust managers and cached.
+ */
+class NioSslContexts {
+
+    private final Map<X509TrustManager, SSLContext> contexts = new ConcurrentHashMap<>();
+
+    SSLContext getContext(HttpRequestParameters aParameters) {
+        if(aParameters.getSslSocketFactory() != null && aParameters.getTrustManager() == null) {
+            throw new IllegalStateException("Nio engine needs SSLContext, set X509TrustManager instead of SSLSocketFactory");
+        }
+
+        if(aParameters.getTrustManager() == null) {
+            try {
+                return SSLContext.getDefault();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("No default SSLContext", e);
+            }
+        }
+
+        return contexts.computeIfAbsent(aParameters.getTrustManager(), NioSslContexts::createContext);
+    }
+
+    private static SSLContext createContext(X509TrustManager aTrustManager) {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[]{aTrustManager}, null);
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create SSLContext", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.IHttpStreamResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Completes the future when headers arrive, the body is read from {@link NioBodyInputStream}
+ */
+class StreamResponseSink implements INioResponseSink {
+
+    private final CompletableFuture<IHttpStreamResponse> future = new CompletableFuture<>();
+    private final NioBodyInputStream                     inputStream;
+
+    private int    statusCode;
+    private String reasonPhrase;
+
+    StreamResponseSink(int aBufferSize) {
+        inputStream = new NioBodyInputStream(aBufferSize);
+    }
+
+    CompletableFuture<IHttpStreamResponse> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onStatus(int aStatusCode, String aReasonPhrase) {
+        statusCode   = aStatusCode;
+        reasonPhrase = aReasonPhrase;
+    }
+
+    @Override
+    public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+        future.complete(new HttpStreamResponseNioImpl(statusCode, reasonPhrase, aHeaders, inputStream));
+    }
+
+    @Override
+    public void onBytes(byte[] aBytes, int aOffset, int aCount) {
+        inputStream.offer(aBytes, aOffset, aCount);
+    }
+
+    @Override
+    public void onComplete() {
+        inputStream.finish();
+    }
+
+    @Override
+    public void onError(Exception aError) {
+        if(!future.completeExceptionally(aError)) {
+            inputStream.fail(new IOException(aError.getMessage(), aError));
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled() || inputStream.isClosed();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return inputStream.isPaused();
+    }
+
+    @Override
+    public void setResumeAction(Runnable aAction) {
+        inputStream.setResumeAction(aAction);
+    }
+}
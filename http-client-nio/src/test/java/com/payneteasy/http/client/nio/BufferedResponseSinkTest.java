@@ -0,0 +1,53 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpResponse;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BufferedResponseSinkTest {
+
+    @Test
+    public void huge_content_length_does_not_preallocate() throws Exception {
+        BufferedResponseSink sink = new BufferedResponseSink();
+        sink.onStatus(200, "OK");
+        sink.onHeaders(Collections.emptyList(), Integer.MAX_VALUE * 4L);
+
+        byte[] bytes = "partial".getBytes(StandardCharsets.US_ASCII);
+        sink.onBytes(bytes, 0, bytes.length);
+        sink.onComplete();
+
+        assertArrayEquals(bytes, sink.getFuture().get().getBody());
+    }
+
+    @Test
+    public void body_grows_past_preallocated_size() throws Exception {
+        BufferedResponseSink sink = new BufferedResponseSink();
+        sink.onStatus(200, "OK");
+        sink.onHeaders(Collections.emptyList(), -1);
+
+        byte[] chunk = new byte[100 * 1024];
+        chunk[chunk.length - 1] = 7;
+        sink.onBytes(chunk, 0, chunk.length);
+        sink.onBytes(chunk, 0, chunk.length);
+        sink.onComplete();
+
+        HttpResponse response = sink.getFuture().get();
+        assertEquals(chunk.length * 2, response.getBody().length);
+        assertEquals(7, response.getBody()[chunk.length * 2 - 1]);
+    }
+
+    @Test
+    public void no_body() throws Exception {
+        BufferedResponseSink sink = new BufferedResponseSink();
+        sink.onStatus(204, "No Content");
+        sink.onHeaders(Collections.emptyList(), 0);
+        sink.onComplete();
+
+        assertEquals(0, sink.getFuture().get().getBody().length);
+    }
+}
@@ -0,0 +1,231 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.HttpHeaders;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpResponseParserTest {
+
+    @Test
+    public void lines_split_across_feeds() throws IOException {
+        Recorder           recorder = new Recorder();
+        HttpResponseParser parser   = parser(recorder, false);
+
+        byte[] bytes = ascii("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 5\r\n\r\nhello");
+        for (byte b : bytes) {
+            parser.feed(ByteBuffer.wrap(new byte[]{b}));
+        }
+
+        assertTrue(parser.isComplete());
+        assertTrue(parser.isKeepAlive());
+        assertEquals(1, recorder.statuses.size());
+        assertEquals(200, (int) recorder.statuses.get(0));
+        assertEquals("OK", recorder.reasonPhrase);
+        assertEquals("text/plain", recorder.headers.get("content-type"));
+        assertEquals(5, recorder.bodyLength);
+        assertEquals("hello", recorder.body());
+    }
+
+    @Test
+    public void chunk_extensions_are_ignored() throws IOException {
+        Recorder           recorder = new Recorder();
+        HttpResponseParser parser   = parser(recorder, false);
+
+        parser.feed(buffer("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5;name=value\r\nhello\r\n"
+                + "7 ; a=\"b\"\r\n, world\r\n"
+                + "0\r\n\r\n"));
+
+        assertTrue(parser.isComplete());
+        assertEquals(-1, recorder.bodyLength);
+        assertEquals("hello, world", recorder.body());
+    }
+
+    @Test
+    public void trailers_are_skipped() throws IOException {
+        Recorder           recorder = new Recorder();
+        HttpResponseParser parser   = parser(recorder, false);
+
+        parser.feed(buffer("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "3\r\nabc\r\n"
+                + "0\r\nX-Checksum: 42\r\nX-Other: 1\r\n"));
+        assertFalse(parser.isComplete());
+
+        parser.feed(buffer("\r\n"));
+        assertTrue(parser.isComplete());
+        assertEquals("abc", recorder.body());
+        assertNull(recorder.headers.get("X-Checksum"));
+    }
+
+    @Test
+    public void interim_responses_are_skipped() throws IOException {
+        Recorder           recorder = new Recorder();
+        HttpResponseParser parser   = parser(recorder, false);
+
+        parser.feed(buffer("HTTP/1.1 100 Continue\r\n\r\n"
+                + "HTTP/1.1 103 Early Hints\r\nLink: </style.css>\r\n\r\n"
+                + "HTTP/1.1 201 Created\r\nContent-Length: 2\r\n\r\nok"));
+
+        assertTrue(parser.isComplete());
+        assertEquals(1, recorder.statuses.size());
+        assertEquals(201, (int) recorder.statuses.get(0));
+        assertNull(recorder.headers.get("Link"));
+        assertEquals("ok", recorder.body());
+    }
+
+    @Test
+    public void http10_keep_alive() throws IOException {
+        HttpResponseParser keepAlive = parser(new Recorder(), false);
+        keepAlive.feed(buffer("HTTP/1.0 200 OK\r\nConnection: Keep-Alive\r\nContent-Length: 0\r\n\r\n"));
+        assertTrue(keepAlive.isComplete());
+        assertTrue(keepAlive.isKeepAlive());
+
+        HttpResponseParser close = parser(new Recorder(), false);
+        close.feed(buffer("HTTP/1.0 200 OK\r\nContent-Length: 0\r\n\r\n"));
+        assertTrue(close.isComplete());
+        assertFalse(close.isKeepAlive());
+
+        HttpResponseParser http11Close = parser(new Recorder(), false);
+        http11Close.feed(buffer("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 0\r\n\r\n"));
+        assertFalse(http11Close.isKeepAlive());
+    }
+
+    @Test
+    public void body_until_close() throws IOException {
+        Recorder           recorder = new Recorder();
+        HttpResponseParser parser   = parser(recorder, false);
+
+        parser.feed(buffer("HTTP/1.1 200 OK\r\n\r\nsome"));
+        parser.feed(buffer(" body"));
+        assertFalse(parser.isComplete());
+
+        parser.onEndOfStream();
+        assertTrue(parser.isComplete());
+        assertFalse(parser.isKeepAlive());
+        assertEquals(-1, recorder.bodyLength);
+        assertEquals("some body", recorder.body());
+    }
+
+    @Test
+    public void no_body_for_head_204_and_304() throws IOException {
+        Recorder           head       = new Recorder();
+        HttpResponseParser headParser = parser(head, true);
+        headParser.feed(buffer("HTTP/1.1 200 OK\r\nContent-Length: 9999999999\r\n\r\n"));
+        assertTrue(headParser.isComplete());
+        assertEquals(0, head.bodyLength);
+
+        Recorder           noContent       = new Recorder();
+        HttpResponseParser noContentParser = parser(noContent, false);
+        noContentParser.feed(buffer("HTTP/1.1 204 No Content\r\n\r\n"));
+        assertTrue(noContentParser.isComplete());
+        assertEquals(0, noContent.bodyLength);
+
+        Recorder           notModified       = new Recorder();
+        HttpResponseParser notModifiedParser = parser(notModified, false);
+        notModifiedParser.feed(buffer("HTTP/1.1 304 Not Modified\r\nContent-Length: 100\r\n\r\n"));
+        assertTrue(notModifiedParser.isComplete());
+        assertEquals(0, notModified.bodyLength);
+    }
+
+    @Test
+    public void negative_content_length_is_rejected() {
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: -5\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: +5\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: \r\n\r\n");
+    }
+
+    @Test
+    public void negative_chunk_size_is_rejected() {
+        assertRejected("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n-5\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n");
+    }
+
+    @Test
+    public void truncated_body_is_an_error() throws IOException {
+        HttpResponseParser parser = parser(new Recorder(), false);
+        parser.feed(buffer("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nabc"));
+        try {
+            parser.onEndOfStream();
+            fail("EOF expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void line_longer_than_max_is_rejected() {
+        HttpResponseParser parser = new HttpResponseParser(new Recorder(), false, 32);
+        try {
+            parser.feed(buffer("HTTP/1.1 200 OK\r\nX-Long: " + new String(new char[64]).replace('\0', 'x') + "\r\n\r\n"));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void assertRejected(String aResponse) {
+        HttpResponseParser parser = parser(new Recorder(), false);
+        try {
+            parser.feed(buffer(aResponse));
+            fail("IOException expected for " + aResponse);
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Bad "));
+        }
+    }
+
+    private static HttpResponseParser parser(Recorder aRecorder, boolean aHeadRequest) {
+        return new HttpResponseParser(aRecorder, aHeadRequest, 8 * 1024);
+    }
+
+    private static ByteBuffer buffer(String aText) {
+        return ByteBuffer.wrap(ascii(aText));
+    }
+
+    private static byte[] ascii(String aText) {
+        return aText.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static class Recorder implements IHttpResponseParserListener {
+
+        private final List<Integer>         statuses = new ArrayList<>();
+        private final ByteArrayOutputStream body     = new ByteArrayOutputStream();
+
+        private String      reasonPhrase;
+        private HttpHeaders headers;
+        private long        bodyLength = Long.MIN_VALUE;
+
+        @Override
+        public void onStatus(int aStatusCode, String aReasonPhrase) {
+            statuses.add(aStatusCode);
+            reasonPhrase = aReasonPhrase;
+        }
+
+        @Override
+        public void onHeaders(List<HttpHeader> aHeaders, long aBodyLength) {
+            headers    = HttpHeaders.of(aHeaders);
+            bodyLength = aBodyLength;
+        }
+
+        @Override
+        public void onBody(byte[] aBytes, int aOffset, int aCount) {
+            body.write(aBytes, aOffset, aCount);
+        }
+
+        String body() {
+            return new String(body.toByteArray(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.payneteasy.http.client.nio;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpResponse;
+import com.payneteasy.http.client.api.HttpTimeouts;
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NioHttpEngineTest {
+
+    private NioHttpEngine     engine;
+    private HttpClientNioImpl client;
+    private ServerSocket      server;
+    private Thread            serverThread;
+
+    @Before
+    public void before() throws IOException {
+        engine       = new NioHttpEngine(NioEngineParameters.builder().eventLoops(1).build());
+        client       = new HttpClientNioImpl(engine);
+        server       = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        serverThread = new Thread(this::serve, "test-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @After
+    public void after() throws IOException {
+        server.close();
+        engine.close();
+    }
+
+    @Test
+    public void next_address_is_tried_when_connect_is_refused() throws Exception {
+        // nothing listens on 127.0.0.2 with the server port
+        IHttpDnsResolver resolver = host -> Arrays.asList(InetAddress.getByName("127.0.0.2"), InetAddress.getByName("127.0.0.1"));
+
+        HttpResponse response = client.send(request("test.local"), parameters(resolver));
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("ok", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void slow_dns_does_not_block_the_caller() throws Exception {
+        CountDownLatch   release  = new CountDownLatch(1);
+        IHttpDnsResolver resolver = host -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList(InetAddress.getByName("127.0.0.1"));
+        };
+
+        CompletableFuture<HttpResponse> future = client.sendAsync(request("slow.local"), parameters(resolver));
+        assertFalse(future.isDone());
+
+        release.countDown();
+        assertEquals(200, future.get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    private HttpRequest request(String aHost) {
+        return HttpRequest.builder().url("http://" + aHost + ":" + server.getLocalPort() + "/").build();
+    }
+
+    private static HttpRequestParameters parameters(IHttpDnsResolver aResolver) {
+        return HttpRequestParameters.builder()
+                .timeouts    ( new HttpTimeouts(5_000, 5_000) )
+                .dnsResolver ( aResolver                      )
+                .build();
+    }
+
+    private void serve() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                readHead(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                out.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\nConnection: close\r\n\r\nok".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            } catch (IOException e) {
+                // server closed
+            }
+        }
+    }
+
+    private static void readHead(InputStream aIn) throws IOException {
+        int matched = 0;
+        int b;
+        while (matched < 4 && (b = aIn.read()) >= 0) {
+            matched = (b == '\r' || b == '\n') ? matched + 1 : 0;
+        }
+    }
+}
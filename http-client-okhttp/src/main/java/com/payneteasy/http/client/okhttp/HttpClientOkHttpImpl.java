@@ -1,174 +1,250 @@
 package com.payneteasy.http.client.okhttp;
 
 import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import com.payneteasy.http.client.api.compression.HttpCompressions;
 import com.payneteasy.http.client.api.exceptions.HttpConnectException;
-import com.payneteasy.http.client.api.exceptions.HttpProxyAuthConnectionException;
 import com.payneteasy.http.client.api.exceptions.HttpReadException;
 import com.payneteasy.http.client.api.exceptions.HttpWriteException;
-import kotlin.Pair;
-import lombok.NonNull;
 import okhttp3.*;
-import okhttp3.internal.Util;
+import okio.BufferedSink;
+import okio.Okio;
 import org.jetbrains.annotations.NotNull;
 
-import javax.net.ssl.SSLHandshakeException;
-import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.InterruptedIOException;
-import java.net.ConnectException;
-import java.net.ProtocolException;
-import java.net.SocketTimeoutException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
-public class HttpClientOkHttpImpl implements IHttpClient {
+public class HttpClientOkHttpImpl implements IHttpClient, IHttpAsyncClient, IHttpDownloadClient, IHttpWarmUpClient, IHttpBatchClient {
 
-    private final OkHttpClient defaultClient;
+    private static final int DEFAULT_MAX_CACHED_CLIENTS = 32;
+
+    private final OkHttpClients        clients;
+    private final OkHttpConnectionPool connectionPool;
 
 
     public HttpClientOkHttpImpl() {
-        this(new OkHttpClient.Builder()
-                .connectionPool(new ConnectionPool())
-                .build()
-        );
+        this(new OkHttpConnectionPool(OkHttpPoolConfig.builder().build()));
+    }
+
+    /**
+     * @param aConnectionPool pass the same pool to {@link HttpStreamClientOkHttpImpl} to share connections
+     */
+    public HttpClientOkHttpImpl(OkHttpConnectionPool aConnectionPool) {
+        this(aConnectionPool.newClientBuilder().build(), DEFAULT_MAX_CACHED_CLIENTS, aConnectionPool);
     }
 
     public HttpClientOkHttpImpl(OkHttpClient aDefaultClient) {
-        defaultClient = aDefaultClient;
+        this(aDefaultClient, DEFAULT_MAX_CACHED_CLIENTS);
+    }
+
+    /**
+     * @param aMaxCachedClients max number of clients built for distinct timeouts, proxy and ssl parameters
+     */
+    public HttpClientOkHttpImpl(OkHttpClient aDefaultClient, int aMaxCachedClients) {
+        this(aDefaultClient, aMaxCachedClients, null);
+    }
+
+    private HttpClientOkHttpImpl(OkHttpClient aDefaultClient, int aMaxCachedClients, @Nullable OkHttpConnectionPool aConnectionPool) {
+        clients        = new OkHttpClients(aDefaultClient, aMaxCachedClients);
+        connectionPool = aConnectionPool;
+    }
+
+    public OkHttpClientCacheStatistics getClientCacheStatistics() {
+        return clients.getStatistics();
+    }
+
+    /**
+     * @return null if the client was created from an OkHttpClient
+     */
+    @Nullable
+    public OkHttpPoolStatistics getConnectionPoolStatistics() {
+        return connectionPool != null ? connectionPool.getStatistics() : null;
     }
 
     @Override
     public HttpResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
-        Request      request  = createRequest(aRequest);
-        OkHttpClient client   = createClient(aRequestParameters);
+        Request      request  = OkHttpClients.createRequest(aRequest, aRequestParameters);
+        OkHttpClient client   = clients.getClient(aRequestParameters);
         Call         call     = client.newCall(request);
         String       url      = aRequest.getUrl();
-        Response     response = executeCall(call, url);
-        return createResponse(response);
+        Response     response = OkHttpClients.executeCall(call, url);
+        return createResponse(response, aRequestParameters.getCompression());
     }
 
-    @NotNull
-    private Response executeCall(Call call, @NonNull String url) throws HttpConnectException, HttpReadException {
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+
+        Request      request    = OkHttpClients.createRequest(aRequest, aRequestParameters);
+        OkHttpClient client     = clients.getClient(aRequestParameters);
+        Call         call       = client.newCall(request);
+        String       url        = aRequest.getUrl();
         long         starTimeMs = System.currentTimeMillis();
-        Response response;
-        try {
-            response = call.execute();
-        } catch (SSLHandshakeException |SSLPeerUnverifiedException e) {
-            throw new HttpConnectException("Bad ssl certificate at " + url, e);
-        } catch (ProtocolException e) {
-            if("Unexpected status line: <html><head><title>407 Proxy Authentication Required</title></head>".equals(e.getMessage())) {
-                throw new HttpConnectException("407 Proxy Authentication Required", e);
-            } else {
-                throw new HttpConnectException("Protocol error: cannot connect to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call aCall, @NotNull IOException e) {
+                future.completeExceptionally(OkHttpClients.convertCallException(e, url, starTimeMs));
             }
-        } catch (ConnectException e) {
-            throw new HttpConnectException("Cannot connect to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
-        } catch (SocketTimeoutException e) {
-            throw new HttpConnectException("Connection timed out to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
-        } catch (InterruptedIOException e) {
-            throw new HttpConnectException("Connection interrupted to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
-        } catch (IOException e) {
-            if("Failed to authenticate with proxy".equals(e.getMessage())) {
-                throw new HttpProxyAuthConnectionException("Failed to authenticate with proxy", e);
+
+            @Override
+            public void onResponse(@NotNull Call aCall, @NotNull Response aResponse) {
+                try {
+                    future.complete(createResponse(aResponse, aRequestParameters.getCompression()));
+                } catch (HttpReadException | RuntimeException e) {
+                    aResponse.close();
+                    future.completeExceptionally(e);
+                }
             }
-            
-            throw new HttpReadException("Cannot read from " + url, e);
-        }
-        return response;
-    }
+        });
 
-    @NotNull
-    private HttpResponse createResponse(Response aResponse) throws HttpReadException {
-        ResponseBody    body  = aResponse.body();
+        future.whenComplete((response, error) -> {
+            if(future.isCancelled()) {
+                call.cancel();
+            }
+        });
 
-        @NotNull byte[] bytes;
-        try {
-            bytes = body != null ? body.bytes() : new byte[0];
-        } catch (IOException e) {
-            throw new HttpReadException("Cannot read byte", e);
-        }
+        return future;
+    }
 
-        return new HttpResponse(aResponse.code(), aResponse.message(), convertHeaders(aResponse), bytes);
+    /**
+     * Calls are enqueued to the dispatcher of the client, which also caps them:
+     * 64 calls and 5 per host by default, see {@link Dispatcher#setMaxRequestsPerHost(int)}
+     */
+    @Override
+    public CompletableFuture<List<HttpBatchResult>> sendAll(List<HttpRequest> aRequests, HttpRequestParameters aRequestParameters, int aParallelism, IHttpBatchListener aListener) {
+        return HttpBatchScheduler.sendAll(aRequests, aParallelism, aListener, request -> sendAsync(request, aRequestParameters));
     }
 
-    @NotNull
-    private List<HttpHeader> convertHeaders(Response aResponse) {
-        Headers headers = aResponse.headers();
-        List<HttpHeader> list = new ArrayList<>();
-        for (Pair<? extends String, ? extends String> header : headers) {
-            list.add(new HttpHeader(header.getFirst(), header.getSecond()));
+    /**
+     * Okio moves the body segments from the socket to the file sink without collecting them in memory
+     */
+    @Override
+    public HttpDownloadResponse download(HttpRequest aRequest, HttpRequestParameters aRequestParameters, Path aTarget) throws HttpConnectException, HttpReadException, HttpWriteException {
+        Request      request = OkHttpClients.createRequest(aRequest, aRequestParameters);
+        OkHttpClient client  = clients.getClient(aRequestParameters);
+        Call         call    = client.newCall(request);
+        String       url     = aRequest.getUrl();
+
+        try (Response response = OkHttpClients.executeCall(call, url)) {
+            HttpCompression compression = aRequestParameters.getCompression();
+            ResponseBody    body        = response.body();
+            long            length;
+            try (BufferedSink sink = Okio.buffer(Okio.sink(aTarget))) {
+                if(compression != null) {
+                    length = sink.writeAll(Okio.source(OkHttpClients.responseStream(response, compression)));
+                } else {
+                    length = body != null ? body.source().readAll(sink) : 0;
+                }
+            } catch (IOException e) {
+                throw new HttpReadException("Cannot download " + url + " to " + aTarget, e);
+            }
+            return new HttpDownloadResponse(response.code(), response.message(), OkHttpClients.responseHeaders(response, compression), aTarget, length);
         }
-        return list;
     }
 
-    @NotNull
-    private Request createRequest(HttpRequest aRequest) {
-        Request.Builder builder = new Request.Builder()
-                .url(aRequest.getUrl())
-                .headers(createHeaders(aRequest.getHeaders()));
-
-        if(aRequest.getBody() != null && aRequest.getBody().length > 0) {
-            builder.method(aRequest.getMethod().name(), RequestBody.create(aRequest.getBody()));
-        } else {
-            builder.method(aRequest.getMethod().name(), null);
+    /**
+     * A network interceptor holds each call on its connection until all calls are connected,
+     * so the calls do not reuse each other's connections. HTTP/2 calls may share one connection.
+     * The connections go into the ConnectionPool of the client, which keeps up to its maxIdleConnections.
+     */
+    @Override
+    public CompletableFuture<HttpWarmUpResult> warmUp(String aUrl, int aConnections, HttpRequestParameters aRequestParameters) {
+        HttpWarmUpRecorder recorder    = new HttpWarmUpRecorder(aConnections);
+        CountDownLatch     connected   = new CountDownLatch(aConnections);
+        Set<Connection>    connections = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        long               waitMs      = aRequestParameters.getTimeouts().getConnectTimeoutMs();
+
+        OkHttpClient client = clients.getClient(aRequestParameters).newBuilder()
+                .addNetworkInterceptor(chain -> {
+                    WarmUpTag tag = chain.request().tag(WarmUpTag.class);
+                    if(tag != null && !tag.connected) {
+                        tag.connected = true;
+                        if(connections.add(chain.connection())) {
+                            recorder.onConnected(System.nanoTime() - tag.startNanos);
+                        }
+                        connected.countDown();
+                        awaitQuietly(connected, waitMs);
+                    }
+                    return chain.proceed(chain.request());
+                })
+                .build();
+
+        HttpRequest            head     = HttpRequest.builder().method(HttpMethod.HEAD).url(aUrl).build();
+        ExecutorService        executor = client.dispatcher().executorService();
+        CompletableFuture<?>[] futures  = new CompletableFuture<?>[aConnections];
+
+        for (int i = 0; i < aConnections; i++) {
+            WarmUpTag               tag     = new WarmUpTag();
+            Request                 request = OkHttpClients.createRequest(head, aRequestParameters).newBuilder().tag(WarmUpTag.class, tag).build();
+            CompletableFuture<Void> future  = new CompletableFuture<>();
+            futures[i] = future;
+            try {
+                executor.execute(() -> {
+                    try (Response ignored = client.newCall(request).execute()) {
+                        // body of HEAD is empty
+                    } catch (IOException | RuntimeException e) {
+                        recorder.onFailed(e);
+                        if(!tag.connected) {
+                            tag.connected = true;
+                            connected.countDown();
+                        }
+                    }
+                    future.complete(null);
+                });
+            } catch (RejectedExecutionException e) {
+                recorder.onFailed(e);
+                connected.countDown();
+                future.complete(null);
+            }
         }
 
-        return builder.build();
+        return CompletableFuture.allOf(futures).thenApply(ignored -> recorder.toResult());
     }
 
-    @NotNull
-    private OkHttpClient createClient(HttpRequestParameters aRequestParameters) {
-        HttpTimeouts        timeouts        = aRequestParameters.getTimeouts();
-        HttpProxyParameters proxyParameters = aRequestParameters.getProxyParameters();
-
-        OkHttpClient.Builder builder = defaultClient.newBuilder()
-                .connectTimeout ( timeouts.getConnectTimeoutMs(), MILLISECONDS )
-                .readTimeout    ( timeouts.getReadTimeoutMs()   , MILLISECONDS )
-                .callTimeout    ( timeouts.getCallTimeoutMs()   , MILLISECONDS )
-                .writeTimeout   ( timeouts.getWriteTimeoutMs()  , MILLISECONDS );
-
-        if(aRequestParameters.getHostnameVerifier() != null) {
-            builder.hostnameVerifier(aRequestParameters.getHostnameVerifier());
+    private static void awaitQuietly(CountDownLatch aLatch, long aTimeoutMs) {
+        try {
+            aLatch.await(aTimeoutMs, MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        if(aRequestParameters.getSslSocketFactory() != null ) {
-            // can throw exception
-            builder.sslSocketFactory(aRequestParameters.getSslSocketFactory(), aRequestParameters.getTrustManager());
-        } else if(aRequestParameters.getTrustManager() != null) {
-            // should throw exception
-            builder.sslSocketFactory(aRequestParameters.getSslSocketFactory(), aRequestParameters.getTrustManager());
-        }
+    @NotNull
+    private HttpResponse createResponse(Response aResponse, @Nullable HttpCompression aCompression) throws HttpReadException {
+        ResponseBody    body  = aResponse.body();
 
-        if(proxyParameters == null || proxyParameters.getProxy() == null) {
-            return builder.build();
+        @NotNull byte[] bytes;
+        try {
+            if(aCompression != null) {
+                try (Response response = aResponse) {
+                    bytes = Okio.buffer(Okio.source(OkHttpClients.responseStream(response, aCompression))).readByteArray();
+                }
+            } else {
+                bytes = body != null ? body.bytes() : new byte[0];
+            }
+        } catch (IOException e) {
+            throw new HttpReadException("Cannot read byte", e);
         }
 
-        builder.proxy(proxyParameters.getProxy());
+        return new HttpResponse(aResponse.code(), aResponse.message(), OkHttpClients.responseHeaders(aResponse, aCompression), bytes);
+    }
 
-        if(proxyParameters.getProxyUsername() == null) {
-            return builder.build();
-        }
+    private static class WarmUpTag {
 
-        builder.proxyAuthenticator(new ProxyAuthenticator(proxyParameters.getProxyUsername(), proxyParameters.getProxyPassword()));
+        private final long    startNanos = System.nanoTime();
+        private       boolean connected;
 
-        return builder.build();
     }
-
-    private Headers createHeaders(HttpHeaders aRequestHeaders) {
-        if(aRequestHeaders == null) {
-            return Util.EMPTY_HEADERS;
-        }
-        
-        List<HttpHeader> list = aRequestHeaders.asList();
-        Map<String, String> map = new HashMap<>();
-        for (HttpHeader header : list) {
-            map.put(header.getName(), header.getValue());
-        }
-        return Headers.of(map);
-    }
-
 }
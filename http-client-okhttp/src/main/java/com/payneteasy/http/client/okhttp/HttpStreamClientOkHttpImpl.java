@@ -0,0 +1,177 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.buffer.HttpBufferPools;
+import com.payneteasy.http.client.api.buffer.IHttpBufferPool;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import com.payneteasy.http.client.api.exceptions.HttpWriteException;
+import okhttp3.*;
+import okio.BufferedSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * IHttpStreamClient on okhttp, supports connection pooling and HTTP/2.
+ *
+ * The body is read from {@link ResponseBody#source()}. A connection goes back to the pool
+ * when the body is read to the end or the stream response is closed.
+ */
+public class HttpStreamClientOkHttpImpl implements IHttpStreamClient, IHttpAsyncStreamClient {
+
+    private static final int DEFAULT_MAX_CACHED_CLIENTS = 32;
+    private static final int READ_BUFFER_SIZE           = 8 * 1024;
+
+    private final OkHttpClients        clients;
+    private final IHttpBufferPool      bufferPool;
+    private final OkHttpConnectionPool connectionPool;
+
+    public HttpStreamClientOkHttpImpl() {
+        this(new OkHttpConnectionPool(OkHttpPoolConfig.builder().build()));
+    }
+
+    /**
+     * @param aConnectionPool pass the same pool to {@link HttpClientOkHttpImpl} to share connections
+     */
+    public HttpStreamClientOkHttpImpl(OkHttpConnectionPool aConnectionPool) {
+        this(aConnectionPool.newClientBuilder().build(), DEFAULT_MAX_CACHED_CLIENTS, HttpBufferPools.getDefault(), aConnectionPool);
+    }
+
+    /**
+     * @param aDefaultClient pass the client of {@link HttpClientOkHttpImpl} to share its connection pool
+     */
+    public HttpStreamClientOkHttpImpl(OkHttpClient aDefaultClient) {
+        this(aDefaultClient, DEFAULT_MAX_CACHED_CLIENTS, HttpBufferPools.getDefault());
+    }
+
+    /**
+     * @param aMaxCachedClients max number of clients built for distinct timeouts, proxy and ssl parameters
+     * @param aBufferPool       pool of read buffers passed to listeners
+     */
+    public HttpStreamClientOkHttpImpl(OkHttpClient aDefaultClient, int aMaxCachedClients, IHttpBufferPool aBufferPool) {
+        this(aDefaultClient, aMaxCachedClients, aBufferPool, null);
+    }
+
+    private HttpStreamClientOkHttpImpl(OkHttpClient aDefaultClient, int aMaxCachedClients, IHttpBufferPool aBufferPool, @Nullable OkHttpConnectionPool aConnectionPool) {
+        clients        = new OkHttpClients(aDefaultClient, aMaxCachedClients);
+        bufferPool     = aBufferPool;
+        connectionPool = aConnectionPool;
+    }
+
+    public OkHttpClientCacheStatistics getClientCacheStatistics() {
+        return clients.getStatistics();
+    }
+
+    /**
+     * @return null if the client was created from an OkHttpClient
+     */
+    @Nullable
+    public OkHttpPoolStatistics getConnectionPoolStatistics() {
+        return connectionPool != null ? connectionPool.getStatistics() : null;
+    }
+
+    @Override
+    public void send(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpConnectException, HttpReadException, HttpWriteException {
+        String   url      = aRequest.getUrl();
+        Response response = OkHttpClients.executeCall(newCall(aRequest, aRequestParameters), url);
+        readResponse(url, response, aRequestParameters, aListener);
+    }
+
+    @Override
+    public IHttpStreamResponse send(HttpRequest aRequest, HttpRequestParameters aRequestParameters) throws HttpConnectException, HttpReadException, HttpWriteException {
+        Response response = OkHttpClients.executeCall(newCall(aRequest, aRequestParameters), aRequest.getUrl());
+        return new HttpStreamResponseOkHttpImpl(response, aRequestParameters.getCompression());
+    }
+
+    /**
+     * The listener is called on an okhttp dispatcher thread
+     */
+    @Override
+    public CompletableFuture<Void> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) {
+        String url = aRequest.getUrl();
+        return enqueue(aRequest, aRequestParameters, response -> {
+            readResponse(url, response, aRequestParameters, aListener);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<IHttpStreamResponse> sendAsync(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        return enqueue(aRequest, aRequestParameters, response -> new HttpStreamResponseOkHttpImpl(response, aRequestParameters.getCompression()));
+    }
+
+    private Call newCall(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        return clients.getClient(aRequestParameters).newCall(OkHttpClients.createRequest(aRequest, aRequestParameters));
+    }
+
+    private <T> CompletableFuture<T> enqueue(HttpRequest aRequest, HttpRequestParameters aRequestParameters, IResponseHandler<T> aHandler) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        Call   call       = newCall(aRequest, aRequestParameters);
+        String url        = aRequest.getUrl();
+        long   starTimeMs = System.currentTimeMillis();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call aCall, @NotNull IOException e) {
+                future.completeExceptionally(OkHttpClients.convertCallException(e, url, starTimeMs));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call aCall, @NotNull Response aResponse) {
+                try {
+                    T result = aHandler.handle(aResponse);
+                    if(!future.complete(result) && result instanceof IHttpStreamResponse) {
+                        aResponse.close();
+                    }
+                } catch (HttpReadException | RuntimeException e) {
+                    aResponse.close();
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        future.whenComplete((response, error) -> {
+            if(future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    private void readResponse(String aUrl, Response aResponse, HttpRequestParameters aRequestParameters, IHttpStreamResponseListener aListener) throws HttpReadException {
+        try (Response response = aResponse) {
+            aListener.onStatus(response.code(), response.message());
+            aListener.onHeaders(OkHttpClients.responseHeaders(response, aRequestParameters.getCompression()));
+
+            ResponseBody body = response.body();
+            if(body == null) {
+                return;
+            }
+
+            byte[] buffer = bufferPool.acquire(READ_BUFFER_SIZE);
+            try {
+                BufferedSource source = aRequestParameters.getCompression() != null
+                        ? Okio.buffer(Okio.source(OkHttpClients.responseStream(response, aRequestParameters.getCompression())))
+                        : body.source();
+                int            count;
+                while ((count = source.read(buffer)) >= 0) {
+                    aListener.onBytes(buffer, 0, count);
+                }
+            } catch (IOException e) {
+                throw new HttpReadException("Cannot read message body from " + aUrl, e);
+            } finally {
+                bufferPool.release(buffer);
+            }
+        }
+    }
+
+    private interface IResponseHandler<T> {
+        T handle(Response aResponse) throws HttpReadException;
+    }
+}
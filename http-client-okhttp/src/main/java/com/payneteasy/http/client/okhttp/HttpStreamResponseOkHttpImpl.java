@@ -0,0 +1,57 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.HttpHeader;
+import com.payneteasy.http.client.api.IHttpStreamResponse;
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import okhttp3.Response;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Closing the response releases the connection to the okhttp connection pool.
+ * Okhttp reuses an HTTP/1.1 connection only if the rest of the body can be skipped quickly,
+ * so read the body to the end before closing.
+ */
+class HttpStreamResponseOkHttpImpl implements IHttpStreamResponse {
+
+    private final Response         response;
+    private final List<HttpHeader> headers;
+    private final InputStream      inputStream;
+
+    HttpStreamResponseOkHttpImpl(Response aResponse, @Nullable HttpCompression aCompression) {
+        response    = aResponse;
+        headers     = OkHttpClients.responseHeaders(aResponse, aCompression);
+        inputStream = OkHttpClients.responseStream(aResponse, aCompression);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.code();
+    }
+
+    @Nonnull
+    @Override
+    public String getReasonPhrase() {
+        return response.message();
+    }
+
+    @Nonnull
+    @Override
+    public List<HttpHeader> getHeaders() {
+        return headers;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public void close() {
+        response.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.payneteasy.http.client.okhttp;
+
+import okhttp3.OkHttpClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * LRU cache of clients derived from the default client.
+ *
+ * Derived clients share the connection pool and the dispatcher of the default client,
+ * so an evicted client needs no shutdown.
+ */
+class OkHttpClientCache {
+
+    private final Map<OkHttpClientKey, OkHttpClient> clients;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    OkHttpClientCache(int aMaxSize) {
+        clients = new LinkedHashMap<OkHttpClientKey, OkHttpClient>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OkHttpClientKey, OkHttpClient> aEldest) {
+                if(size() > aMaxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized OkHttpClient get(OkHttpClientKey aKey, Function<OkHttpClientKey, OkHttpClient> aFactory) {
+        OkHttpClient client = clients.get(aKey);
+        if(client != null) {
+            hits++;
+            return client;
+        }
+
+        misses++;
+        client = aFactory.apply(aKey);
+        clients.put(aKey, client);
+        return client;
+    }
+
+    synchronized OkHttpClientCacheStatistics getStatistics() {
+        return new OkHttpClientCacheStatistics(hits, misses, evictions, clients.size());
+    }
+}
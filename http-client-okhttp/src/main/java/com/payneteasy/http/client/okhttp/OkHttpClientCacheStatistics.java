@@ -0,0 +1,13 @@
+package com.payneteasy.http.client.okhttp;
+
+import lombok.Data;
+
+@Data
+public class OkHttpClientCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int  size;
+
+}
@@ -0,0 +1,37 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.HttpProxyParameters;
+import com.payneteasy.http.client.api.HttpRequestParameters;
+import com.payneteasy.http.client.api.HttpTimeouts;
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
+import lombok.Data;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Request parameters that need their own OkHttpClient.
+ * SSL objects are compared by identity, so reuse them between requests.
+ */
+@Data
+class OkHttpClientKey {
+
+    private final HttpTimeouts        timeouts;
+    private final HttpProxyParameters proxyParameters;
+    private final SSLSocketFactory    sslSocketFactory;
+    private final X509TrustManager    trustManager;
+    private final HostnameVerifier    hostnameVerifier;
+    private final IHttpDnsResolver    dnsResolver;
+
+    static OkHttpClientKey of(HttpRequestParameters aParameters) {
+        return new OkHttpClientKey(
+                aParameters.getTimeouts()
+                , aParameters.getProxyParameters()
+                , aParameters.getSslSocketFactory()
+                , aParameters.getTrustManager()
+                , aParameters.getHostnameVerifier()
+                , aParameters.getDnsResolver()
+        );
+    }
+}
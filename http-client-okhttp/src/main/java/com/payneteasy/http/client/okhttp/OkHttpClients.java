@@ -0,0 +1,224 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.*;
+import com.payneteasy.http.client.api.body.HttpRequestBodies;
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import com.payneteasy.http.client.api.compression.HttpCompression;
+import com.payneteasy.http.client.api.compression.HttpCompressions;
+import com.payneteasy.http.client.api.exceptions.HttpConnectException;
+import com.payneteasy.http.client.api.exceptions.HttpProxyAuthConnectionException;
+import com.payneteasy.http.client.api.exceptions.HttpReadException;
+import lombok.NonNull;
+import okhttp3.*;
+import okhttp3.internal.Util;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.Proxy;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * OkHttpClient instances per request parameters and conversions shared by the okhttp clients
+ */
+class OkHttpClients {
+
+    private final OkHttpClient      defaultClient;
+    private final OkHttpClientCache clientCache;
+
+    OkHttpClients(OkHttpClient aDefaultClient, int aMaxCachedClients) {
+        defaultClient = aDefaultClient;
+        clientCache   = new OkHttpClientCache(aMaxCachedClients);
+    }
+
+    OkHttpClientCacheStatistics getStatistics() {
+        return clientCache.getStatistics();
+    }
+
+    @NotNull
+    OkHttpClient getClient(HttpRequestParameters aRequestParameters) {
+        return clientCache.get(OkHttpClientKey.of(aRequestParameters), this::buildClient);
+    }
+
+    @NotNull
+    private OkHttpClient buildClient(OkHttpClientKey aKey) {
+        HttpTimeouts        timeouts        = aKey.getTimeouts();
+        HttpProxyParameters proxyParameters = aKey.getProxyParameters();
+
+        OkHttpClient.Builder builder = defaultClient.newBuilder()
+                .eventListenerFactory(new OkHttpEventListenerFactory(defaultClient.eventListenerFactory()))
+                .connectTimeout ( timeouts.getConnectTimeoutMs(), MILLISECONDS )
+                .readTimeout    ( timeouts.getReadTimeoutMs()   , MILLISECONDS )
+                .callTimeout    ( timeouts.getCallTimeoutMs()   , MILLISECONDS )
+                .writeTimeout   ( timeouts.getWriteTimeoutMs()  , MILLISECONDS );
+
+        if(aKey.getDnsResolver() != null) {
+            builder.dns(new OkHttpDns(aKey.getDnsResolver()));
+        }
+
+        if(aKey.getHostnameVerifier() != null) {
+            builder.hostnameVerifier(aKey.getHostnameVerifier());
+        }
+
+        if(aKey.getSslSocketFactory() != null ) {
+            // can throw exception
+            builder.sslSocketFactory(aKey.getSslSocketFactory(), aKey.getTrustManager());
+        } else if(aKey.getTrustManager() != null) {
+            // should throw exception
+            builder.sslSocketFactory(aKey.getSslSocketFactory(), aKey.getTrustManager());
+        }
+
+        if(proxyParameters == null || proxyParameters.getProxy() == null) {
+            return builder.build();
+        }
+
+        builder.proxy(proxyParameters.getProxy());
+
+        if(proxyParameters.getProxyUsername() == null) {
+            return builder.build();
+        }
+
+        builder.proxyAuthenticator(new ProxyAuthenticator(proxyParameters.getProxyUsername(), proxyParameters.getProxyPassword()));
+
+        return builder.build();
+    }
+
+    /**
+     * With {@link HttpCompression} the Accept-Encoding header is set explicitly, so okhttp does not decode the body itself.
+     * Plain http requests through a proxy carry Proxy-Authorization from the first request.
+     */
+    @NotNull
+    static Request createRequest(HttpRequest aRequest, HttpRequestParameters aRequestParameters) {
+        HttpRequest     request = HttpCompressions.prepareRequest(aRequest, aRequestParameters.getCompression());
+        Request.Builder builder = new Request.Builder()
+                .url(request.getUrl())
+                .headers(createHeaders(request.getHeaders()));
+
+        HttpProxyParameters proxyParameters = aRequestParameters.getProxyParameters();
+        if(isPlainHttpProxy(proxyParameters, request.getUrl())) {
+            builder.header("Proxy-Authorization", Credentials.basic(proxyParameters.getProxyUsername(), proxyParameters.getProxyPassword()));
+        }
+
+        if(aRequestParameters.getEventListener() != null) {
+            builder.tag(OkHttpEventListenerFactory.Tag.class, new OkHttpEventListenerFactory.Tag(aRequest, aRequestParameters.getEventListener()));
+        }
+
+        IHttpRequestBody body = HttpRequestBodies.of(request);
+        if(request.getRequestBody() != null) {
+            builder.method(request.getMethod().name(), new OkHttpRequestBody(body));
+        } else if(body != null) {
+            builder.method(request.getMethod().name(), RequestBody.create(request.getBody()));
+        } else {
+            builder.method(request.getMethod().name(), null);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Inside an https tunnel the header would go to the target server
+     */
+    private static boolean isPlainHttpProxy(@Nullable HttpProxyParameters aParameters, String aUrl) {
+        return aParameters != null
+                && aParameters.getProxy() != null
+                && aParameters.getProxy().type() == Proxy.Type.HTTP
+                && aParameters.getProxyUsername() != null
+                && aUrl.regionMatches(true, 0, "http:", 0, 5);
+    }
+
+    private static Headers createHeaders(HttpHeaders aRequestHeaders) {
+        if(aRequestHeaders == null) {
+            return Util.EMPTY_HEADERS;
+        }
+        
+        // Headers.of(Map) would keep only the last of repeated headers
+        Headers.Builder builder = new Headers.Builder();
+        for (HttpHeader header : aRequestHeaders.asList()) {
+            builder.add(header.getName(), header.getValue());
+        }
+        return builder.build();
+    }
+
+    static List<HttpHeader> responseHeaders(Response aResponse, @Nullable HttpCompression aCompression) {
+        return HttpCompressions.decodeHeaders(convertHeaders(aResponse), aCompression);
+    }
+
+    /**
+     * @return the body decoded according to the compression parameters
+     */
+    static InputStream responseStream(Response aResponse, @Nullable HttpCompression aCompression) {
+        ResponseBody body = aResponse.body();
+        InputStream  wire = body != null ? body.byteStream() : new ByteArrayInputStream(new byte[0]);
+        return HttpCompressions.decode(wire, convertHeaders(aResponse), aCompression);
+    }
+
+    @NotNull
+    static List<HttpHeader> convertHeaders(Response aResponse) {
+        Headers            headers = aResponse.headers();
+        HttpHeadersBuilder builder = new HttpHeadersBuilder(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            builder.add(headers.name(i), headers.value(i));
+        }
+        return builder.build();
+    }
+
+    @NotNull
+    static Response executeCall(Call call, @NonNull String url) throws HttpConnectException, HttpReadException {
+        long         starTimeMs = System.currentTimeMillis();
+        try {
+            return call.execute();
+        } catch (IOException e) {
+            Exception exception = convertCallException(e, url, starTimeMs);
+            if(exception instanceof HttpConnectException) {
+                throw (HttpConnectException) exception;
+            }
+            throw (HttpReadException) exception;
+        }
+    }
+
+    /**
+     * @return HttpConnectException or HttpReadException
+     */
+    @NotNull
+    static Exception convertCallException(IOException e, String url, long starTimeMs) {
+        if(e instanceof SSLHandshakeException || e instanceof SSLPeerUnverifiedException) {
+            return new HttpConnectException("Bad ssl certificate at " + url, e);
+        }
+
+        if(e instanceof ProtocolException) {
+            if("Unexpected status line: <html><head><title>407 Proxy Authentication Required</title></head>".equals(e.getMessage())) {
+                return new HttpConnectException("407 Proxy Authentication Required", e);
+            } else {
+                return new HttpConnectException("Protocol error: cannot connect to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
+            }
+        }
+
+        if(e instanceof ConnectException) {
+            return new HttpConnectException("Cannot connect to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
+        }
+
+        if(e instanceof SocketTimeoutException) {
+            return new HttpConnectException("Connection timed out to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
+        }
+
+        if(e instanceof InterruptedIOException) {
+            return new HttpConnectException("Connection interrupted to " + url + " within " + (System.currentTimeMillis() - starTimeMs) + " ms", e);
+        }
+
+        if("Failed to authenticate with proxy".equals(e.getMessage())) {
+            return new HttpProxyAuthConnectionException("Failed to authenticate with proxy", e);
+        }
+
+        return new HttpReadException("Cannot read from " + url, e);
+    }
+}
@@ -0,0 +1,397 @@
+package com.payneteasy.http.client.okhttp;
+
+import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Okhttp ConnectionPool with per host caps and statistics.
+ *
+ * The socket factory counts opened and closed connections, the event listener counts calls on each connection
+ * and a network interceptor applies maxLifetimeMs, all of them are set by {@link #newClientBuilder()}.
+ * A new socket is bound to its okhttp Connection when the call that opened it acquires the connection,
+ * which happens on the same thread, so connections are tracked by identity.
+ *
+ * The cap limits calls in progress per host with an application interceptor. An HTTP/1.1 connection
+ * carries one call at a time and idle connections are reused first, so open connections stay within it.
+ */
+public class OkHttpConnectionPool {
+
+    private final OkHttpPoolConfig                           config;
+    private final ConnectionPool                             connectionPool;
+    private final ConcurrentMap<String, RouteState>          routes      = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Connection, ConnectionState> connections = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Semaphore>           hostSlots   = new ConcurrentHashMap<>();
+
+    /** the socket connected last on this thread, until its call acquires the connection */
+    private final ThreadLocal<ConnectionState> connectedSocket = new ThreadLocal<>();
+
+    public OkHttpConnectionPool(OkHttpPoolConfig aConfig) {
+        config         = aConfig;
+        connectionPool = new ConnectionPool(aConfig.getMaxIdleConnections(), aConfig.getKeepAliveMs(), MILLISECONDS);
+    }
+
+    /**
+     * Replacing the event listener or the socket factory of the builder stops the statistics,
+     * add listeners to IHttpClientEventListener of the request parameters instead.
+     *
+     * @return a builder with the pool, its socket factory, event listener and interceptors,
+     *         the dispatcher allows maxConnectionsPerHost async calls per host if it is set
+     */
+    public OkHttpClient.Builder newClientBuilder() {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .socketFactory(new RouteSocketFactory())
+                .eventListener(new PoolEventListener())
+                .addNetworkInterceptor(this::intercept);
+
+        if(config.getMaxConnectionsPerHost() > 0) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequestsPerHost(config.getMaxConnectionsPerHost());
+            builder.dispatcher(dispatcher);
+            builder.addInterceptor(this::limit);
+        }
+        return builder;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public OkHttpPoolStatistics getStatistics() {
+        Map<String, int[]> activeIdle = new TreeMap<>();
+        for (ConnectionState connection : connections.values()) {
+            int[] counts = activeIdle.computeIfAbsent(connection.route, it -> new int[2]);
+            counts[connection.calls.get() > 0 ? 0 : 1]++;
+        }
+
+        Map<String, OkHttpRouteStatistics> result = new TreeMap<>();
+        for (Map.Entry<String, RouteState> entry : routes.entrySet()) {
+            RouteState route  = entry.getValue();
+            int[]      counts = activeIdle.getOrDefault(entry.getKey(), new int[2]);
+            result.put(entry.getKey(), new OkHttpRouteStatistics(
+                    route.created.get()
+                    , route.closed.get()
+                    , route.evicted.get()
+                    , counts[0]
+                    , counts[1]
+            ));
+        }
+        return new OkHttpPoolStatistics(connectionPool.connectionCount(), connectionPool.idleConnectionCount(), result);
+    }
+
+    private Response intercept(Interceptor.Chain aChain) throws IOException {
+        Connection      connection = aChain.connection();
+        ConnectionState state      = connection != null ? connections.get(connection) : null;
+        if(state == null) {
+            return aChain.proceed(aChain.request());
+        }
+
+        Request request = aChain.request();
+        if(config.getMaxLifetimeMs() > 0 && System.nanoTime() - state.createdNanos > MILLISECONDS.toNanos(config.getMaxLifetimeMs())) {
+            // okhttp takes no new exchanges on the connection after this one, HTTP/2 drops the header
+            request = request.newBuilder().header("Connection", "close").build();
+        }
+
+        Response response = aChain.proceed(request);
+        if(isLastExchange(request, response)) {
+            state.retiring = true;
+        }
+        return response;
+    }
+
+    /**
+     * okhttp closes the connection after such an exchange, it is counted as closed and not as evicted
+     */
+    private static boolean isLastExchange(Request aRequest, Response aResponse) {
+        return "close".equalsIgnoreCase(aRequest.header("Connection"))
+                || "close".equalsIgnoreCase(aResponse.header("Connection"))
+                || (aResponse.protocol() == Protocol.HTTP_1_0 && !"keep-alive".equalsIgnoreCase(aResponse.header("Connection")));
+    }
+
+    private Response limit(Interceptor.Chain aChain) throws IOException {
+        HttpUrl   url   = aChain.request().url();
+        String    host  = url.host() + ":" + url.port();
+        Semaphore slots = hostSlots.computeIfAbsent(host, it -> new Semaphore(config.getMaxConnectionsPerHost()));
+
+        acquireSlot(host, slots, aChain.connectTimeoutMillis());
+        Response response;
+        try {
+            response = aChain.proceed(aChain.request());
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if(body == null) {
+            slots.release();
+            return response;
+        }
+        return response.newBuilder().body(new ReleasingBody(body, slots::release)).build();
+    }
+
+    private void acquireSlot(String aHost, Semaphore aSlots, int aTimeoutMs) throws IOException {
+        try {
+            if(aTimeoutMs <= 0) {
+                aSlots.acquire();
+            } else if(!aSlots.tryAcquire(aTimeoutMs, MILLISECONDS)) {
+                throw new ConnectException("All " + config.getMaxConnectionsPerHost() + " connections to " + aHost + " are busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + aHost);
+        }
+    }
+
+    private static class RouteState {
+
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong closed  = new AtomicLong();
+        private final AtomicLong evicted = new AtomicLong();
+    }
+
+    private static class ConnectionState {
+
+        private final String        route;
+        private final RouteState    routeState;
+        private final SocketAddress endpoint;
+        private final long          createdNanos = System.nanoTime();
+        private final AtomicInteger calls        = new AtomicInteger();
+        private final AtomicBoolean closed       = new AtomicBoolean();
+
+        /** set once the call that opened the socket acquires the connection */
+        private volatile Connection connection;
+
+        /** the last exchange asked to close the connection */
+        private volatile boolean    retiring;
+
+        private ConnectionState(String aRoute, RouteState aRouteState, SocketAddress aEndpoint) {
+            route      = aRoute;
+            routeState = aRouteState;
+            endpoint   = aEndpoint;
+        }
+    }
+
+    private class PoolEventListener extends EventListener {
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            ConnectionState connected = connectedSocket.get();
+            connectedSocket.remove();
+
+            ConnectionState state = connections.get(connection);
+            if(state == null && isOpenedFor(connected, connection)) {
+                connected.connection = connection;
+                connections.put(connection, connected);
+                state = connected;
+                // closed while being bound
+                if(connected.closed.get()) {
+                    connections.remove(connection);
+                }
+            }
+            if(state != null) {
+                state.calls.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+            ConnectionState state = connections.get(connection);
+            if(state != null) {
+                state.calls.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void callEnd(@NotNull Call call) {
+            connectedSocket.remove();
+        }
+
+        @Override
+        public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+            connectedSocket.remove();
+        }
+
+        /**
+         * A call may drop the connection it opened for a pooled one, the socket is then closed already
+         */
+        private boolean isOpenedFor(@Nullable ConnectionState aConnected, Connection aConnection) {
+            return aConnected != null
+                    && aConnected.connection == null
+                    && !aConnected.closed.get()
+                    && aConnection.route().socketAddress().equals(aConnected.endpoint);
+        }
+    }
+
+    /**
+     * Runs onFinish once when the body is read to the end or closed
+     */
+    private static class ReleasingBody extends ResponseBody {
+
+        private final ResponseBody   delegate;
+        private final BufferedSource source;
+        private final Runnable       onFinish;
+        private final AtomicBoolean  finished = new AtomicBoolean();
+
+        private ReleasingBody(ResponseBody aDelegate, Runnable aOnFinish) {
+            onFinish = aOnFinish;
+            delegate = aDelegate;
+            source   = Okio.buffer(new ForwardingSource(aDelegate.source()) {
+                @Override
+                public long read(@NotNull Buffer aSink, long aByteCount) throws IOException {
+                    long count = super.read(aSink, aByteCount);
+                    if(count == -1) {
+                        finish();
+                    }
+                    return count;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        finish();
+                    }
+                }
+            });
+        }
+
+        private void finish() {
+            if(finished.compareAndSet(false, true)) {
+                onFinish.run();
+            }
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NotNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    private class RouteSocketFactory extends SocketFactory {
+
+        @Override
+        public Socket createSocket() {
+            return new RouteSocket();
+        }
+
+        @Override
+        public Socket createSocket(String aHost, int aPort) throws IOException {
+            return connected(new InetSocketAddress(aHost, aPort));
+        }
+
+        @Override
+        public Socket createSocket(String aHost, int aPort, InetAddress aLocalAddress, int aLocalPort) throws IOException {
+            return connected(new InetSocketAddress(aHost, aPort), new InetSocketAddress(aLocalAddress, aLocalPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress aAddress, int aPort) throws IOException {
+            return connected(new InetSocketAddress(aAddress, aPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress aAddress, int aPort, InetAddress aLocalAddress, int aLocalPort) throws IOException {
+            return connected(new InetSocketAddress(aAddress, aPort), new InetSocketAddress(aLocalAddress, aLocalPort));
+        }
+
+        private Socket connected(SocketAddress aEndpoint) throws IOException {
+            Socket socket = new RouteSocket();
+            socket.connect(aEndpoint);
+            return socket;
+        }
+
+        private Socket connected(SocketAddress aEndpoint, SocketAddress aLocal) throws IOException {
+            Socket socket = new RouteSocket();
+            socket.bind(aLocal);
+            socket.connect(aEndpoint);
+            return socket;
+        }
+    }
+
+    private class RouteSocket extends Socket {
+
+        private volatile ConnectionState state;
+
+        @Override
+        public void connect(SocketAddress aEndpoint, int aTimeoutMs) throws IOException {
+            super.connect(aEndpoint, aTimeoutMs);
+
+            String     route      = routeOf(aEndpoint);
+            RouteState routeState = routes.computeIfAbsent(route, it -> new RouteState());
+            routeState.created.incrementAndGet();
+
+            state = new ConnectionState(route, routeState, aEndpoint);
+            connectedSocket.set(state);
+        }
+
+        /**
+         * A connection is evicted if it was idle in the pool, otherwise it is closed by a call:
+         * an error, Connection: close, maxLifetimeMs or a failed handshake
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                ConnectionState connection = state;
+                if(connection != null && connection.closed.compareAndSet(false, true)) {
+                    if(connection.connection != null) {
+                        connections.remove(connection.connection);
+                    }
+                    if(connection.connection != null && !connection.retiring && connection.calls.get() == 0) {
+                        connection.routeState.evicted.incrementAndGet();
+                    } else {
+                        connection.routeState.closed.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private String routeOf(SocketAddress aEndpoint) {
+            if(aEndpoint instanceof InetSocketAddress) {
+                InetSocketAddress address = (InetSocketAddress) aEndpoint;
+                String            host    = address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+                return host + ":" + address.getPort();
+            }
+            return String.valueOf(aEndpoint);
+        }
+    }
+}
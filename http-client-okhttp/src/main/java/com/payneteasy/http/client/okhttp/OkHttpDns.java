@@ -0,0 +1,29 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.dns.IHttpDnsResolver;
+import lombok.EqualsAndHashCode;
+import okhttp3.Dns;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * Okhttp Dns backed by IHttpDnsResolver
+ */
+@EqualsAndHashCode
+class OkHttpDns implements Dns {
+
+    private final IHttpDnsResolver resolver;
+
+    OkHttpDns(IHttpDnsResolver aResolver) {
+        resolver = aResolver;
+    }
+
+    @NotNull
+    @Override
+    public List<InetAddress> lookup(@NotNull String aHostname) throws UnknownHostException {
+        return resolver.resolve(aHostname);
+    }
+}
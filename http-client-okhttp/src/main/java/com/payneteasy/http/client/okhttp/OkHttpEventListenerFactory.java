@@ -0,0 +1,212 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.HttpRequest;
+import com.payneteasy.http.client.api.IHttpClientEventListener;
+import lombok.Data;
+import okhttp3.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Bridges okhttp events to the IHttpClientEventListener from the request tag.
+ * Every event also goes to the listener of the original factory, so a listener set on the default client keeps working.
+ */
+class OkHttpEventListenerFactory implements EventListener.Factory {
+
+    private final EventListener.Factory original;
+
+    OkHttpEventListenerFactory(EventListener.Factory aOriginal) {
+        original = aOriginal;
+    }
+
+    @NotNull
+    @Override
+    public EventListener create(@NotNull Call aCall) {
+        EventListener delegate = original.create(aCall);
+        Tag           tag      = aCall.request().tag(Tag.class);
+        return tag != null ? new Bridge(delegate, tag.request, tag.listener) : delegate;
+    }
+
+    @Data
+    static class Tag {
+        private final HttpRequest              request;
+        private final IHttpClientEventListener listener;
+    }
+
+    private static class Bridge extends EventListener {
+
+        private final EventListener            delegate;
+        private final HttpRequest              request;
+        private final IHttpClientEventListener listener;
+
+        private Bridge(EventListener aDelegate, HttpRequest aRequest, IHttpClientEventListener aListener) {
+            delegate = aDelegate;
+            request  = aRequest;
+            listener = aListener;
+        }
+
+        @Override
+        public void callStart(@NotNull Call call) {
+            delegate.callStart(call);
+            listener.onCallStart(request, System.nanoTime());
+        }
+
+        @Override
+        public void proxySelectStart(@NotNull Call call, @NotNull HttpUrl url) {
+            delegate.proxySelectStart(call, url);
+        }
+
+        @Override
+        public void proxySelectEnd(@NotNull Call call, @NotNull HttpUrl url, @NotNull List<Proxy> proxies) {
+            delegate.proxySelectEnd(call, url, proxies);
+        }
+
+        @Override
+        public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+            delegate.dnsStart(call, domainName);
+            listener.onDnsStart(request, domainName, System.nanoTime());
+        }
+
+        @Override
+        public void dnsEnd(@NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+            delegate.dnsEnd(call, domainName, inetAddressList);
+            listener.onDnsEnd(request, domainName, System.nanoTime());
+        }
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+            delegate.connectStart(call, inetSocketAddress, proxy);
+            listener.onConnectStart(request, System.nanoTime());
+        }
+
+        @Override
+        public void secureConnectStart(@NotNull Call call) {
+            delegate.secureConnectStart(call);
+            listener.onTlsHandshakeStart(request, System.nanoTime());
+        }
+
+        @Override
+        public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+            delegate.secureConnectEnd(call, handshake);
+            listener.onTlsHandshakeEnd(request, System.nanoTime());
+        }
+
+        @Override
+        public void connectEnd(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy, @Nullable Protocol protocol) {
+            delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+            listener.onConnectEnd(request, System.nanoTime());
+        }
+
+        @Override
+        public void connectFailed(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy, @Nullable Protocol protocol, @NotNull IOException ioe) {
+            delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            delegate.connectionAcquired(call, connection);
+        }
+
+        @Override
+        public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+            delegate.connectionReleased(call, connection);
+        }
+
+        @Override
+        public void requestHeadersStart(@NotNull Call call) {
+            delegate.requestHeadersStart(call);
+        }
+
+        @Override
+        public void requestHeadersEnd(@NotNull Call call, @NotNull Request request) {
+            delegate.requestHeadersEnd(call, request);
+            listener.onRequestHeadersWritten(this.request, System.nanoTime());
+        }
+
+        @Override
+        public void requestBodyStart(@NotNull Call call) {
+            delegate.requestBodyStart(call);
+        }
+
+        @Override
+        public void requestBodyEnd(@NotNull Call call, long byteCount) {
+            delegate.requestBodyEnd(call, byteCount);
+            listener.onRequestBodyWritten(request, byteCount, System.nanoTime());
+        }
+
+        @Override
+        public void requestFailed(@NotNull Call call, @NotNull IOException ioe) {
+            delegate.requestFailed(call, ioe);
+        }
+
+        @Override
+        public void responseHeadersStart(@NotNull Call call) {
+            delegate.responseHeadersStart(call);
+            listener.onResponseFirstByte(request, System.nanoTime());
+        }
+
+        @Override
+        public void responseHeadersEnd(@NotNull Call call, @NotNull Response response) {
+            delegate.responseHeadersEnd(call, response);
+            listener.onResponseHeaders(request, response.code(), System.nanoTime());
+        }
+
+        @Override
+        public void responseBodyStart(@NotNull Call call) {
+            delegate.responseBodyStart(call);
+        }
+
+        @Override
+        public void responseBodyEnd(@NotNull Call call, long byteCount) {
+            delegate.responseBodyEnd(call, byteCount);
+            listener.onResponseBodyComplete(request, byteCount, System.nanoTime());
+        }
+
+        @Override
+        public void responseFailed(@NotNull Call call, @NotNull IOException ioe) {
+            delegate.responseFailed(call, ioe);
+        }
+
+        @Override
+        public void callEnd(@NotNull Call call) {
+            delegate.callEnd(call);
+        }
+
+        @Override
+        public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+            delegate.callFailed(call, ioe);
+            listener.onCallFailed(request, ioe, System.nanoTime());
+        }
+
+        @Override
+        public void canceled(@NotNull Call call) {
+            delegate.canceled(call);
+        }
+
+        @Override
+        public void satisfactionFailure(@NotNull Call call, @NotNull Response response) {
+            delegate.satisfactionFailure(call, response);
+        }
+
+        @Override
+        public void cacheHit(@NotNull Call call, @NotNull Response response) {
+            delegate.cacheHit(call, response);
+        }
+
+        @Override
+        public void cacheMiss(@NotNull Call call) {
+            delegate.cacheMiss(call);
+        }
+
+        @Override
+        public void cacheConditionalHit(@NotNull Call call, @NotNull Response cachedResponse) {
+            delegate.cacheConditionalHit(call, cachedResponse);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.payneteasy.http.client.okhttp;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OkHttpPoolConfig {
+
+    /**
+     * Idle connections kept by the pool for all routes, okhttp 4 has no per route idle limit
+     */
+    @Builder.Default
+    private final int maxIdleConnections = 5;
+
+    /**
+     * An idle connection is evicted after this time, okhttp schedules the eviction itself
+     */
+    @Builder.Default
+    private final long keepAliveMs = 5 * 60_000;
+
+    /**
+     * An HTTP/1.1 connection older than this is closed after its next exchange, 0 is unlimited
+     */
+    @Builder.Default
+    private final long maxLifetimeMs = 0;
+
+    /**
+     * Calls in progress and so HTTP/1.1 connections per host and port, 0 is unlimited.
+     * A call waits for a free slot up to the connect timeout.
+     */
+    @Builder.Default
+    private final int maxConnectionsPerHost = 0;
+
+}
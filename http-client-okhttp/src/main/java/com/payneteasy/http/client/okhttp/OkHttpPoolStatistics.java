@@ -0,0 +1,19 @@
+package com.payneteasy.http.client.okhttp;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class OkHttpPoolStatistics {
+
+    /** connections in the okhttp pool */
+    private final int connections;
+
+    /** idle connections in the okhttp pool */
+    private final int idleConnections;
+
+    /** by route, ip:port of the server or of the proxy */
+    private final Map<String, OkHttpRouteStatistics> routes;
+
+}
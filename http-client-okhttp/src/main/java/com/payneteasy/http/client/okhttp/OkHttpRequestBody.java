@@ -0,0 +1,43 @@
+package com.payneteasy.http.client.okhttp;
+
+import com.payneteasy.http.client.api.body.IHttpRequestBody;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Streams IHttpRequestBody to the okhttp sink
+ */
+class OkHttpRequestBody extends RequestBody {
+
+    private final IHttpRequestBody body;
+
+    OkHttpRequestBody(IHttpRequestBody aBody) {
+        body = aBody;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return null;
+    }
+
+    @Override
+    public long contentLength() {
+        return body.getContentLength();
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return body.isOneShot();
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink aSink) throws IOException {
+        body.writeTo(aSink.outputStream());
+    }
+}
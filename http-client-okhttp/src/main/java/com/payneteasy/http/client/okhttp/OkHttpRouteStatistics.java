@@ -0,0 +1,23 @@
+package com.payneteasy.http.client.okhttp;
+
+import lombok.Data;
+
+@Data
+public class OkHttpRouteStatistics {
+
+    /** connections opened */
+    private final long created;
+
+    /** connections closed by a call: an error, Connection: close, max lifetime or a failed handshake */
+    private final long closed;
+
+    /** connections closed while idle in the pool, by the pool or by the server */
+    private final long evicted;
+
+    /** open connections with an exchange in progress */
+    private final int active;
+
+    /** open connections without an exchange */
+    private final int idle;
+
+}
@@ -1,19 +1,26 @@
 package com.payneteasy.http.client.okhttp;
 
+import lombok.EqualsAndHashCode;
 import okhttp3.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 
+/**
+ * Okhttp asks for the credentials before a CONNECT with the "OkHttp-Preemptive" challenge,
+ * so https tunnels are authenticated without a 407 round trip.
+ *
+ * Instances with the same credentials are equal. Okhttp compares proxy authenticators in
+ * the connection address, so clients built for other timeouts share authenticated tunnels.
+ */
+@EqualsAndHashCode
 public class ProxyAuthenticator implements Authenticator {
 
-    private final String username;
-    private final String password;
+    private final String credential;
 
     public ProxyAuthenticator(String username, String password) {
-        this.username = username;
-        this.password = password;
+        credential = Credentials.basic(username, password);
     }
 
     @Override
@@ -22,17 +29,6 @@ public class ProxyAuthenticator implements Authenticator {
             return null; // Give up, we've already failed to authenticate.
         }
 
-        String credential = Credentials.basic(username, password);
-
-        for (Challenge challenge : aResponse.challenges()) {
-            // If this is preemptive auth, use a preemptive credential.
-            if (challenge.scheme().equalsIgnoreCase("OkHttp-Preemptive")) {
-                return aResponse.request().newBuilder()
-                        .header("Proxy-Authorization", credential)
-                        .build();
-            }
-        }
-
         return aResponse.request().newBuilder()
                 .header("Proxy-Authorization", credential)
                 .build();